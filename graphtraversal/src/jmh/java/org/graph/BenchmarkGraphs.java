@@ -0,0 +1,72 @@
+package org.graph;
+
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible input graphs for the benchmarks.
+ */
+final class BenchmarkGraphs {
+
+    private BenchmarkGraphs() {
+    }
+
+    /**
+     * Generates a connected graph with {@code nodes * degree} edges and weights drawn uniformly from
+     * {@code [1, maxWeight]}. The same arguments always give the same graph.
+     */
+    static CsrGraph graph(int nodes, int degree, int maxWeight, long seed) {
+        return GraphGenerator.generateCsrGraph(nodes, edges(nodes, degree), seed, maxWeight);
+    }
+
+    /**
+     * Builds a {@code side} by {@code side} grid with edges both ways between neighbouring cells and
+     * weights drawn uniformly from {@code [1, maxWeight]}, whose ids are shuffled. Unlike the generated
+     * graphs it has a layout with good locality, which its ids hide.
+     */
+    static CsrGraph shuffledGrid(int side, int maxWeight, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int n = side * side;
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int cell = 0; cell < n; cell++) {
+            if (cell % side + 1 < side) {
+                builder.addEdge(ids[cell], ids[cell + 1], random.nextInt(maxWeight) + 1);
+                builder.addEdge(ids[cell + 1], ids[cell], random.nextInt(maxWeight) + 1);
+            }
+            if (cell + side < n) {
+                builder.addEdge(ids[cell], ids[cell + side], random.nextInt(maxWeight) + 1);
+                builder.addEdge(ids[cell + side], ids[cell], random.nextInt(maxWeight) + 1);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * The number of edges for the given average out-degree, capped at a complete graph.
+     */
+    static int edges(int nodes, int degree) {
+        return (int) Math.min((long) nodes * degree, (long) nodes * (nodes - 1));
+    }
+
+    /**
+     * Picks reproducible (source, target) id pairs of a graph.
+     */
+    static int[][] queries(CsrGraph graph, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        int[][] queries = new int[count][2];
+        for (int[] query : queries) {
+            query[0] = graph.id(random.nextInt(graph.nodeCount()));
+            query[1] = graph.id(random.nextInt(graph.nodeCount()));
+        }
+        return queries;
+    }
+}
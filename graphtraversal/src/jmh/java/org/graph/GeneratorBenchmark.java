@@ -0,0 +1,51 @@
+package org.graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures graph generation in map and in CSR form, from a fixed seed so that every run generates
+ * the same graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"1000", "100000"})
+    public int nodes;
+
+    @Param({"2", "8"})
+    public int degree;
+
+    @Param({"10", "100000"})
+    public int maxWeight;
+
+    @Param({"42"})
+    public long seed;
+
+    @Benchmark
+    public Map<Integer, List<Edge>> generateGraph() {
+        return GraphGenerator.generateGraph(nodes, BenchmarkGraphs.edges(nodes, degree), seed, maxWeight);
+    }
+
+    @Benchmark
+    public CsrGraph generateCsrGraph() {
+        return GraphGenerator.generateCsrGraph(nodes, BenchmarkGraphs.edges(nodes, degree), seed, maxWeight);
+    }
+}
@@ -0,0 +1,80 @@
+package org.graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the radius and diameter with both strategies, and the connectivity check in map and in
+ * CSR form. The all-pairs strategy runs one search per vertex, so the sizes stay small.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertiesBenchmark {
+
+    @Param({"1000", "5000"})
+    public int nodes;
+
+    @Param({"4", "16"})
+    public int degree;
+
+    @Param({"10", "1000"})
+    public int maxWeight;
+
+    @Param({"42"})
+    public long seed;
+
+    private CsrGraph graph;
+    private Map<Integer, List<Edge>> map;
+
+    /**
+     * The strategy is a separate state so that the connectivity checks run once per graph.
+     */
+    @State(Scope.Benchmark)
+    public static class Strategy {
+        @Param({"ALL_PAIRS", "BOUNDED"})
+        public GraphProperties.Strategy strategy;
+    }
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkGraphs.graph(nodes, degree, maxWeight, seed);
+        map = graph.toMap();
+    }
+
+    @Benchmark
+    public int radius(Strategy strategy) {
+        return GraphProperties.radius(graph, strategy.strategy);
+    }
+
+    @Benchmark
+    public int diameter(Strategy strategy) {
+        return GraphProperties.diameter(graph, strategy.strategy);
+    }
+
+    @Benchmark
+    public boolean isGraphConnected() {
+        return GraphValidator.isGraphConnected(graph);
+    }
+
+    @Benchmark
+    public boolean isGraphConnectedMap() {
+        return GraphValidator.isGraphConnected(map);
+    }
+}
@@ -0,0 +1,92 @@
+package org.graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single-source searches with every {@link SsspEngine} and point-to-point queries, on graphs
+ * of varying size, density and weight range. The search on a map of edge lists converts the map to
+ * CSR form on every call, so it measures that conversion plus a CSR search, the price of keeping a
+ * graph as a map; the search on the {@link CompressedGraph} shows the cost of decoding its edges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortestPathBenchmark {
+    private static final int QUERIES = 256;
+
+    @Param({"10000", "1000000"})
+    public int nodes;
+
+    @Param({"4", "16"})
+    public int degree;
+
+    @Param({"10", "100000"})
+    public int maxWeight;
+
+    @Param({"42"})
+    public long seed;
+
+    private CsrGraph graph;
+    private CompressedGraph compressed;
+    private Map<Integer, List<Edge>> map;
+    private int[] previous;
+    private int[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkGraphs.graph(nodes, degree, maxWeight, seed);
+        compressed = CompressedGraph.of(graph);
+        map = graph.toMap();
+        previous = new int[nodes];
+        queries = BenchmarkGraphs.queries(graph, QUERIES, seed);
+    }
+
+    /**
+     * The engine is a separate state so that only {@link #dijkstra(Engine)} runs once per engine.
+     */
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"AUTO", "HEAP", "DIAL", "RADIX_HEAP", "DELTA_STEPPING"})
+        public SsspEngine engine;
+    }
+
+    @Benchmark
+    public int[] dijkstra(Engine engine) {
+        return Dijkstra.dijkstra(graph, graph.id(0), previous, engine.engine);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> dijkstraMapWithConversion() {
+        return Dijkstra.dijkstra(map, graph.id(0), new HashMap<>());
+    }
+
+    @Benchmark
+    public int[] dijkstraCompressed() {
+        return Dijkstra.dijkstra(compressed, graph.id(0), previous);
+    }
+
+    @Benchmark
+    public List<Integer> shortestPath() {
+        int[] query = queries[next++ & (QUERIES - 1)];
+        return Dijkstra.shortestPath(graph, query[0], query[1]);
+    }
+}
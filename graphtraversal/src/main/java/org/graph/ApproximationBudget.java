@@ -0,0 +1,87 @@
+package org.graph;
+
+import java.time.Duration;
+
+/**
+ * Limits how much work {@link BoundedEccentricity} may spend before it returns radius and diameter
+ * bounds that are not yet tight. The search stops as soon as any limit is reached; the
+ * {@link #unlimited()} budget only stops once the bounds are exact.
+ */
+public final class ApproximationBudget {
+    private static final ApproximationBudget UNLIMITED = new ApproximationBudget(0.0, null, Integer.MAX_VALUE);
+
+    private final double relativeError;
+    private final Duration timeLimit;
+    private final int maxSources;
+
+    private ApproximationBudget(double relativeError, Duration timeLimit, int maxSources) {
+        this.relativeError = relativeError;
+        this.timeLimit = timeLimit;
+        this.maxSources = maxSources;
+    }
+
+    /**
+     * @return A budget without limits, which yields exact bounds.
+     */
+    public static ApproximationBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Returns a copy of this budget that stops once both the radius and the diameter are known within
+     * the given relative error, i.e. {@code upper - lower <= relativeError * lower}.
+     *
+     * @param relativeError The accepted relative error, e.g. 0.05 for 5%.
+     * @return The new budget.
+     */
+    public ApproximationBudget withRelativeError(double relativeError) {
+        if (relativeError < 0 || Double.isNaN(relativeError)) {
+            throw new IllegalArgumentException("Relative error must be non-negative. Given: " + relativeError);
+        }
+        return new ApproximationBudget(relativeError, timeLimit, maxSources);
+    }
+
+    /**
+     * Returns a copy of this budget that stops once the given wall-clock time has elapsed. The limit is
+     * checked between sources, so a run may overshoot it by one pair of searches.
+     *
+     * @param timeLimit The time limit.
+     * @return The new budget.
+     */
+    public ApproximationBudget withTimeLimit(Duration timeLimit) {
+        if (timeLimit.isNegative()) {
+            throw new IllegalArgumentException("Time limit must not be negative. Given: " + timeLimit);
+        }
+        return new ApproximationBudget(relativeError, timeLimit, maxSources);
+    }
+
+    /**
+     * Returns a copy of this budget that stops after the given number of source vertices, each of which
+     * costs a forward and a backward search.
+     *
+     * @param maxSources The maximum number of source vertices.
+     * @return The new budget.
+     */
+    public ApproximationBudget withMaxSources(int maxSources) {
+        if (maxSources < 1) {
+            throw new IllegalArgumentException("At least one source is required. Given: " + maxSources);
+        }
+        return new ApproximationBudget(relativeError, timeLimit, maxSources);
+    }
+
+    double relativeError() {
+        return relativeError;
+    }
+
+    int maxSources() {
+        return maxSources;
+    }
+
+    boolean isUnlimited() {
+        return relativeError == 0.0 && timeLimit == null && maxSources == Integer.MAX_VALUE;
+    }
+
+    long deadline(long startNanos) {
+        return timeLimit == null ? Long.MAX_VALUE : startNanos + timeLimit.toNanos();
+    }
+}
@@ -0,0 +1,186 @@
+package org.graph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Answers a batch of shortest path queries concurrently on a fixed pool of threads.
+ * <p>
+ * Queries are read as one {@code source target} pair per line, separated by whitespace or a comma;
+ * blank lines and lines starting with {@code #} are skipped. Queries that share a source are grouped
+ * so that each source needs a single search: a group with one target stops as soon as the target is
+ * settled, a larger group settles every reachable node. Searches run in the per-thread
+ * {@link SearchContext}, so they allocate nothing but the paths.
+ * <p>
+ * Results are written as {@code source target distance [path]} in input order, or, unordered, as
+ * {@code id source target distance [path]} as soon as their group finishes, where {@code id} is the
+ * zero-based position of the query in the input. Unreachable targets have distance -1 and an empty path.
+ */
+public class BatchQueries {
+
+    /**
+     * Reads the queries, answers them and writes the results.
+     *
+     * @param graph   The graph in CSR form.
+     * @param in      The queries.
+     * @param out     Receives one line per query; it is flushed but not closed.
+     * @param threads The number of threads to search on.
+     * @param ordered True to write the results in input order, false to write them as they complete.
+     * @return The throughput and latency of the batch.
+     * @throws IOException if the queries cannot be read or a line is malformed, or the results cannot be written.
+     */
+    public static BatchStats run(CsrGraph graph, Reader in, Writer out, int threads, boolean ordered) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be at least 1 but was " + threads + ".");
+        }
+        IntList sources = new IntList();
+        IntList targets = new IntList();
+        read(in, sources, targets);
+
+        PhaseEvent event = GraphMetrics.ENABLED ? GraphMetrics.beginPhase(GraphMetrics.Phase.BATCH) : null;
+        long startNanos = System.nanoTime();
+        int count = sources.size();
+        // Sorting (source, position) pairs groups the queries by source and keeps input order inside a group.
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) sources.get(i) << 32) | i;
+        }
+        Arrays.sort(order);
+        IntList groupStarts = new IntList();
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || (int) (order[i] >> 32) != (int) (order[i - 1] >> 32)) {
+                groupStarts.add(i);
+            }
+        }
+        groupStarts.add(count);
+
+        int[] distances = new int[count];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<Integer>[] paths = new List[count];
+        long[] latencies = new long[count];
+        long[] waits = new long[count];
+        int groups = groupStarts.size() - 1;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<Integer> completion = new ExecutorCompletionService<>(pool);
+            for (int g = 0; g < groups; g++) {
+                int from = groupStarts.get(g);
+                int to = groupStarts.get(g + 1);
+                int group = g;
+                long submitted = System.nanoTime();
+                completion.submit(() -> {
+                    answer(graph, order, from, to, targets, distances, paths, latencies, waits, submitted);
+                    return group;
+                });
+            }
+
+            boolean[] done = ordered ? new boolean[count] : null;
+            int next = 0;
+            for (int finished = 0; finished < groups; finished++) {
+                int group = completion.take().get();
+                for (int i = groupStarts.get(group); i < groupStarts.get(group + 1); i++) {
+                    int query = (int) order[i];
+                    if (ordered) {
+                        done[query] = true;
+                    } else {
+                        out.write(query + " ");
+                        writeResult(out, sources.get(query), targets.get(query), distances[query], paths[query]);
+                        paths[query] = null;
+                    }
+                }
+                while (ordered && next < count && done[next]) {
+                    writeResult(out, sources.get(next), targets.get(next), distances[next], paths[next]);
+                    paths[next++] = null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for query results.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        out.flush();
+        if (GraphMetrics.ENABLED) {
+            GraphMetrics.endPhase(event, GraphMetrics.Phase.BATCH, count);
+        }
+        return new BatchStats(groups, System.nanoTime() - startNanos, latencies, waits);
+    }
+
+    /**
+     * Answers the queries {@code order[from..to)}, which all share a source, with one search, and
+     * records their service time as latency and the time since {@code submitted}, when their group was
+     * handed to the pool, as queue wait.
+     */
+    private static void answer(CsrGraph graph, long[] order, int from, int to, IntList targets, int[] distances,
+                               List<Integer>[] paths, long[] latencies, long[] waits, long submitted) {
+        long start = System.nanoTime();
+        int source = graph.indexOf((int) (order[from] >> 32));
+        SearchContext context = SearchContext.forCurrentThread(graph.nodeCount());
+        if (source >= 0) {
+            int single = to - from == 1 ? graph.indexOf(targets.get((int) order[from])) : -1;
+            // A lone query whose target is missing still needs no search.
+            if (to - from > 1 || single >= 0) {
+                Dijkstra.dijkstra(graph, source, single, context);
+            }
+        }
+        for (int i = from; i < to; i++) {
+            int query = (int) order[i];
+            int target = graph.indexOf(targets.get(query));
+            int distance = source >= 0 && target >= 0 ? context.distance(target) : Integer.MAX_VALUE;
+            distances[query] = distance;
+            paths[query] = distance == Integer.MAX_VALUE
+                    ? Collections.emptyList()
+                    : Dijkstra.constructPath(graph, context.previous, target);
+        }
+        long latency = System.nanoTime() - start;
+        for (int i = from; i < to; i++) {
+            latencies[(int) order[i]] = latency;
+            waits[(int) order[i]] = start - submitted;
+        }
+    }
+
+    private static void read(Reader in, IntList sources, IntList targets) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("[\\s,]+");
+            if (fields.length != 2) {
+                throw new IOException("Line " + lineNumber + " is not a query of the form 'source target': " + line);
+            }
+            try {
+                sources.add(Integer.parseInt(fields[0]));
+                targets.add(Integer.parseInt(fields[1]));
+            } catch (NumberFormatException e) {
+                throw new IOException("Line " + lineNumber + " is not a query of the form 'source target': " + line, e);
+            }
+        }
+    }
+
+    private static void writeResult(Writer out, int source, int target, int distance, List<Integer> path)
+            throws IOException {
+        out.write(source + " " + target + " " + (distance == Integer.MAX_VALUE ? -1 : distance) + " " + path + "\n");
+    }
+}
@@ -0,0 +1,107 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * Throughput and latency of a run of {@link BatchQueries}. The latency of a query is the service time
+ * of the group of queries that share its source, from the start of its search to the extraction of
+ * the last path, so it depends on the cost of the query and not on the size of the batch. The time
+ * the group waited for a free thread before that is reported separately as queue wait; as the whole
+ * batch is submitted at once, it mostly reflects the position of the group in the batch.
+ */
+public final class BatchStats {
+    private final int queries;
+    private final int searches;
+    private final long wallNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p50WaitNanos;
+    private final long p99WaitNanos;
+
+    BatchStats(int searches, long wallNanos, long[] latencyNanos, long[] waitNanos) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        long[] sortedWaits = waitNanos.clone();
+        Arrays.sort(sortedWaits);
+        this.queries = sorted.length;
+        this.searches = searches;
+        this.wallNanos = wallNanos;
+        this.p50Nanos = percentile(sorted, 50);
+        this.p99Nanos = percentile(sorted, 99);
+        this.p50WaitNanos = percentile(sortedWaits, 50);
+        this.p99WaitNanos = percentile(sortedWaits, 99);
+    }
+
+    /**
+     * @return The number of queries answered.
+     */
+    public int queries() {
+        return queries;
+    }
+
+    /**
+     * @return The number of single-source searches run, one per distinct source.
+     */
+    public int searches() {
+        return searches;
+    }
+
+    /**
+     * @return The wall-clock time of the whole batch in nanoseconds.
+     */
+    public long wallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @return The median query latency in nanoseconds.
+     */
+    public long p50Nanos() {
+        return p50Nanos;
+    }
+
+    /**
+     * @return The 99th percentile query latency in nanoseconds.
+     */
+    public long p99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * @return The median time a query waited for a free thread, in nanoseconds.
+     */
+    public long p50WaitNanos() {
+        return p50WaitNanos;
+    }
+
+    /**
+     * @return The 99th percentile time a query waited for a free thread, in nanoseconds.
+     */
+    public long p99WaitNanos() {
+        return p99WaitNanos;
+    }
+
+    /**
+     * @return The number of queries answered per second of wall-clock time.
+     */
+    public double queriesPerSecond() {
+        return wallNanos == 0 ? 0 : queries * 1e9 / wallNanos;
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        // Nearest-rank percentile.
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d queries (%d searches) in %.3f s: %.1f queries/s, p50 %.3f ms, p99 %.3f ms"
+                        + " (queue wait p50 %.3f ms, p99 %.3f ms)",
+                queries, searches, wallNanos / 1e9, queriesPerSecond(), p50Nanos / 1e6, p99Nanos / 1e6,
+                p50WaitNanos / 1e6, p99WaitNanos / 1e6);
+    }
+}
@@ -0,0 +1,212 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * Computes the radius and diameter of a graph from a few well-chosen single-source searches
+ * instead of one search per vertex, following the eccentricity bounding scheme of Takes and Kosters.
+ * <p>
+ * Every vertex keeps a lower and an upper bound on its eccentricity. A forward search from a source
+ * {@code s} yields {@code ecc(s)} and {@code d(s, v)}; a backward search on the reverse graph yields
+ * {@code d(v, s)}. By the triangle inequality
+ * {@code max(d(v, s), ecc(s) - d(s, v)) <= ecc(v) <= d(v, s) + ecc(s)}. The first source is the
+ * vertex with the largest out-degree and the second the vertex farthest from it (a double sweep);
+ * after that the sources alternate between the vertex with the largest upper bound and the vertex
+ * with the smallest lower bound. The search stops when the bounds prove the radius and diameter or
+ * the {@link ApproximationBudget} runs out.
+ * <p>
+ * The bounds only hold when every vertex reaches every other one. For graphs that are not strongly
+ * connected an unlimited budget falls back to {@link EccentricityEngine}, and a limited one computes
+ * exact eccentricities of as many vertices as the budget allows.
+ */
+public class BoundedEccentricity {
+
+    /**
+     * Computes bounds on the radius and diameter of the graph within the given budget.
+     *
+     * @param graph  The graph in CSR form.
+     * @param budget The limits on the work to spend; {@link ApproximationBudget#unlimited()} gives exact results.
+     * @return The radius and diameter bounds.
+     */
+    public static EccentricityBounds solve(CsrGraph graph, ApproximationBudget budget) {
+        int n = graph.nodeCount();
+        if (n <= 1) {
+            return new EccentricityBounds(0, 0, 0, 0, 0);
+        }
+        long deadline = budget.deadline(System.nanoTime());
+        CsrGraph reverse = graph.reverse();
+
+        int[] forward = new int[n];
+        int[] backward = new int[n];
+        int[] previous = new int[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+
+        int source = maxDegreeVertex(graph);
+        Dijkstra.dijkstra(graph, source, forward, previous, heap);
+        Dijkstra.dijkstra(reverse, source, backward, previous, heap);
+        if (!allReachable(forward) || !allReachable(backward)) {
+            return solveWithoutBounds(graph, budget, deadline, source, GraphProperties.maxFinite(forward));
+        }
+
+        int[] lower = new int[n];
+        int[] upper = new int[n];
+        Arrays.fill(upper, Integer.MAX_VALUE);
+        int sources = 0;
+        boolean peripheral = true;
+        while (true) {
+            int eccentricity = GraphProperties.maxFinite(forward);
+            sources++;
+            for (int v = 0; v < n; v++) {
+                long lo = Math.max(backward[v], (long) eccentricity - forward[v]);
+                long hi = (long) backward[v] + eccentricity;
+                lower[v] = (int) Math.max(lower[v], lo);
+                upper[v] = (int) Math.min(upper[v], Math.min(hi, Integer.MAX_VALUE));
+            }
+            lower[source] = eccentricity;
+            upper[source] = eccentricity;
+
+            int radiusLower = Integer.MAX_VALUE;
+            int radiusUpper = Integer.MAX_VALUE;
+            int diameterLower = 0;
+            int diameterUpper = 0;
+            for (int v = 0; v < n; v++) {
+                radiusLower = Math.min(radiusLower, lower[v]);
+                radiusUpper = Math.min(radiusUpper, upper[v]);
+                diameterLower = Math.max(diameterLower, lower[v]);
+                diameterUpper = Math.max(diameterUpper, upper[v]);
+            }
+
+            if (withinError(radiusLower, radiusUpper, budget) && withinError(diameterLower, diameterUpper, budget)
+                    || sources >= budget.maxSources() || System.nanoTime() >= deadline) {
+                return new EccentricityBounds(radiusLower, radiusUpper, diameterLower, diameterUpper, sources);
+            }
+
+            int next = sources == 1
+                    ? farthestVertex(forward)
+                    : nextSource(lower, upper, peripheral, radiusUpper, diameterLower);
+            if (next < 0 || lower[next] == upper[next]) {
+                next = nextSource(lower, upper, !peripheral, radiusUpper, diameterLower);
+            }
+            if (next < 0) {
+                return new EccentricityBounds(radiusLower, radiusUpper, diameterLower, diameterUpper, sources);
+            }
+            peripheral = !peripheral;
+            source = next;
+            Dijkstra.dijkstra(graph, source, forward, previous, heap);
+            Dijkstra.dijkstra(reverse, source, backward, previous, heap);
+        }
+    }
+
+    /**
+     * Picks the unresolved vertex with the largest upper bound that could still raise the diameter, or
+     * the unresolved vertex with the smallest lower bound that could still lower the radius.
+     *
+     * @return The vertex index, or -1 if no vertex qualifies.
+     */
+    private static int nextSource(int[] lower, int[] upper, boolean peripheral, int radiusUpper, int diameterLower) {
+        int best = -1;
+        for (int v = 0; v < lower.length; v++) {
+            if (lower[v] == upper[v]) {
+                continue;
+            }
+            if (peripheral) {
+                if (upper[v] > diameterLower && (best < 0 || upper[v] > upper[best]
+                        || upper[v] == upper[best] && lower[v] > lower[best])) {
+                    best = v;
+                }
+            } else {
+                if (lower[v] < radiusUpper && (best < 0 || lower[v] < lower[best]
+                        || lower[v] == lower[best] && upper[v] < upper[best])) {
+                    best = v;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Computes exact eccentricities one vertex at a time, for graphs on which the triangle inequality
+     * bounds do not hold.
+     */
+    private static EccentricityBounds solveWithoutBounds(CsrGraph graph, ApproximationBudget budget, long deadline,
+                                                         int firstSource, int firstEccentricity) {
+        if (budget.isUnlimited()) {
+            EccentricityResult result = EccentricityEngine.compute(graph);
+            return new EccentricityBounds(result.radius(), result.radius(), result.diameter(), result.diameter(),
+                    graph.nodeCount());
+        }
+        int n = graph.nodeCount();
+        int[] distances = new int[n];
+        int[] previous = new int[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        boolean[] searched = new boolean[n];
+        searched[firstSource] = true;
+        int sources = 1;
+        int radiusUpper = firstEccentricity == 0 ? Integer.MAX_VALUE : firstEccentricity;
+        int diameterLower = firstEccentricity;
+        for (int v = 0; v < n && sources < budget.maxSources() && System.nanoTime() < deadline; v++) {
+            if (searched[v]) {
+                continue;
+            }
+            Dijkstra.dijkstra(graph, v, distances, previous, heap);
+            int eccentricity = GraphProperties.maxFinite(distances);
+            searched[v] = true;
+            sources++;
+            if (eccentricity != 0) {
+                radiusUpper = Math.min(radiusUpper, eccentricity);
+                diameterLower = Math.max(diameterLower, eccentricity);
+            }
+        }
+
+        // An unsearched vertex with outgoing edges has an eccentricity of at least its lightest edge.
+        int radiusLower = radiusUpper;
+        boolean complete = true;
+        for (int v = 0; v < n; v++) {
+            if (!searched[v] && graph.degree(v) > 0) {
+                complete = false;
+                for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                    radiusLower = Math.min(radiusLower, graph.weights[e]);
+                }
+            }
+        }
+        if (radiusUpper == Integer.MAX_VALUE) {
+            radiusUpper = complete ? 0 : Integer.MAX_VALUE;
+            radiusLower = complete ? 0 : radiusLower;
+        }
+        int diameterUpper = complete ? diameterLower : Integer.MAX_VALUE;
+        return new EccentricityBounds(radiusLower, radiusUpper, diameterLower, diameterUpper, sources);
+    }
+
+    private static boolean withinError(int lower, int upper, ApproximationBudget budget) {
+        return upper - (long) lower <= budget.relativeError() * lower;
+    }
+
+    private static int maxDegreeVertex(CsrGraph graph) {
+        int best = 0;
+        for (int v = 1; v < graph.nodeCount(); v++) {
+            if (graph.degree(v) > graph.degree(best)) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    private static int farthestVertex(int[] distances) {
+        int best = 0;
+        for (int v = 1; v < distances.length; v++) {
+            if (distances[v] > distances[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    private static boolean allReachable(int[] distances) {
+        for (int d : distances) {
+            if (d == Integer.MAX_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
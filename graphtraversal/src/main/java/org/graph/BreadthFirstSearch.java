@@ -0,0 +1,401 @@
+package org.graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * A primitive breadth-first search over an {@link IndexedGraph}: the visited set is a bitset, and the
+ * vertices are appended to a single array level by level, so each level's frontier is a slice of the
+ * array that came before it.
+ * <p>
+ * The search is direction-optimizing in the manner of Beamer et al. Levels are normally expanded top
+ * down, scanning the out-edges of the frontier. Once the frontier's edges outnumber the edges still to
+ * explore by a factor of {@value #ALPHA}, it switches to bottom-up steps, in which every unvisited
+ * vertex scans its in-edges, on the reverse graph, and stops at the first parent in the frontier;
+ * when the frontier shrinks below {@code 1/}{@value #BETA} of the vertices, it switches back. Bottom-up
+ * steps need the reverse graph: a {@link CsrGraph} builds and keeps its own on first use, a
+ * {@link MappedGraph} uses the one stored in its file, and other graphs are searched top down only.
+ * <p>
+ * Given a fork-join pool, large levels are expanded in parallel: top-down slices of the frontier
+ * claim vertices with an atomic bit-or on the visited bitset, and bottom-up slices own whole words of
+ * it. The set of vertices on each level is the same either way, but their order within a level may
+ * differ from run to run.
+ */
+public final class BreadthFirstSearch {
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    // Levels, and slices of them, below this many vertices are expanded by a single task.
+    private static final int GRAIN = 2048;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final NeighbourGraph graph;
+    private final long[] visited;
+    private final int[] order;
+    private final int[] levelStarts;
+
+    private BreadthFirstSearch(NeighbourGraph graph, long[] visited, int[] order, int[] levelStarts) {
+        this.graph = graph;
+        this.visited = visited;
+        this.order = order;
+        this.levelStarts = levelStarts;
+    }
+
+    /**
+     * Searches a graph sequentially.
+     *
+     * @param graph The graph.
+     * @param start The starting node id.
+     * @return The vertices reached, level by level.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public static BreadthFirstSearch run(IndexedGraph graph, int start) {
+        return run(graph, start, null);
+    }
+
+    /**
+     * Searches a graph, expanding large levels in parallel on the given pool.
+     *
+     * @param graph The graph.
+     * @param start The starting node id.
+     * @param pool  The pool to expand levels on, or null to search sequentially.
+     * @return The vertices reached, level by level.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public static BreadthFirstSearch run(IndexedGraph graph, int start, ForkJoinPool pool) {
+        int source = graph.indexOf(start);
+        if (source < 0) {
+            throw new IllegalArgumentException("Vertex " + start + " is not in the graph.");
+        }
+        int n = graph.nodeCount();
+        long[] visited = new long[(n + 63) >>> 6];
+        int[] order = new int[n];
+        IntList levelStarts = new IntList();
+        visited[source >>> 6] |= 1L << source;
+        order[0] = source;
+
+        IndexedGraph reverse = null;
+        long[] frontier = null;
+        boolean bottomUp = false;
+        long unexploredEdges = graph.edgeCount();
+        int maxFrontier = 0;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            levelStarts.add(head);
+            int frontierSize = tail - head;
+            maxFrontier = Math.max(maxFrontier, frontierSize);
+            long frontierEdges = 0;
+            for (int i = head; i < tail; i++) {
+                frontierEdges += graph.degree(order[i]);
+            }
+            unexploredEdges -= frontierEdges;
+
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                if (reverse == null) {
+                    reverse = reverseOf(graph);
+                }
+                bottomUp = reverse != null;
+            } else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+
+            int next;
+            if (bottomUp) {
+                if (frontier == null) {
+                    frontier = new long[visited.length];
+                } else {
+                    Arrays.fill(frontier, 0);
+                }
+                for (int i = head; i < tail; i++) {
+                    frontier[order[i] >>> 6] |= 1L << order[i];
+                }
+                next = bottomUpStep(reverse, n, visited, frontier, order, tail, pool);
+            } else {
+                next = topDownStep(graph, visited, order, head, tail, pool);
+            }
+            head = tail;
+            tail = next;
+        }
+        levelStarts.add(tail);
+
+        if (GraphMetrics.ENABLED) {
+            GraphMetrics.recordBfs(levelStarts.size() - 1, tail, maxFrontier);
+        }
+        return new BreadthFirstSearch(graph, visited, order, levelStarts.toArray());
+    }
+
+    /**
+     * @return The number of vertices reached, including the start.
+     */
+    public int reached() {
+        return levelStarts[levelStarts.length - 1];
+    }
+
+    /**
+     * @return The number of levels; the start alone is level 0.
+     */
+    public int levels() {
+        return levelStarts.length - 1;
+    }
+
+    /**
+     * @param level The level, from 0 to {@code levels() - 1}.
+     * @return The number of vertices on the level, i.e. at that many hops from the start.
+     */
+    public int levelSize(int level) {
+        return levelStarts[level + 1] - levelStarts[level];
+    }
+
+    /**
+     * @param id The vertex id.
+     * @return True if the vertex was reached.
+     */
+    public boolean visited(int id) {
+        int index = graph.indexOf(id);
+        return index >= 0 && (visited[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return The ids of the reached vertices level by level, mapped lazily from their indexes.
+     */
+    public IntStream ids() {
+        return IntStream.range(0, reached()).map(i -> graph.id(order[i]));
+    }
+
+    /**
+     * Searches a graph that is read through its {@link EdgeCursor}, e.g. a {@link CompressedGraph},
+     * sequentially and top down only. An {@link IndexedGraph} is searched as by {@link #run(IndexedGraph, int)}.
+     *
+     * @param graph The graph.
+     * @param start The starting node id.
+     * @return The vertices reached, level by level.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public static BreadthFirstSearch run(NeighbourGraph graph, int start) {
+        if (graph instanceof IndexedGraph) {
+            return run((IndexedGraph) graph, start, null);
+        }
+        int source = graph.indexOf(start);
+        if (source < 0) {
+            throw new IllegalArgumentException("Vertex " + start + " is not in the graph.");
+        }
+        long[] visited = new long[(graph.nodeCount() + 63) >>> 6];
+        int[] order = new int[graph.nodeCount()];
+        IntList levelStarts = new IntList();
+        visited[source >>> 6] |= 1L << source;
+        order[0] = source;
+
+        EdgeCursor edges = graph.cursor();
+        int maxFrontier = 0;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            levelStarts.add(head);
+            maxFrontier = Math.max(maxFrontier, tail - head);
+            int next = tail;
+            for (int i = head; i < tail; i++) {
+                edges.moveTo(order[i]);
+                while (edges.next()) {
+                    int v = edges.target();
+                    long bit = 1L << v;
+                    if ((visited[v >>> 6] & bit) == 0) {
+                        visited[v >>> 6] |= bit;
+                        order[next++] = v;
+                    }
+                }
+            }
+            head = tail;
+            tail = next;
+        }
+        levelStarts.add(tail);
+
+        if (GraphMetrics.ENABLED) {
+            GraphMetrics.recordBfs(levelStarts.size() - 1, tail, maxFrontier);
+        }
+        return new BreadthFirstSearch(graph, visited, order, levelStarts.toArray());
+    }
+
+    /**
+     * Returns the reverse graph if it is available without reading the whole graph again.
+     */
+    private static IndexedGraph reverseOf(IndexedGraph graph) {
+        if (graph instanceof CsrGraph) {
+            return ((CsrGraph) graph).reverse();
+        }
+        if (graph instanceof MappedGraph && ((MappedGraph) graph).hasReverse()) {
+            return ((MappedGraph) graph).reverse();
+        }
+        return null;
+    }
+
+    /**
+     * Visits the unvisited out-neighbours of {@code order[head..tail)} and appends them after {@code tail}.
+     *
+     * @return The end of the new level in {@code order}.
+     */
+    private static int topDownStep(IndexedGraph graph, long[] visited, int[] order, int head, int tail,
+                                   ForkJoinPool pool) {
+        if (pool != null && tail - head > GRAIN) {
+            return append(order, tail, pool.invoke(new TopDownTask(graph, visited, order, head, tail)));
+        }
+        int next = tail;
+        for (int i = head; i < tail; i++) {
+            int u = order[i];
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.target(e);
+                long bit = 1L << v;
+                if ((visited[v >>> 6] & bit) == 0) {
+                    visited[v >>> 6] |= bit;
+                    order[next++] = v;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Visits every unvisited vertex with an in-neighbour in the frontier bitset and appends it after {@code tail}.
+     *
+     * @return The end of the new level in {@code order}.
+     */
+    private static int bottomUpStep(IndexedGraph reverse, int n, long[] visited, long[] frontier, int[] order,
+                                    int tail, ForkJoinPool pool) {
+        if (pool != null && n > GRAIN) {
+            return append(order, tail, pool.invoke(new BottomUpTask(reverse, n, visited, frontier, 0, visited.length)));
+        }
+        int next = tail;
+        for (int word = 0; word < visited.length; word++) {
+            next = bottomUpWord(reverse, n, visited, frontier, word, order, next, null);
+        }
+        return next;
+    }
+
+    /**
+     * Runs a bottom-up step on the 64 vertices of one bitset word. New vertices go to {@code order} from
+     * {@code next} on if {@code order} is not null, and to {@code found} otherwise.
+     *
+     * @return The new value of {@code next}.
+     */
+    private static int bottomUpWord(IndexedGraph reverse, int n, long[] visited, long[] frontier, int word,
+                                    int[] order, int next, IntList found) {
+        long unvisited = ~visited[word];
+        if (word == visited.length - 1 && (n & 63) != 0) {
+            unvisited &= (1L << n) - 1;
+        }
+        while (unvisited != 0) {
+            int v = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+            unvisited &= unvisited - 1;
+            for (int e = reverse.edgeStart(v), end = reverse.edgeEnd(v); e < end; e++) {
+                int u = reverse.target(e);
+                if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                    visited[word] |= 1L << v;
+                    if (order != null) {
+                        order[next++] = v;
+                    } else {
+                        found.add(v);
+                    }
+                    break;
+                }
+            }
+        }
+        return next;
+    }
+
+    private static int append(int[] order, int tail, IntList vertices) {
+        for (int i = 0; i < vertices.size(); i++) {
+            order[tail++] = vertices.get(i);
+        }
+        return tail;
+    }
+
+    /**
+     * Expands a slice of the frontier top down, claiming each new vertex with an atomic bit-or.
+     */
+    private static final class TopDownTask extends RecursiveTask<IntList> {
+        private final IndexedGraph graph;
+        private final long[] visited;
+        private final int[] order;
+        private final int from;
+        private final int to;
+
+        TopDownTask(IndexedGraph graph, long[] visited, int[] order, int from, int to) {
+            this.graph = graph;
+            this.visited = visited;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (to - from > GRAIN) {
+                int mid = (from + to) >>> 1;
+                TopDownTask left = new TopDownTask(graph, visited, order, from, mid);
+                left.fork();
+                IntList right = new TopDownTask(graph, visited, order, mid, to).compute();
+                return concat(left.join(), right);
+            }
+            IntList found = new IntList();
+            for (int i = from; i < to; i++) {
+                int u = order[i];
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.target(e);
+                    long bit = 1L << v;
+                    // A plain read filters most visited vertices before the atomic claim.
+                    if ((visited[v >>> 6] & bit) == 0 && ((long) WORDS.getAndBitwiseOr(visited, v >>> 6, bit) & bit) == 0) {
+                        found.add(v);
+                    }
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Runs a bottom-up step on a range of bitset words; each task owns its words, so no claim is atomic.
+     */
+    private static final class BottomUpTask extends RecursiveTask<IntList> {
+        private final IndexedGraph reverse;
+        private final int n;
+        private final long[] visited;
+        private final long[] frontier;
+        private final int fromWord;
+        private final int toWord;
+
+        BottomUpTask(IndexedGraph reverse, int n, long[] visited, long[] frontier, int fromWord, int toWord) {
+            this.reverse = reverse;
+            this.n = n;
+            this.visited = visited;
+            this.frontier = frontier;
+            this.fromWord = fromWord;
+            this.toWord = toWord;
+        }
+
+        @Override
+        protected IntList compute() {
+            if ((toWord - fromWord) << 6 > GRAIN) {
+                int mid = (fromWord + toWord) >>> 1;
+                BottomUpTask left = new BottomUpTask(reverse, n, visited, frontier, fromWord, mid);
+                left.fork();
+                IntList right = new BottomUpTask(reverse, n, visited, frontier, mid, toWord).compute();
+                return concat(left.join(), right);
+            }
+            IntList found = new IntList();
+            for (int word = fromWord; word < toWord; word++) {
+                bottomUpWord(reverse, n, visited, frontier, word, null, 0, found);
+            }
+            return found;
+        }
+    }
+
+    private static IntList concat(IntList first, IntList second) {
+        for (int i = 0; i < second.size(); i++) {
+            first.add(second.get(i));
+        }
+        return first;
+    }
+}
@@ -0,0 +1,377 @@
+package org.graph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Betweenness, closeness and harmonic centrality, with one Dijkstra search per source run in parallel
+ * on a fork-join pool.
+ * <p>
+ * Every worker thread accumulates into its own primitive arrays, allocated on its first task together
+ * with the search buffers it reuses for all of its sources; the arrays are summed once all searches are
+ * done, so no two threads ever write to the same array.
+ * <p>
+ * For graphs too large for one search per vertex, each measure can be estimated from a random sample of
+ * pivot sources instead. Betweenness adds up the dependencies of the pivots and scales them by
+ * {@code n / pivots} (Brandes and Pich). Closeness and harmonic centrality search the
+ * {@link CsrGraph#reverse() reverse graph} from each pivot, which gives the distance from every vertex to
+ * the pivot, and scale the sums by {@code (n - 1)} over the number of pivots other than the vertex
+ * (Eppstein and Wang). With as many pivots as vertices, all three are exact.
+ */
+public class Centrality {
+
+    /**
+     * Computes the exact betweenness centrality on the common fork-join pool; see
+     * {@link #betweenness(CsrGraph, int, long, ForkJoinPool)}.
+     *
+     * @param graph The graph in CSR form; its weights must be positive.
+     * @return The betweenness of every vertex.
+     */
+    public static CentralityResult betweenness(CsrGraph graph) {
+        return betweenness(graph, graph.nodeCount(), 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Estimates the betweenness centrality from a sample of pivot sources on the common fork-join pool;
+     * see {@link #betweenness(CsrGraph, int, long, ForkJoinPool)}.
+     *
+     * @param graph  The graph in CSR form; its weights must be positive.
+     * @param pivots The number of sources to sample; all vertices if at least {@code graph.nodeCount()}.
+     * @param seed   The seed for choosing the pivots.
+     * @return The estimated betweenness of every vertex.
+     */
+    public static CentralityResult betweenness(CsrGraph graph, int pivots, long seed) {
+        return betweenness(graph, pivots, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes or estimates the betweenness centrality with Brandes' algorithm: the number of shortest
+     * paths between other pairs of vertices that pass through a vertex, where a pair with several
+     * shortest paths contributes the fraction of them through the vertex. Paths are directed and
+     * weighted, and the scores are not normalized.
+     *
+     * @param graph  The graph in CSR form; its weights must be positive.
+     * @param pivots The number of sources to sample; all vertices if at least {@code graph.nodeCount()}.
+     * @param seed   The seed for choosing the pivots; unused when all vertices are sources.
+     * @param pool   The pool to run the searches on.
+     * @return The betweenness of every vertex.
+     * @throws IllegalArgumentException if a weight is not positive or fewer than one pivot is asked for.
+     */
+    public static CentralityResult betweenness(CsrGraph graph, int pivots, long seed, ForkJoinPool pool) {
+        if (graph.edgeCount() > 0 && graph.minWeight() < 1) {
+            throw new IllegalArgumentException("Betweenness requires positive edge weights but the graph has weight "
+                    + graph.minWeight() + ".");
+        }
+        int[] sources = pivots(graph.nodeCount(), pivots, seed);
+        Accumulators accumulators = run(graph, sources, pool, true);
+        double[] scores = accumulators.sum(0);
+        double scale = graph.nodeCount() / (double) Math.max(sources.length, 1);
+        for (int v = 0; v < scores.length; v++) {
+            scores[v] *= scale;
+        }
+        return new CentralityResult(graph, scores, sources.length);
+    }
+
+    /**
+     * Computes the exact closeness centrality on the common fork-join pool; see
+     * {@link #closeness(CsrGraph, int, long, ForkJoinPool)}.
+     *
+     * @param graph The graph in CSR form.
+     * @return The closeness of every vertex.
+     */
+    public static CentralityResult closeness(CsrGraph graph) {
+        return closeness(graph, graph.nodeCount(), 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Estimates the closeness centrality from a sample of pivots on the common fork-join pool; see
+     * {@link #closeness(CsrGraph, int, long, ForkJoinPool)}.
+     *
+     * @param graph  The graph in CSR form.
+     * @param pivots The number of pivots to sample; all vertices if at least {@code graph.nodeCount()}.
+     * @param seed   The seed for choosing the pivots.
+     * @return The estimated closeness of every vertex.
+     */
+    public static CentralityResult closeness(CsrGraph graph, int pivots, long seed) {
+        return closeness(graph, pivots, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes or estimates the closeness centrality: for a vertex that reaches {@code r} other
+     * vertices at a total distance {@code d}, {@code (r / d) * (r / (n - 1))}, which is the inverse
+     * of the average distance to the reachable vertices, scaled down by the fraction of vertices reached
+     * (Wasserman and Faust). Vertices that reach nothing score 0.
+     *
+     * @param graph  The graph in CSR form.
+     * @param pivots The number of pivots to sample; all vertices if at least {@code graph.nodeCount()}.
+     * @param seed   The seed for choosing the pivots; unused when all vertices are pivots.
+     * @param pool   The pool to run the searches on.
+     * @return The closeness of every vertex.
+     */
+    public static CentralityResult closeness(CsrGraph graph, int pivots, long seed, ForkJoinPool pool) {
+        int n = graph.nodeCount();
+        int[] sources = pivots(n, pivots, seed);
+        Accumulators accumulators = run(graph.reverse(), sources, pool, false);
+        double[] distanceSums = accumulators.sum(0);
+        double[] reached = accumulators.sum(1);
+        double[] scores = new double[n];
+        double[] scale = scales(n, sources);
+        for (int v = 0; v < n; v++) {
+            if (distanceSums[v] > 0) {
+                double r = reached[v] * scale[v];
+                scores[v] = r / (distanceSums[v] * scale[v]) * (r / (n - 1));
+            }
+        }
+        return new CentralityResult(graph, scores, sources.length);
+    }
+
+    /**
+     * Computes the exact harmonic centrality on the common fork-join pool; see
+     * {@link #harmonic(CsrGraph, int, long, ForkJoinPool)}.
+     *
+     * @param graph The graph in CSR form.
+     * @return The harmonic centrality of every vertex.
+     */
+    public static CentralityResult harmonic(CsrGraph graph) {
+        return harmonic(graph, graph.nodeCount(), 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Estimates the harmonic centrality from a sample of pivots on the common fork-join pool; see
+     * {@link #harmonic(CsrGraph, int, long, ForkJoinPool)}.
+     *
+     * @param graph  The graph in CSR form.
+     * @param pivots The number of pivots to sample; all vertices if at least {@code graph.nodeCount()}.
+     * @param seed   The seed for choosing the pivots.
+     * @return The estimated harmonic centrality of every vertex.
+     */
+    public static CentralityResult harmonic(CsrGraph graph, int pivots, long seed) {
+        return harmonic(graph, pivots, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes or estimates the harmonic centrality: the sum of the inverse distances from a vertex to
+     * every other vertex, divided by {@code n - 1}. Unreachable vertices add nothing, so unlike
+     * closeness it needs no special case for graphs that are not strongly connected.
+     *
+     * @param graph  The graph in CSR form; zero-weight edges count as distance 1.
+     * @param pivots The number of pivots to sample; all vertices if at least {@code graph.nodeCount()}.
+     * @param seed   The seed for choosing the pivots; unused when all vertices are pivots.
+     * @param pool   The pool to run the searches on.
+     * @return The harmonic centrality of every vertex.
+     */
+    public static CentralityResult harmonic(CsrGraph graph, int pivots, long seed, ForkJoinPool pool) {
+        int n = graph.nodeCount();
+        int[] sources = pivots(n, pivots, seed);
+        Accumulators accumulators = run(graph.reverse(), sources, pool, false);
+        double[] inverseSums = accumulators.sum(2);
+        double[] scale = scales(n, sources);
+        double[] scores = new double[n];
+        for (int v = 0; v < n; v++) {
+            scores[v] = n > 1 ? inverseSums[v] * scale[v] / (n - 1) : 0;
+        }
+        return new CentralityResult(graph, scores, sources.length);
+    }
+
+    /**
+     * Picks {@code count} distinct vertex indexes at random, or all of them in order if count is at least n.
+     */
+    static int[] pivots(int n, int count, long seed) {
+        if (count < 1 && n > 0) {
+            throw new IllegalArgumentException("The number of pivots must be at least 1 but was " + count + ".");
+        }
+        int[] indexes = new int[n];
+        for (int v = 0; v < n; v++) {
+            indexes[v] = v;
+        }
+        if (count >= n) {
+            return indexes;
+        }
+        // A partial Fisher-Yates shuffle moves the sample to the front.
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(n - i);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
+    /**
+     * The factor that scales a vertex's sums over the pivots up to sums over all other vertices; 1 when
+     * every vertex is a pivot.
+     */
+    private static double[] scales(int n, int[] sources) {
+        boolean[] pivot = new boolean[n];
+        for (int source : sources) {
+            pivot[source] = true;
+        }
+        double[] scale = new double[n];
+        for (int v = 0; v < n; v++) {
+            int others = sources.length - (pivot[v] ? 1 : 0);
+            scale[v] = others == 0 ? 0 : (n - 1) / (double) others;
+        }
+        return scale;
+    }
+
+    private static Accumulators run(CsrGraph graph, int[] sources, ForkJoinPool pool, boolean betweenness) {
+        Accumulators accumulators = new Accumulators(graph.nodeCount(), betweenness ? 1 : 3);
+        if (sources.length > 0) {
+            // Several leaves per worker so that uneven search costs still balance out.
+            int threshold = Math.max(1, sources.length / (pool.getParallelism() * 8));
+            pool.invoke(new SourceTask(graph, sources, 0, sources.length, threshold, betweenness, accumulators));
+        }
+        return accumulators;
+    }
+
+    /**
+     * The per-thread workers of one computation.
+     */
+    private static final class Accumulators {
+        private final ConcurrentHashMap<Thread, Worker> workers = new ConcurrentHashMap<>();
+        private final int n;
+        private final int arrays;
+
+        Accumulators(int n, int arrays) {
+            this.n = n;
+            this.arrays = arrays;
+        }
+
+        Worker forCurrentThread() {
+            return workers.computeIfAbsent(Thread.currentThread(), thread -> new Worker(n, arrays));
+        }
+
+        /**
+         * Adds up one accumulator array of every worker.
+         */
+        double[] sum(int array) {
+            double[] total = new double[n];
+            for (Worker worker : workers.values()) {
+                double[] values = worker.sums[array];
+                for (int v = 0; v < n; v++) {
+                    total[v] += values[v];
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * The search buffers and accumulator arrays of one thread.
+     */
+    private static final class Worker {
+        final int[] distances;
+        final int[] previous;
+        final int[] settled;
+        final IndexedMinHeap heap;
+        final double[] paths;
+        final double[] dependencies;
+        final double[][] sums;
+
+        Worker(int n, int arrays) {
+            distances = new int[n];
+            previous = new int[n];
+            settled = new int[n];
+            heap = new IndexedMinHeap(n);
+            paths = arrays == 1 ? new double[n] : null;
+            dependencies = arrays == 1 ? new double[n] : null;
+            sums = new double[arrays][n];
+        }
+
+        /**
+         * Adds the dependencies of one source to the betweenness sums, Brandes-style: path counts flow
+         * forward through the shortest path DAG in settle order, dependencies flow back in reverse.
+         */
+        void addBetweenness(CsrGraph graph, int source) {
+            int count = Dijkstra.dijkstra(graph, source, -1, distances, previous, heap, settled);
+            int[] offsets = graph.offsets;
+            int[] targets = graph.targets;
+            int[] weights = graph.weights;
+            for (int i = 0; i < count; i++) {
+                paths[settled[i]] = 0;
+                dependencies[settled[i]] = 0;
+            }
+            paths[source] = 1;
+            for (int i = 0; i < count; i++) {
+                int u = settled[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (distances[u] + weights[e] == distances[targets[e]]) {
+                        paths[targets[e]] += paths[u];
+                    }
+                }
+            }
+            double[] betweenness = sums[0];
+            for (int i = count - 1; i > 0; i--) {
+                int u = settled[i];
+                double dependency = 0;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int w = targets[e];
+                    if (distances[u] + weights[e] == distances[w]) {
+                        dependency += paths[u] / paths[w] * (1 + dependencies[w]);
+                    }
+                }
+                dependencies[u] = dependency;
+                betweenness[u] += dependency;
+            }
+        }
+
+        /**
+         * Adds the distances from every vertex to one pivot, searched on the reverse graph.
+         */
+        void addDistances(CsrGraph reverse, int pivot) {
+            int count = Dijkstra.dijkstra(reverse, pivot, -1, distances, previous, heap, settled);
+            double[] distanceSums = sums[0];
+            double[] reached = sums[1];
+            double[] inverseSums = sums[2];
+            for (int i = 1; i < count; i++) {
+                int v = settled[i];
+                distanceSums[v] += distances[v];
+                reached[v]++;
+                inverseSums[v] += 1.0 / Math.max(distances[v], 1);
+            }
+        }
+    }
+
+    private static final class SourceTask extends RecursiveAction {
+        private final CsrGraph graph;
+        private final int[] sources;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final boolean betweenness;
+        private final Accumulators accumulators;
+
+        SourceTask(CsrGraph graph, int[] sources, int from, int to, int threshold, boolean betweenness,
+                   Accumulators accumulators) {
+            this.graph = graph;
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.betweenness = betweenness;
+            this.accumulators = accumulators;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SourceTask(graph, sources, from, mid, threshold, betweenness, accumulators),
+                        new SourceTask(graph, sources, mid, to, threshold, betweenness, accumulators));
+                return;
+            }
+            Worker worker = accumulators.forCurrentThread();
+            for (int i = from; i < to; i++) {
+                if (betweenness) {
+                    worker.addBetweenness(graph, sources[i]);
+                } else {
+                    worker.addDistances(graph, sources[i]);
+                }
+            }
+        }
+    }
+}
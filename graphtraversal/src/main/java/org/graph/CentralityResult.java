@@ -0,0 +1,73 @@
+package org.graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A centrality score for every vertex of a graph, computed exactly or estimated from a sample of
+ * pivot sources by {@link Centrality}.
+ */
+public final class CentralityResult {
+    private final CsrGraph graph;
+    private final double[] scores;
+    private final int sources;
+
+    CentralityResult(CsrGraph graph, double[] scores, int sources) {
+        this.graph = graph;
+        this.scores = scores;
+        this.sources = sources;
+    }
+
+    /**
+     * @param vertex The vertex id.
+     * @return The score of the vertex.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public double score(int vertex) {
+        int index = graph.indexOf(vertex);
+        if (index < 0) {
+            throw new IllegalArgumentException("Vertex " + vertex + " is not in the graph.");
+        }
+        return scores[index];
+    }
+
+    /**
+     * @return The scores indexed by node index, see {@link CsrGraph#indexOf(int)}.
+     */
+    public double[] scores() {
+        return scores.clone();
+    }
+
+    /**
+     * @param k The number of vertices to return.
+     * @return The ids of the {@code k} vertices with the highest scores, highest first; ties go to the smaller index.
+     */
+    public List<Integer> top(int k) {
+        return IntStream.range(0, scores.length).boxed()
+                .sorted((a, b) -> scores[a] != scores[b] ? Double.compare(scores[b], scores[a]) : Integer.compare(a, b))
+                .limit(k)
+                .map(graph::id)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return The number of single-source searches the scores are based on.
+     */
+    public int sources() {
+        return sources;
+    }
+
+    /**
+     * @return True if every vertex was a source, false if the scores are estimates.
+     */
+    public boolean isExact() {
+        return sources == graph.nodeCount();
+    }
+
+    @Override
+    public String toString() {
+        return (isExact() ? "exact" : "estimated from " + sources + " sources") + ": " + Arrays.toString(scores);
+    }
+}
@@ -0,0 +1,286 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * A read-only directed graph whose successor lists are gap encoded into one byte array, for graphs
+ * that would not fit in memory as a {@link CsrGraph}. It is built from any {@link NeighbourGraph},
+ * typically a {@link MappedGraph} whose edges stay in the page cache rather than on the heap.
+ * <p>
+ * The targets of each vertex are sorted, as in the CSR form it is built from, so each one is stored
+ * as its distance to the one before, minus one; the first as its zigzag encoded distance to the
+ * vertex itself, which is small after a {@link GraphReordering}. Weights are stored relative to the
+ * smallest weight: if the difference fits in {@value #MAX_PACKED_WEIGHT_BITS} bits it is packed into
+ * the low bits of the gap, otherwise it follows as a value of its own. Each value is a varint of 7
+ * bits per byte, so the gaps of a graph with good locality take a byte per edge, weight included,
+ * instead of the eight bytes of a CSR edge. An offset into the byte array gives random access to
+ * every successor list: one int per {@value #BLOCK} vertices plus one char per vertex relative to it,
+ * unless a block of lists takes 64 KiB or more, in which case every vertex gets an int. Contiguous
+ * ascending ids, as from {@link GraphGenerator}, are computed rather than stored.
+ * <p>
+ * Edges have no fixed positions, so this is a {@link NeighbourGraph} but not an {@link IndexedGraph}:
+ * searches read successors through its {@link EdgeCursor}, which decodes them as it goes.
+ */
+public final class CompressedGraph implements NeighbourGraph {
+    static final int MAX_PACKED_WEIGHT_BITS = 16;
+    static final int BLOCK = 16;
+
+    private final VertexIds vertices;
+    // The offset of every BLOCK-th list, and of each list relative to that; or null if lists are too long.
+    private final int[] blockOffsets;
+    private final char[] relativeOffsets;
+    // The offset of every list if blockOffsets is null.
+    private final int[] offsets;
+    private final byte[] data;
+    private final int edgeCount;
+    private final int minWeight;
+    private final int maxWeight;
+    // The bits of a packed weight, or -1 if weights are stored as values of their own.
+    private final int weightBits;
+    private final long weightMask;
+
+    private CompressedGraph(VertexIds vertices, int[] offsets, byte[] data, int edgeCount,
+                            int minWeight, int maxWeight, int weightBits) {
+        this.vertices = vertices;
+        int n = offsets.length - 1;
+        int[] blocks = new int[n / BLOCK + 1];
+        char[] relative = new char[n + 1];
+        for (int v = 0; v <= n && blocks != null; v++) {
+            if (v % BLOCK == 0) {
+                blocks[v / BLOCK] = offsets[v];
+            }
+            int offset = offsets[v] - blocks[v / BLOCK];
+            if (offset > Character.MAX_VALUE) {
+                blocks = null;
+            } else {
+                relative[v] = (char) offset;
+            }
+        }
+        this.blockOffsets = blocks;
+        this.relativeOffsets = blocks == null ? null : relative;
+        this.offsets = blocks == null ? offsets : null;
+        this.data = data;
+        this.edgeCount = edgeCount;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+        this.weightBits = weightBits;
+        this.weightMask = weightBits > 0 ? (1L << weightBits) - 1 : 0;
+    }
+
+    /**
+     * Compresses a graph, reading it once for the weight range and once to encode it through its
+     * {@link EdgeCursor}, so that a {@link MappedGraph} is compressed without copying its edges to the heap.
+     *
+     * @param graph The graph, e.g. in CSR form or mapped from a {@link GraphFile}.
+     * @return The same graph, compressed.
+     * @throws IllegalArgumentException if the compressed edges would exceed the 2 GiB of a byte array.
+     */
+    public static CompressedGraph of(NeighbourGraph graph) {
+        int n = graph.nodeCount();
+        EdgeCursor cursor = graph.cursor();
+        int[] ids = new int[n];
+        int minWeight = Integer.MAX_VALUE;
+        int maxWeight = Integer.MIN_VALUE;
+        for (int v = 0; v < n; v++) {
+            ids[v] = graph.id(v);
+            cursor.moveTo(v);
+            while (cursor.next()) {
+                minWeight = Math.min(minWeight, cursor.weight());
+                maxWeight = Math.max(maxWeight, cursor.weight());
+            }
+        }
+        if (minWeight > maxWeight) {
+            minWeight = 0;
+            maxWeight = 0;
+        }
+        long weightRange = (long) maxWeight - minWeight;
+        int rangeBits = 64 - Long.numberOfLeadingZeros(weightRange);
+        int weightBits = rangeBits <= MAX_PACKED_WEIGHT_BITS ? rangeBits : -1;
+
+        int[] offsets = new int[n + 1];
+        byte[] data = new byte[(int) Math.min(Integer.MAX_VALUE - 8, (long) graph.edgeCount() * 2 + 16)];
+        int position = 0;
+        for (int v = 0; v < n; v++) {
+            int previous = v;
+            boolean first = true;
+            cursor.moveTo(v);
+            while (cursor.next()) {
+                int target = cursor.target();
+                long weight = (long) cursor.weight() - minWeight;
+                long gap = first ? zigzag(target - (long) v) : target - previous - 1L;
+                previous = target;
+                first = false;
+                if (data.length - position < 20) {
+                    data = grow(data);
+                }
+                if (weightBits >= 0) {
+                    position = writeVarLong(data, position, gap << weightBits | weight);
+                } else {
+                    position = writeVarLong(data, position, gap);
+                    position = writeVarLong(data, position, weight);
+                }
+            }
+            offsets[v + 1] = position;
+        }
+        return new CompressedGraph(new VertexIds(ids, false), offsets, Arrays.copyOf(data, position),
+                graph.edgeCount(), minWeight, maxWeight, weightBits);
+    }
+
+    @Override
+    public int nodeCount() {
+        return vertices.count();
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int id(int index) {
+        return vertices.id(index);
+    }
+
+    @Override
+    public int indexOf(int id) {
+        return vertices.indexOf(id);
+    }
+
+    @Override
+    public EdgeCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @return The smallest edge weight, or 0 if the graph has no edges.
+     */
+    public int minWeight() {
+        return minWeight;
+    }
+
+    /**
+     * @return The largest edge weight, or 0 if the graph has no edges.
+     */
+    public int maxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return The heap bytes taken by the ids, the offsets and the encoded edges, to compare with the
+     *         {@code 8 * nodeCount + 8 * edgeCount} bytes of the same graph in CSR form, plus
+     *         {@code 8 * nodeCount} for the id lookup of a relabelled graph in either form.
+     */
+    public long bytes() {
+        long index = offsets != null ? 4L * offsets.length : 4L * blockOffsets.length + 2L * relativeOffsets.length;
+        return vertices.bytes() + index + data.length;
+    }
+
+    /**
+     * Decompresses the graph, e.g. for algorithms that need edge positions.
+     *
+     * @return The same graph in CSR form.
+     */
+    public CsrGraph toCsrGraph() {
+        int n = nodeCount();
+        int[] ids = new int[n];
+        int[] csrOffsets = new int[n + 1];
+        int[] targets = new int[edgeCount];
+        int[] weights = new int[edgeCount];
+        EdgeCursor cursor = cursor();
+        int e = 0;
+        for (int v = 0; v < n; v++) {
+            ids[v] = id(v);
+            cursor.moveTo(v);
+            while (cursor.next()) {
+                targets[e] = cursor.target();
+                weights[e++] = cursor.weight();
+            }
+            csrOffsets[v + 1] = e;
+        }
+        return new CsrGraph(ids, csrOffsets, targets, weights);
+    }
+
+    private int offset(int index) {
+        return offsets != null ? offsets[index] : blockOffsets[index / BLOCK] + relativeOffsets[index];
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int writeVarLong(byte[] data, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            data[position++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        data[position++] = (byte) value;
+        return position;
+    }
+
+    private static byte[] grow(byte[] data) {
+        if (data.length >= Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The compressed edges do not fit in a byte array of 2 GiB.");
+        }
+        return Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, data.length + (data.length >> 1) + 16L));
+    }
+
+    /**
+     * Decodes one successor list at a time, keeping the last target to add the next gap to.
+     */
+    private final class Cursor implements EdgeCursor {
+        private int source;
+        private int position;
+        private int end;
+        private int target;
+        private int weight;
+        private boolean first;
+
+        @Override
+        public void moveTo(int index) {
+            source = index;
+            position = offset(index);
+            end = offset(index + 1);
+            first = true;
+        }
+
+        @Override
+        public boolean next() {
+            if (position >= end) {
+                return false;
+            }
+            long value = readVarLong();
+            if (weightBits >= 0) {
+                weight = (int) (value & weightMask) + minWeight;
+                value >>>= weightBits;
+            } else {
+                weight = (int) (readVarLong() + minWeight);
+            }
+            target = first ? (int) (source + ((value >>> 1) ^ -(value & 1))) : target + 1 + (int) value;
+            first = false;
+            return true;
+        }
+
+        private long readVarLong() {
+            byte[] bytes = data;
+            int p = position;
+            byte b = bytes[p++];
+            long value = b & 0x7F;
+            for (int shift = 7; b < 0; shift += 7) {
+                b = bytes[p++];
+                value |= (long) (b & 0x7F) << shift;
+            }
+            position = p;
+            return value;
+        }
+
+        @Override
+        public int target() {
+            return target;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,636 @@
+package org.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A contraction hierarchy over a static graph, for point-to-point queries that are orders of magnitude
+ * faster than {@link Dijkstra#shortestPath(CsrGraph, int, int)} in exchange for a one-time preprocessing.
+ * <p>
+ * Preprocessing contracts the vertices one by one in order of importance, which is estimated lazily from
+ * the edge difference (shortcuts added minus edges removed), the number of already contracted
+ * neighbours and the level of the vertex in the hierarchy built so far. Contracting a vertex {@code v} adds a shortcut {@code u -> w} for every pair of neighbours
+ * {@code u -> v -> w} unless a bounded witness search finds a path from {@code u} to {@code w} that
+ * avoids {@code v} and is no longer. A query then runs a bidirectional search that only follows edges
+ * towards more important vertices, and unpacks the shortcuts on the resulting path into original edges.
+ */
+public final class ContractionHierarchy {
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final CsrGraph graph;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final int[] edgeFirst;
+    private final int[] edgeSecond;
+    private final int shortcutCount;
+
+    // Edges towards more important vertices, by source, and edges from more important vertices, by target.
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upWeights;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final int[] downWeights;
+    private final int[] downEdges;
+
+    private final ThreadLocal<QueryState> queryState;
+
+    private ContractionHierarchy(CsrGraph graph, int[] rank, IntList edgeFrom, IntList edgeTo, IntList edgeWeight,
+                                 IntList edgeFirst, IntList edgeSecond, int shortcutCount) {
+        this.graph = graph;
+        this.edgeFrom = edgeFrom.toArray();
+        this.edgeTo = edgeTo.toArray();
+        this.edgeFirst = edgeFirst.toArray();
+        this.edgeSecond = edgeSecond.toArray();
+        this.shortcutCount = shortcutCount;
+
+        int n = graph.nodeCount();
+        int m = edgeFrom.size();
+        upOffsets = new int[n + 1];
+        downOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            int from = edgeFrom.get(e);
+            int to = edgeTo.get(e);
+            if (rank[to] > rank[from]) {
+                upOffsets[from + 1]++;
+            } else {
+                downOffsets[to + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        upTargets = new int[upOffsets[n]];
+        upWeights = new int[upOffsets[n]];
+        upEdges = new int[upOffsets[n]];
+        downSources = new int[downOffsets[n]];
+        downWeights = new int[downOffsets[n]];
+        downEdges = new int[downOffsets[n]];
+        int[] upCursor = upOffsets.clone();
+        int[] downCursor = downOffsets.clone();
+        for (int e = 0; e < m; e++) {
+            int from = edgeFrom.get(e);
+            int to = edgeTo.get(e);
+            if (rank[to] > rank[from]) {
+                int slot = upCursor[from]++;
+                upTargets[slot] = to;
+                upWeights[slot] = edgeWeight.get(e);
+                upEdges[slot] = e;
+            } else {
+                int slot = downCursor[to]++;
+                downSources[slot] = from;
+                downWeights[slot] = edgeWeight.get(e);
+                downEdges[slot] = e;
+            }
+        }
+        queryState = ThreadLocal.withInitial(() -> new QueryState(n));
+    }
+
+    /**
+     * Contracts all vertices of the graph and builds the search graphs used by the queries.
+     *
+     * @param graph The graph in CSR form; it must not have negative weights.
+     * @return The contraction hierarchy.
+     */
+    public static ContractionHierarchy build(CsrGraph graph) {
+        return new Contractor(graph).contract();
+    }
+
+    /**
+     * @return The number of shortcut edges added during preprocessing.
+     */
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * Computes the shortest path distance between two nodes.
+     *
+     * @param start The starting node id.
+     * @param end   The ending node id.
+     * @return The distance, or {@code Integer.MAX_VALUE} if the end node is unreachable.
+     */
+    public int distance(int start, int end) {
+        int source = graph.indexOf(start);
+        int target = graph.indexOf(end);
+        if (source < 0 || target < 0) {
+            return Integer.MAX_VALUE;
+        }
+        QueryState state = queryState.get();
+        int meeting = search(state, source, target);
+        return meeting < 0 ? Integer.MAX_VALUE : state.forwardDistance[meeting] + state.backwardDistance[meeting];
+    }
+
+    /**
+     * Finds the shortest path between the start and end nodes, with all shortcuts unpacked into edges of
+     * the original graph.
+     *
+     * @param start The starting node id.
+     * @param end   The ending node id.
+     * @return A list of node ids representing the shortest path from start to end.
+     */
+    public List<Integer> shortestPath(int start, int end) {
+        int source = graph.indexOf(start);
+        int target = graph.indexOf(end);
+        if (source < 0 || target < 0) {
+            return Collections.emptyList();
+        }
+        QueryState state = queryState.get();
+        int meeting = search(state, source, target);
+        if (meeting < 0) {
+            return Collections.emptyList();
+        }
+
+        IntList edges = new IntList();
+        for (int at = meeting; at != source; at = edgeFrom[state.forwardEdge[at]]) {
+            edges.add(state.forwardEdge[at]);
+        }
+        IntList path = new IntList();
+        path.add(source);
+        for (int i = edges.size() - 1; i >= 0; i--) {
+            unpack(edges.get(i), path);
+        }
+        for (int at = meeting; at != target; at = edgeTo[state.backwardEdge[at]]) {
+            unpack(state.backwardEdge[at], path);
+        }
+
+        List<Integer> result = new ArrayList<>(path.size());
+        for (int i = 0; i < path.size(); i++) {
+            result.add(graph.id(path.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Compares the distances and paths of random queries against plain {@link Dijkstra}. Paths may differ
+     * from Dijkstra's when several shortest paths exist, so a path is accepted if it uses edges of the
+     * graph, connects the two nodes and has the shortest length.
+     *
+     * @param queries The number of random queries to check.
+     * @param seed    The seed for choosing the queries.
+     * @throws IllegalStateException describing the first query whose result is wrong.
+     */
+    public void verify(int queries, long seed) {
+        Random rand = new Random(seed);
+        int n = graph.nodeCount();
+        int[] previous = new int[n];
+        for (int i = 0; i < queries && n > 0; i++) {
+            int start = graph.id(rand.nextInt(n));
+            int end = graph.id(rand.nextInt(n));
+            int expected = Dijkstra.dijkstra(graph, start, previous)[graph.indexOf(end)];
+            int actual = distance(start, end);
+            List<Integer> path = shortestPath(start, end);
+            if (actual != expected) {
+                throw new IllegalStateException("Distance from " + start + " to " + end + " is " + actual
+                        + " but Dijkstra finds " + expected + ".");
+            }
+            if (expected != Integer.MAX_VALUE && pathLength(path, start, end) != expected) {
+                throw new IllegalStateException("Path from " + start + " to " + end + " is not a shortest path: "
+                        + path + ", Dijkstra finds " + Dijkstra.shortestPath(graph, start, end) + ".");
+            }
+        }
+    }
+
+    private long pathLength(List<Integer> path, int start, int end) {
+        if (path.isEmpty() || path.get(0) != start || path.get(path.size() - 1) != end) {
+            return -1;
+        }
+        long length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            int from = graph.indexOf(path.get(i - 1));
+            int to = graph.indexOf(path.get(i));
+            int weight = -1;
+            for (int e = graph.offsets[from]; e < graph.offsets[from + 1]; e++) {
+                if (graph.targets[e] == to && (weight < 0 || graph.weights[e] < weight)) {
+                    weight = graph.weights[e];
+                }
+            }
+            if (weight < 0) {
+                return -1;
+            }
+            length += weight;
+        }
+        return length;
+    }
+
+    /**
+     * Runs the upward bidirectional search.
+     *
+     * @return The index of the vertex where the shortest path turns from upward to downward, or -1.
+     */
+    private int search(QueryState state, int source, int target) {
+        state.nextEpoch();
+        state.reachForward(source, 0, -1);
+        state.reachBackward(target, 0, -1);
+        IndexedMinHeap forward = state.forwardNodes;
+        IndexedMinHeap backward = state.backwardNodes;
+        forward.insert(source, 0);
+        backward.insert(target, 0);
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("CONTRACTION_HIERARCHY") : null;
+        if (GraphMetrics.ENABLED) {
+            counters.push();
+            counters.push();
+        }
+
+        long best = Long.MAX_VALUE;
+        int meeting = -1;
+        while (true) {
+            boolean forwardActive = !forward.isEmpty() && forward.minKey() < best;
+            boolean backwardActive = !backward.isEmpty() && backward.minKey() < best;
+            if (!forwardActive && !backwardActive) {
+                break;
+            }
+            if (forwardActive && (!backwardActive || forward.minKey() <= backward.minKey())) {
+                int v = forward.poll();
+                int distance = state.forwardDistance[v];
+                if (state.reachedBackward(v) && (long) distance + state.backwardDistance[v] < best) {
+                    best = (long) distance + state.backwardDistance[v];
+                    meeting = v;
+                }
+                if (stalledForward(state, v, distance)) {
+                    if (GraphMetrics.ENABLED) {
+                        counters.pop();
+                    }
+                    continue;
+                }
+                if (GraphMetrics.ENABLED) {
+                    counters.settle();
+                    counters.relax(upOffsets[v + 1] - upOffsets[v]);
+                }
+                for (int i = upOffsets[v]; i < upOffsets[v + 1]; i++) {
+                    int to = upTargets[i];
+                    int newDist = distance + upWeights[i];
+                    if (!state.reachedForward(to) || newDist < state.forwardDistance[to]) {
+                        if (GraphMetrics.ENABLED) {
+                            counters.improve(forward.contains(to));
+                        }
+                        state.reachForward(to, newDist, upEdges[i]);
+                        forward.insertOrDecrease(to, newDist);
+                    }
+                }
+            } else {
+                int v = backward.poll();
+                int distance = state.backwardDistance[v];
+                if (state.reachedForward(v) && (long) distance + state.forwardDistance[v] < best) {
+                    best = (long) distance + state.forwardDistance[v];
+                    meeting = v;
+                }
+                if (stalledBackward(state, v, distance)) {
+                    if (GraphMetrics.ENABLED) {
+                        counters.pop();
+                    }
+                    continue;
+                }
+                if (GraphMetrics.ENABLED) {
+                    counters.settle();
+                    counters.relax(downOffsets[v + 1] - downOffsets[v]);
+                }
+                for (int i = downOffsets[v]; i < downOffsets[v + 1]; i++) {
+                    int from = downSources[i];
+                    int newDist = distance + downWeights[i];
+                    if (!state.reachedBackward(from) || newDist < state.backwardDistance[from]) {
+                        if (GraphMetrics.ENABLED) {
+                            counters.improve(backward.contains(from));
+                        }
+                        state.reachBackward(from, newDist, downEdges[i]);
+                        backward.insertOrDecrease(from, newDist);
+                    }
+                }
+            }
+        }
+        forward.clear();
+        backward.clear();
+        if (GraphMetrics.ENABLED) {
+            counters.end(graph.id(source), graph.id(target));
+        }
+        return meeting;
+    }
+
+    /**
+     * Stall-on-demand: a vertex need not be expanded by the forward search if a more important vertex
+     * that the search already reached has an edge into it that gives a shorter distance, because then
+     * the vertex cannot lie on a shortest upward path.
+     */
+    private boolean stalledForward(QueryState state, int v, int distance) {
+        for (int i = downOffsets[v]; i < downOffsets[v + 1]; i++) {
+            int from = downSources[i];
+            if (state.reachedForward(from) && (long) state.forwardDistance[from] + downWeights[i] < distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The mirror image of {@link #stalledForward(QueryState, int, int)} for the backward search.
+     */
+    private boolean stalledBackward(QueryState state, int v, int distance) {
+        for (int i = upOffsets[v]; i < upOffsets[v + 1]; i++) {
+            int to = upTargets[i];
+            if (state.reachedBackward(to) && (long) state.backwardDistance[to] + upWeights[i] < distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends the targets of the original edges behind an edge or shortcut to the path.
+     */
+    private void unpack(int edge, IntList path) {
+        IntList stack = new IntList();
+        stack.add(edge);
+        while (stack.size() > 0) {
+            int e = stack.removeLast();
+            if (edgeFirst[e] < 0) {
+                path.add(edgeTo[e]);
+            } else {
+                stack.add(edgeSecond[e]);
+                stack.add(edgeFirst[e]);
+            }
+        }
+    }
+
+    /**
+     * Per-thread search state. Entries are valid only if their stamp matches the current epoch, so
+     * starting a new query costs nothing proportional to the size of the graph.
+     */
+    private static final class QueryState {
+        final int[] forwardDistance;
+        final int[] backwardDistance;
+        final int[] forwardEdge;
+        final int[] backwardEdge;
+        final int[] forwardStamp;
+        final int[] backwardStamp;
+        final IndexedMinHeap forwardNodes;
+        final IndexedMinHeap backwardNodes;
+        int epoch;
+
+        QueryState(int n) {
+            forwardDistance = new int[n];
+            backwardDistance = new int[n];
+            forwardEdge = new int[n];
+            backwardEdge = new int[n];
+            forwardStamp = new int[n];
+            backwardStamp = new int[n];
+            forwardNodes = new IndexedMinHeap(n);
+            backwardNodes = new IndexedMinHeap(n);
+        }
+
+        void nextEpoch() {
+            if (++epoch == 0) {
+                Arrays.fill(forwardStamp, 0);
+                Arrays.fill(backwardStamp, 0);
+                epoch = 1;
+            }
+        }
+
+        boolean reachedForward(int v) {
+            return forwardStamp[v] == epoch;
+        }
+
+        boolean reachedBackward(int v) {
+            return backwardStamp[v] == epoch;
+        }
+
+        void reachForward(int v, int distance, int edge) {
+            forwardStamp[v] = epoch;
+            forwardDistance[v] = distance;
+            forwardEdge[v] = edge;
+        }
+
+        void reachBackward(int v, int distance, int edge) {
+            backwardStamp[v] = epoch;
+            backwardDistance[v] = distance;
+            backwardEdge[v] = edge;
+        }
+    }
+
+    /**
+     * The preprocessing state, discarded once the hierarchy is built.
+     */
+    private static final class Contractor {
+        private final CsrGraph graph;
+        private final int n;
+        private final IntList edgeFrom = new IntList();
+        private final IntList edgeTo = new IntList();
+        private final IntList edgeWeight = new IntList();
+        private final IntList edgeFirst = new IntList();
+        private final IntList edgeSecond = new IntList();
+        private int shortcutCount;
+        private final IntList[] outEdges;
+        private final IntList[] inEdges;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+        private final int[] level;
+
+        // Lightest edge per neighbour of the vertex being contracted.
+        private final int[] inStamp;
+        private final int[] outStamp;
+        private final int[] bestEdge;
+        private final int[] bestOutEdge;
+        private final IntList inNeighbours = new IntList();
+        private final IntList outNeighbours = new IntList();
+        private int stamp;
+
+        // Witness search buffers, reset through the list of touched vertices.
+        private final int[] witnessDistance;
+        private final IntList touched = new IntList();
+        private final IndexedMinHeap witnessNodes;
+
+        Contractor(CsrGraph graph) {
+            this.graph = graph;
+            this.n = graph.nodeCount();
+            outEdges = new IntList[n];
+            inEdges = new IntList[n];
+            for (int v = 0; v < n; v++) {
+                outEdges[v] = new IntList(graph.degree(v) + 1);
+                inEdges[v] = new IntList(4);
+            }
+            contracted = new boolean[n];
+            contractedNeighbours = new int[n];
+            level = new int[n];
+            inStamp = new int[n];
+            outStamp = new int[n];
+            bestEdge = new int[n];
+            bestOutEdge = new int[n];
+            witnessDistance = new int[n];
+            Arrays.fill(witnessDistance, Integer.MAX_VALUE);
+            witnessNodes = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                    if (graph.targets[e] != v) {
+                        addEdge(v, graph.targets[e], graph.weights[e], -1, -1);
+                    }
+                }
+            }
+        }
+
+        ContractionHierarchy contract() {
+            int[] rank = new int[n];
+            IndexedMinHeap queue = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                queue.insert(v, priority(v));
+            }
+            int order = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.poll();
+                // Lazy update: the priority may have grown since it was queued.
+                int priority = priority(v);
+                if (!queue.isEmpty() && priority > queue.minKey()) {
+                    queue.insert(v, priority);
+                    continue;
+                }
+                contractVertex(v, false);
+                contracted[v] = true;
+                rank[v] = order++;
+                for (int i = 0; i < inNeighbours.size(); i++) {
+                    int u = inNeighbours.get(i);
+                    contractedNeighbours[u]++;
+                    level[u] = Math.max(level[u], level[v] + 1);
+                }
+                for (int i = 0; i < outNeighbours.size(); i++) {
+                    int w = outNeighbours.get(i);
+                    contractedNeighbours[w]++;
+                    level[w] = Math.max(level[w], level[v] + 1);
+                }
+            }
+            return new ContractionHierarchy(graph, rank, edgeFrom, edgeTo, edgeWeight, edgeFirst, edgeSecond, shortcutCount);
+        }
+
+        private int priority(int v) {
+            int shortcuts = contractVertex(v, true);
+            int removed = inNeighbours.size() + outNeighbours.size();
+            return 2 * (shortcuts - removed) + contractedNeighbours[v] + level[v];
+        }
+
+        /**
+         * Finds, and unless simulating adds, the shortcuts needed to contract the vertex. Leaves the
+         * uncontracted neighbours of the vertex in {@code inNeighbours} and {@code outNeighbours}.
+         *
+         * @return The number of shortcuts.
+         */
+        private int contractVertex(int v, boolean simulate) {
+            collectNeighbours(v);
+            int maxOut = 0;
+            for (int j = 0; j < outNeighbours.size(); j++) {
+                maxOut = Math.max(maxOut, edgeWeight.get(bestOutEdge[outNeighbours.get(j)]));
+            }
+            int shortcuts = 0;
+            for (int i = 0; i < inNeighbours.size(); i++) {
+                int u = inNeighbours.get(i);
+                int inEdge = bestEdge[u];
+                int inWeight = edgeWeight.get(inEdge);
+                witnessSearch(u, v, (long) inWeight + maxOut);
+                for (int j = 0; j < outNeighbours.size(); j++) {
+                    int w = outNeighbours.get(j);
+                    if (w == u) {
+                        continue;
+                    }
+                    int outEdge = bestOutEdge[w];
+                    int via = inWeight + edgeWeight.get(outEdge);
+                    if (witnessDistance[w] > via) {
+                        shortcuts++;
+                        if (!simulate) {
+                            addEdge(u, w, via, inEdge, outEdge);
+                            shortcutCount++;
+                        }
+                    }
+                }
+                resetWitness();
+            }
+            return shortcuts;
+        }
+
+        private void collectNeighbours(int v) {
+            stamp++;
+            inNeighbours.clear();
+            outNeighbours.clear();
+            IntList in = inEdges[v];
+            for (int i = 0; i < in.size(); i++) {
+                int e = in.get(i);
+                int u = edgeFrom.get(e);
+                if (contracted[u]) {
+                    continue;
+                }
+                if (inStamp[u] != stamp) {
+                    inStamp[u] = stamp;
+                    bestEdge[u] = e;
+                    inNeighbours.add(u);
+                } else if (edgeWeight.get(e) < edgeWeight.get(bestEdge[u])) {
+                    bestEdge[u] = e;
+                }
+            }
+            IntList out = outEdges[v];
+            for (int i = 0; i < out.size(); i++) {
+                int e = out.get(i);
+                int w = edgeTo.get(e);
+                if (contracted[w]) {
+                    continue;
+                }
+                if (outStamp[w] != stamp) {
+                    outStamp[w] = stamp;
+                    bestOutEdge[w] = e;
+                    outNeighbours.add(w);
+                } else if (edgeWeight.get(e) < edgeWeight.get(bestOutEdge[w])) {
+                    bestOutEdge[w] = e;
+                }
+            }
+        }
+
+        /**
+         * Dijkstra from {@code source} over uncontracted vertices other than {@code skip}, up to the given
+         * distance and a fixed number of settled vertices. Giving up early only adds a shortcut that was
+         * not strictly needed.
+         */
+        private void witnessSearch(int source, int skip, long limit) {
+            witnessDistance[source] = 0;
+            touched.add(source);
+            witnessNodes.insert(source, 0);
+            int settled = 0;
+            while (!witnessNodes.isEmpty() && witnessNodes.minKey() <= limit && settled++ < WITNESS_SETTLE_LIMIT) {
+                int u = witnessNodes.poll();
+                IntList out = outEdges[u];
+                for (int i = 0; i < out.size(); i++) {
+                    int e = out.get(i);
+                    int w = edgeTo.get(e);
+                    if (w == skip || contracted[w]) {
+                        continue;
+                    }
+                    int newDist = witnessDistance[u] + edgeWeight.get(e);
+                    if (newDist < witnessDistance[w]) {
+                        if (witnessDistance[w] == Integer.MAX_VALUE) {
+                            touched.add(w);
+                        }
+                        witnessDistance[w] = newDist;
+                        witnessNodes.insertOrDecrease(w, newDist);
+                    }
+                }
+            }
+            witnessNodes.clear();
+        }
+
+        private void resetWitness() {
+            for (int i = 0; i < touched.size(); i++) {
+                witnessDistance[touched.get(i)] = Integer.MAX_VALUE;
+            }
+            touched.clear();
+        }
+
+        private void addEdge(int from, int to, int weight, int first, int second) {
+            int e = edgeFrom.size();
+            edgeFrom.add(from);
+            edgeTo.add(to);
+            edgeWeight.add(weight);
+            edgeFirst.add(first);
+            edgeSecond.add(second);
+            outEdges[from].add(e);
+            inEdges[to].add(e);
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package org.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A read-only directed graph stored in compressed sparse row (CSR) form.
+ * Vertices are addressed internally by a dense index in {@code [0, nodeCount())}; the outgoing
+ * edges of vertex {@code v} occupy positions {@code offsets[v]} to {@code offsets[v + 1] - 1} of the
+ * parallel {@code targets} and {@code weights} arrays, sorted by target.
+ * <p>
+ * Each edge costs two ints instead of a boxed map entry, a list slot and an {@link Edge} object,
+ * and neighbour scans walk contiguous memory. The original vertex ids are kept so that the
+ * public API can keep speaking ids: use {@link #indexOf(int)} and {@link #id(int)} to convert.
+ * Indexes follow ascending ids unless the graph was relabelled with {@link GraphReordering}.
+ */
+public final class CsrGraph implements IndexedGraph {
+    final int[] ids;
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+    private final VertexIds vertices;
+    private final int minWeight;
+    private final int maxWeight;
+    private volatile CsrGraph reverse;
+    private volatile CsrGraph reordered;
+
+    CsrGraph(int[] ids, int[] offsets, int[] targets, int[] weights) {
+        this(new VertexIds(ids), offsets, targets, weights);
+    }
+
+    /**
+     * Creates a graph with the vertices of another one, sharing their id lookup.
+     */
+    CsrGraph(VertexIds vertices, int[] offsets, int[] targets, int[] weights) {
+        this.vertices = vertices;
+        this.ids = vertices.ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        int min = 0;
+        int max = 0;
+        for (int i = 0; i < weights.length; i++) {
+            min = i == 0 ? weights[i] : Math.min(min, weights[i]);
+            max = i == 0 ? weights[i] : Math.max(max, weights[i]);
+        }
+        this.minWeight = min;
+        this.maxWeight = max;
+    }
+
+    /**
+     * Converts a graph in the map representation used by {@link GraphGenerator} into CSR form.
+     * Vertices that only appear as edge targets are included as well.
+     *
+     * @param graph The graph as a map of nodes to edges.
+     * @return The same graph in CSR form.
+     */
+    public static CsrGraph fromMap(Map<Integer, List<Edge>> graph) {
+        Builder builder = new Builder();
+        graph.forEach((from, edges) -> {
+            builder.addVertex(from);
+            for (Edge edge : edges) {
+                builder.addEdge(from, edge.getTo(), edge.getWeight());
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Creates a builder that collects vertices and edges before packing them into CSR form.
+     *
+     * @return A new, empty builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of vertices in the graph.
+     */
+    public int nodeCount() {
+        return ids.length;
+    }
+
+    /**
+     * @return The number of edges in the graph.
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the vertex id stored at the given index.
+     *
+     * @param index The vertex index.
+     * @return The original vertex id.
+     */
+    public int id(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Returns the index of the vertex with the given id.
+     *
+     * @param id The vertex id.
+     * @return The vertex index, or -1 if the graph has no such vertex.
+     */
+    public int indexOf(int id) {
+        return vertices.indexOf(id);
+    }
+
+    /**
+     * @return True if the indexes of this graph follow ascending ids, as they do unless it was relabelled.
+     */
+    boolean hasAscendingIds() {
+        return vertices.ascending();
+    }
+
+    /**
+     * @param id The vertex id.
+     * @return True if the graph contains a vertex with the given id.
+     */
+    public boolean containsVertex(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * @param index The vertex index.
+     * @return The position of the first outgoing edge of the vertex.
+     */
+    public int edgeStart(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @param index The vertex index.
+     * @return The position just past the last outgoing edge of the vertex.
+     */
+    public int edgeEnd(int index) {
+        return offsets[index + 1];
+    }
+
+    /**
+     * @param index The vertex index.
+     * @return The number of outgoing edges of the vertex.
+     */
+    public int degree(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * @param edge The edge position.
+     * @return The index of the edge's destination vertex.
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * @param edge The edge position.
+     * @return The weight of the edge.
+     */
+    public int weight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * @return The smallest edge weight, or 0 if the graph has no edges.
+     */
+    public int minWeight() {
+        return minWeight;
+    }
+
+    /**
+     * @return The largest edge weight, or 0 if the graph has no edges.
+     */
+    public int maxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Returns the reverse graph, in which every edge points the other way. It shares the vertex
+     * ids and indexes of this graph, is built on first use and then kept with the graph.
+     *
+     * @return The reverse graph.
+     */
+    public CsrGraph reverse() {
+        CsrGraph result = reverse;
+        if (result == null) {
+            synchronized (this) {
+                result = reverse;
+                if (result == null) {
+                    result = transpose();
+                    result.reverse = this;
+                    reverse = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns this graph relabelled in the {@link GraphReordering#DEFAULT} order, built on first use
+     * and then kept with the graph like the {@link #reverse() reverse graph}, so that repeated
+     * whole-graph computations pay for the relabelling once.
+     *
+     * @return The relabelled graph.
+     */
+    CsrGraph reordered() {
+        CsrGraph result = reordered;
+        if (result == null) {
+            synchronized (this) {
+                result = reordered;
+                if (result == null) {
+                    result = GraphReordering.reorder(this).graph();
+                    reordered = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private CsrGraph transpose() {
+        int n = ids.length;
+        int[] reverseOffsets = new int[n + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(reverseOffsets, n);
+        int[] reverseTargets = new int[targets.length];
+        int[] reverseWeights = new int[targets.length];
+        // Visiting sources in index order keeps every reverse row sorted by target.
+        for (int v = 0; v < n; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int slot = cursor[targets[e]]++;
+                reverseTargets[slot] = v;
+                reverseWeights[slot] = weights[e];
+            }
+        }
+        return new CsrGraph(vertices, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    /**
+     * Expands the graph back into the map representation, e.g. for printing.
+     *
+     * @return A map of node ids to their outgoing edges, ordered by node id and each list by
+     *         destination id, also for a relabelled graph.
+     */
+    public Map<Integer, List<Edge>> toMap() {
+        Map<Integer, List<Edge>> graph = new TreeMap<>();
+        boolean ascending = hasAscendingIds();
+        for (int v = 0; v < nodeCount(); v++) {
+            List<Edge> edges = new ArrayList<>(degree(v));
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                edges.add(new Edge(id(targets[e]), weights[e]));
+            }
+            if (!ascending) {
+                // Rows are sorted by target index, which no longer follows the ids.
+                edges.sort(Comparator.comparingInt(Edge::getTo));
+            }
+            graph.put(id(v), edges);
+        }
+        return Collections.unmodifiableMap(graph);
+    }
+
+    /**
+     * Collects vertices and edges in primitive arrays and packs them into a {@link CsrGraph}.
+     * Duplicate edges between the same pair of vertices are collapsed into one, keeping the
+     * smallest weight.
+     */
+    public static final class Builder {
+        private final IntList vertices = new IntList();
+        private final IntList from = new IntList();
+        private final IntList to = new IntList();
+        private final IntList weight = new IntList();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a vertex, which is needed only for vertices without any edges.
+         *
+         * @param id The vertex id.
+         * @return This builder.
+         */
+        public Builder addVertex(int id) {
+            vertices.add(id);
+            return this;
+        }
+
+        /**
+         * Adds a directed edge; both endpoints are added as vertices.
+         *
+         * @param fromId The source vertex id.
+         * @param toId   The destination vertex id.
+         * @param w      The edge weight.
+         * @return This builder.
+         */
+        public Builder addEdge(int fromId, int toId, int w) {
+            from.add(fromId);
+            to.add(toId);
+            weight.add(w);
+            return this;
+        }
+
+        /**
+         * Adds all vertices and edges collected by another builder, e.g. one that parsed another
+         * chunk of the same input.
+         *
+         * @param other The builder to copy from.
+         * @return This builder.
+         */
+        Builder addAll(Builder other) {
+            for (int i = 0; i < other.vertices.size(); i++) {
+                vertices.add(other.vertices.get(i));
+            }
+            for (int i = 0; i < other.from.size(); i++) {
+                addEdge(other.from.get(i), other.to.get(i), other.weight.get(i));
+            }
+            return this;
+        }
+
+        /**
+         * Packs the collected vertices and edges into CSR form. The builder can keep being used
+         * afterwards.
+         *
+         * @return The graph.
+         */
+        public CsrGraph build() {
+            int[] ids = collectIds();
+            CsrGraph lookup = new CsrGraph(ids, new int[0], new int[0], new int[0]);
+            int n = ids.length;
+            int m = from.size();
+
+            // Counting sort of the edges by source index.
+            int[] offsets = new int[n + 1];
+            int[] sources = new int[m];
+            for (int i = 0; i < m; i++) {
+                sources[i] = lookup.indexOf(from.get(i));
+                offsets[sources[i] + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] cursor = Arrays.copyOf(offsets, n);
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            for (int i = 0; i < m; i++) {
+                int slot = cursor[sources[i]]++;
+                targets[slot] = lookup.indexOf(to.get(i));
+                weights[slot] = weight.get(i);
+            }
+
+            return sortAndDeduplicate(ids, offsets, targets, weights);
+        }
+
+        private int[] collectIds() {
+            int[] all = new int[vertices.size() + 2 * from.size()];
+            int k = 0;
+            for (int i = 0; i < vertices.size(); i++) {
+                all[k++] = vertices.get(i);
+            }
+            for (int i = 0; i < from.size(); i++) {
+                all[k++] = from.get(i);
+                all[k++] = to.get(i);
+            }
+            Arrays.sort(all);
+            int unique = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (i == 0 || all[i] != all[i - 1]) {
+                    all[unique++] = all[i];
+                }
+            }
+            return Arrays.copyOf(all, unique);
+        }
+
+        private static CsrGraph sortAndDeduplicate(int[] ids, int[] offsets, int[] targets, int[] weights) {
+            int n = ids.length;
+            long[] row = new long[0];
+            int[] packedOffsets = new int[n + 1];
+            int write = 0;
+            for (int v = 0; v < n; v++) {
+                int start = offsets[v];
+                int degree = offsets[v + 1] - start;
+                if (row.length < degree) {
+                    row = new long[degree];
+                }
+                // Sort by target, then by weight, so the first of each run of duplicates is the lightest.
+                for (int i = 0; i < degree; i++) {
+                    row[i] = ((long) targets[start + i] << 32) | (weights[start + i] - (long) Integer.MIN_VALUE);
+                }
+                Arrays.sort(row, 0, degree);
+                packedOffsets[v] = write;
+                for (int i = 0; i < degree; i++) {
+                    int target = (int) (row[i] >>> 32);
+                    if (i > 0 && target == (int) (row[i - 1] >>> 32)) {
+                        continue;
+                    }
+                    targets[write] = target;
+                    weights[write] = (int) ((row[i] & 0xFFFFFFFFL) + Integer.MIN_VALUE);
+                    write++;
+                }
+            }
+            packedOffsets[n] = write;
+            if (write < targets.length) {
+                targets = Arrays.copyOf(targets, write);
+                weights = Arrays.copyOf(weights, write);
+            }
+            return new CsrGraph(ids, packedOffsets, targets, weights);
+        }
+    }
+}
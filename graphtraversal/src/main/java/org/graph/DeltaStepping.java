@@ -0,0 +1,342 @@
+package org.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parallel single-source shortest paths with the delta-stepping algorithm of Meyer and Sanders.
+ * <p>
+ * Tentative distances are grouped into buckets of width {@code delta}. The lowest non-empty bucket
+ * is emptied in phases: every phase relaxes the light edges (weight at most {@code delta}) of all
+ * vertices in the bucket in parallel, and vertices whose distance drops into the same bucket form
+ * the next phase. Once the bucket stays empty, the heavy edges of every vertex removed from it are
+ * relaxed in one more parallel step. Relaxations from different workers race on a single
+ * {@link AtomicLongArray} slot per vertex that packs the distance with the predecessor, so a
+ * compare-and-set minimum keeps both consistent without locks.
+ * <p>
+ * A small {@code delta} approaches Dijkstra's algorithm with little parallelism per phase; a large
+ * one approaches Bellman-Ford with more wasted relaxations.
+ */
+public class DeltaStepping {
+    private static final long UNREACHED = pack(Integer.MAX_VALUE, -1);
+    // Frontier slices below this size are relaxed by a single task.
+    private static final int GRAIN = 256;
+
+    /**
+     * Computes shortest path distances on the common fork-join pool with the default delta.
+     *
+     * @param graph    The graph in CSR form; its weights must be non-negative.
+     * @param start    The starting node id.
+     * @param previous An array of length {@code graph.nodeCount()} that receives the index of the
+     *                 previous node on the shortest path to each node, or -1 if there is none.
+     * @return The shortest path distances from the start node, indexed by node index;
+     *         unreachable nodes have distance {@code Integer.MAX_VALUE}.
+     */
+    public static int[] shortestPaths(CsrGraph graph, int start, int[] previous) {
+        return shortestPaths(graph, start, previous, defaultDelta(graph), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes shortest path distances on the given fork-join pool.
+     *
+     * @param graph    The graph in CSR form; its weights must be non-negative.
+     * @param start    The starting node id.
+     * @param previous An array of length {@code graph.nodeCount()} that receives the index of the
+     *                 previous node on the shortest path to each node, or -1 if there is none.
+     * @param delta    The bucket width, at least 1.
+     * @param pool     The pool to relax edges on.
+     * @return The shortest path distances from the start node, indexed by node index;
+     *         unreachable nodes have distance {@code Integer.MAX_VALUE}.
+     */
+    public static int[] shortestPaths(CsrGraph graph, int start, int[] previous, int delta, ForkJoinPool pool) {
+        if (delta < 1) {
+            throw new IllegalArgumentException("Delta must be at least 1 but was " + delta + ".");
+        }
+        if (graph.minWeight() < 0) {
+            throw new IllegalArgumentException("Delta-stepping requires non-negative edge weights.");
+        }
+        int n = graph.nodeCount();
+        int[] distances = new int[n];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(previous, -1);
+        int source = graph.indexOf(start);
+        if (source < 0) {
+            return distances;
+        }
+
+        AtomicLongArray state = new AtomicLongArray(n);
+        for (int v = 0; v < n; v++) {
+            state.set(v, UNREACHED);
+        }
+        state.set(source, pack(0, -1));
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("DELTA_STEPPING") : null;
+        new Search(graph, state, delta, pool, counters).run(source);
+        if (GraphMetrics.ENABLED) {
+            counters.end(start, -1);
+        }
+
+        for (int v = 0; v < n; v++) {
+            long packed = state.get(v);
+            distances[v] = distance(packed);
+            previous[v] = predecessor(packed);
+        }
+        return distances;
+    }
+
+    /**
+     * Returns the default bucket width: the largest weight divided by the average out-degree, so
+     * that a vertex's light edges reach about one bucket ahead on average.
+     *
+     * @param graph The graph in CSR form.
+     * @return The bucket width, at least 1.
+     */
+    public static int defaultDelta(CsrGraph graph) {
+        if (graph.nodeCount() == 0) {
+            return 1;
+        }
+        int averageDegree = Math.max(1, (graph.edgeCount() + graph.nodeCount() - 1) / graph.nodeCount());
+        return Math.max(1, graph.maxWeight() / averageDegree);
+    }
+
+    private static long pack(int distance, int predecessor) {
+        return ((long) distance << 32) | (predecessor & 0xFFFFFFFFL);
+    }
+
+    private static int distance(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int predecessor(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * The sequential bucket loop of one search; only edge relaxation runs in parallel. With metrics,
+     * bucket insertions count as pushes and removals as pops; vertices are re-inserted rather than
+     * moved, so there are no decrease-keys.
+     */
+    private static final class Search {
+        private final CsrGraph graph;
+        private final AtomicLongArray state;
+        private final int delta;
+        private final ForkJoinPool pool;
+        // Stamped with the phase number by the worker that first lowers a vertex in that phase.
+        private final AtomicIntegerArray claimed;
+        // Stamped with the bucket number when a vertex is taken from that bucket.
+        private final int[] removed;
+        private final IntList[] buckets;
+        private final SearchCounters counters;
+        // Edges relaxed by the tasks, or null without metrics.
+        private final LongAdder relaxations;
+        private int phase;
+        private long pending;
+
+        Search(CsrGraph graph, AtomicLongArray state, int delta, ForkJoinPool pool, SearchCounters counters) {
+            this.graph = graph;
+            this.state = state;
+            this.delta = delta;
+            this.pool = pool;
+            this.counters = counters;
+            this.relaxations = GraphMetrics.ENABLED ? new LongAdder() : null;
+            int n = graph.nodeCount();
+            this.claimed = new AtomicIntegerArray(n);
+            this.removed = new int[n];
+            Arrays.fill(removed, -1);
+            // Open distances lie in [i * delta, (i + 1) * delta + maxWeight) while bucket i is processed.
+            long bucketCount = graph.maxWeight() / delta + 2L;
+            if (bucketCount > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Delta " + delta + " is too small for weights up to "
+                        + graph.maxWeight() + ".");
+            }
+            this.buckets = new IntList[(int) bucketCount];
+        }
+
+        void run(int source) {
+            add(source, 0);
+            IntList settled = new IntList();
+            for (int current = 0; pending > 0; current++) {
+                IntList slot = buckets[current % buckets.length];
+                if (slot == null || slot.size() == 0) {
+                    continue;
+                }
+                int[] frontier = take(slot, current, settled);
+                while (frontier.length > 0) {
+                    IntList improved = relax(frontier, true);
+                    frontier = distribute(improved, current, settled);
+                }
+                if (settled.size() > 0) {
+                    if (GraphMetrics.ENABLED) {
+                        counters.settle(settled.size());
+                    }
+                    distribute(relax(settled.toArray(), false), current, settled);
+                    settled.clear();
+                }
+            }
+            if (GraphMetrics.ENABLED) {
+                counters.relax(relaxations.sum());
+            }
+        }
+
+        /**
+         * Empties a bucket slot, keeping the vertices whose current distance still falls into the bucket.
+         */
+        private int[] take(IntList slot, int current, IntList settled) {
+            IntList frontier = new IntList(slot.size());
+            for (int i = 0; i < slot.size(); i++) {
+                int v = slot.get(i);
+                if (distance(state.get(v)) / delta == current) {
+                    frontier.add(v);
+                    if (removed[v] != current) {
+                        removed[v] = current;
+                        settled.add(v);
+                    }
+                }
+            }
+            pending -= slot.size();
+            if (GraphMetrics.ENABLED) {
+                counters.pop(slot.size());
+            }
+            slot.clear();
+            return deduplicate(frontier);
+        }
+
+        /**
+         * Files improved vertices into their buckets and returns those that fell into the current one.
+         */
+        private int[] distribute(IntList improved, int current, IntList settled) {
+            IntList frontier = new IntList();
+            for (int i = 0; i < improved.size(); i++) {
+                int v = improved.get(i);
+                int bucket = distance(state.get(v)) / delta;
+                if (bucket == current) {
+                    frontier.add(v);
+                    if (removed[v] != current) {
+                        removed[v] = current;
+                        settled.add(v);
+                    }
+                } else {
+                    add(v, bucket);
+                }
+            }
+            return frontier.toArray();
+        }
+
+        private void add(int v, int bucket) {
+            int index = bucket % buckets.length;
+            if (buckets[index] == null) {
+                buckets[index] = new IntList();
+            }
+            buckets[index].add(v);
+            pending++;
+            if (GraphMetrics.ENABLED) {
+                counters.push();
+            }
+        }
+
+        private int[] deduplicate(IntList vertices) {
+            phase++;
+            IntList unique = new IntList(vertices.size());
+            for (int i = 0; i < vertices.size(); i++) {
+                int v = vertices.get(i);
+                if (claimed.get(v) != phase) {
+                    claimed.set(v, phase);
+                    unique.add(v);
+                }
+            }
+            return unique.toArray();
+        }
+
+        private IntList relax(int[] frontier, boolean light) {
+            phase++;
+            return pool.invoke(new RelaxTask(this, frontier, 0, frontier.length, light, phase));
+        }
+    }
+
+    /**
+     * Relaxes the light or heavy edges of a slice of the frontier and collects the vertices it improved.
+     */
+    private static final class RelaxTask extends RecursiveTask<IntList> {
+        private final Search search;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        private final boolean light;
+        private final int phase;
+
+        RelaxTask(Search search, int[] frontier, int from, int to, boolean light, int phase) {
+            this.search = search;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+            this.phase = phase;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (to - from > GRAIN) {
+                int mid = (from + to) >>> 1;
+                RelaxTask right = new RelaxTask(search, frontier, mid, to, light, phase);
+                right.fork();
+                IntList result = new RelaxTask(search, frontier, from, mid, light, phase).compute();
+                IntList rest = right.join();
+                for (int i = 0; i < rest.size(); i++) {
+                    result.add(rest.get(i));
+                }
+                return result;
+            }
+            CsrGraph graph = search.graph;
+            AtomicLongArray state = search.state;
+            int delta = search.delta;
+            int[] offsets = graph.offsets;
+            int[] targets = graph.targets;
+            int[] weights = graph.weights;
+            IntList improved = new IntList();
+            long relaxations = 0;
+            for (int i = from; i < to; i++) {
+                int u = frontier[i];
+                long d = distance(state.get(u));
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int w = weights[e];
+                    if ((w <= delta) != light) {
+                        continue;
+                    }
+                    relaxations++;
+                    long newDist = d + w;
+                    if (newDist >= Integer.MAX_VALUE) {
+                        continue;
+                    }
+                    int v = targets[e];
+                    if (lowerTo(state, v, (int) newDist, u) && search.claimed.getAndSet(v, phase) != phase) {
+                        improved.add(v);
+                    }
+                }
+            }
+            if (GraphMetrics.ENABLED) {
+                search.relaxations.add(relaxations);
+            }
+            return improved;
+        }
+
+        /**
+         * Atomically lowers the distance of {@code v}, recording {@code u} as its predecessor.
+         *
+         * @return True if this call lowered the distance.
+         */
+        private static boolean lowerTo(AtomicLongArray state, int v, int newDist, int u) {
+            long update = pack(newDist, u);
+            long current = state.get(v);
+            while (newDist < distance(current)) {
+                if (state.compareAndSet(v, current, update)) {
+                    return true;
+                }
+                current = state.get(v);
+            }
+            return false;
+        }
+    }
+}
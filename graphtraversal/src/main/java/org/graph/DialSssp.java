@@ -0,0 +1,101 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * Single-source shortest paths with Dial's algorithm for small non-negative integer weights.
+ * <p>
+ * All tentative distances that are still open lie within {@code maxWeight} of the distance being
+ * settled, so a circular array of {@code maxWeight + 1} buckets indexed by {@code distance % (maxWeight + 1)}
+ * holds them without collisions. Buckets are intrusive doubly-linked lists threaded through two
+ * per-vertex arrays, so moving a vertex to a lower bucket is O(1) and nothing is allocated per edge.
+ */
+public class DialSssp {
+    private static final int NONE = -1;
+
+    /**
+     * Computes shortest path distances from a source index.
+     *
+     * @param graph     The graph in CSR form; its weights must be non-negative.
+     * @param source    The index of the starting node.
+     * @param distances Receives the distance of every node, {@code Integer.MAX_VALUE} if unreachable.
+     * @param previous  Receives the previous node index of every node, or -1.
+     */
+    static void run(CsrGraph graph, int source, int[] distances, int[] previous) {
+        int n = graph.nodeCount();
+        int bucketCount = graph.maxWeight() + 1;
+        int[] heads = new int[bucketCount];
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        Arrays.fill(heads, NONE);
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(previous, -1);
+
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("DIAL") : null;
+        distances[source] = 0;
+        link(heads, next, prev, 0, source);
+        int queued = 1;
+        if (GraphMetrics.ENABLED) {
+            counters.push();
+        }
+
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        for (int current = 0; queued > 0; current++) {
+            int bucket = current % bucketCount;
+            // Zero-weight edges may add to the bucket being drained, so keep popping until it is empty.
+            while (heads[bucket] != NONE) {
+                int closest = heads[bucket];
+                unlink(heads, next, prev, bucket, closest);
+                queued--;
+                if (GraphMetrics.ENABLED) {
+                    counters.settle();
+                    counters.relax(offsets[closest + 1] - offsets[closest]);
+                }
+                for (int e = offsets[closest]; e < offsets[closest + 1]; e++) {
+                    int to = targets[e];
+                    int newDist = current + weights[e];
+                    if (newDist < distances[to]) {
+                        boolean reached = distances[to] != Integer.MAX_VALUE;
+                        if (GraphMetrics.ENABLED) {
+                            counters.improve(reached);
+                        }
+                        if (reached) {
+                            unlink(heads, next, prev, distances[to] % bucketCount, to);
+                        } else {
+                            queued++;
+                        }
+                        distances[to] = newDist;
+                        previous[to] = closest;
+                        link(heads, next, prev, newDist % bucketCount, to);
+                    }
+                }
+            }
+        }
+        if (GraphMetrics.ENABLED) {
+            counters.end(graph.id(source), -1);
+        }
+    }
+
+    private static void link(int[] heads, int[] next, int[] prev, int bucket, int vertex) {
+        int head = heads[bucket];
+        next[vertex] = head;
+        prev[vertex] = NONE;
+        if (head != NONE) {
+            prev[head] = vertex;
+        }
+        heads[bucket] = vertex;
+    }
+
+    private static void unlink(int[] heads, int[] next, int[] prev, int bucket, int vertex) {
+        if (prev[vertex] != NONE) {
+            next[prev[vertex]] = next[vertex];
+        } else {
+            heads[bucket] = next[vertex];
+        }
+        if (next[vertex] != NONE) {
+            prev[next[vertex]] = prev[vertex];
+        }
+    }
+}
@@ -1,18 +1,27 @@
 package org.graph;
 
 import java.util.*;
-import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * This class contains methods to compute the shortest paths in a graph using Dijkstra's algorithm.
- * The graph is represented as a map of node integers to a list of edges.
+ * The graph is represented as a map of node integers to a list of edges, or as a {@link CsrGraph}.
+ * <p>
+ * Single-source searches on a {@link CsrGraph} pick their priority structure with an
+ * {@link SsspEngine}, {@link SsspEngine#AUTO} unless one is given: a 0-1 BFS if every weight is 0
+ * or 1, Dial's buckets if the largest weight is at most 256, a radix heap for larger non-negative
+ * weights, and an {@link IndexedMinHeap} if any weight is negative. Map graphs are converted and
+ * searched the same way. Point-to-point searches, which stop at the target, and searches on other
+ * {@link NeighbourGraph}s always use an {@link IndexedMinHeap}, where every improving relaxation is
+ * an O(log n) decrease-key.
  */
 public class Dijkstra {
 
     /**
      * Applies Dijkstra's algorithm to find the shortest path distances from the start node.
+     * <p>
+     * The map is converted to a {@link CsrGraph} on every call, which costs more than the search
+     * itself; callers with more than one query should convert it once with {@link CsrGraph#fromMap(Map)}
+     * and use {@link #dijkstra(CsrGraph, int, int[])}.
      *
      * @param graph    The graph as a map of nodes to edges.
      * @param start    The starting node.
@@ -20,34 +29,232 @@ public class Dijkstra {
      * @return A map of nodes to their shortest path distances from the start node.
      */
     public static Map<Integer, Integer> dijkstra(Map<Integer, List<Edge>> graph, int start, Map<Integer, Integer> previous) {
-        Map<Integer, Integer> distances = graph.keySet().stream()
-                .collect(Collectors.toMap(Function.identity(), node -> Integer.MAX_VALUE));
-        PriorityQueue<Integer> nodes = new PriorityQueue<>(Comparator.comparingInt(distances::get));
+        CsrGraph csr = CsrGraph.fromMap(graph);
+        int[] previousIndexes = new int[csr.nodeCount()];
+        int[] distanceArray = dijkstra(csr, start, previousIndexes);
 
+        Map<Integer, Integer> distances = new HashMap<>(csr.nodeCount() * 4 / 3 + 1);
+        for (int node = 0; node < csr.nodeCount(); node++) {
+            distances.put(csr.id(node), distanceArray[node]);
+            if (previousIndexes[node] >= 0) {
+                previous.put(csr.id(node), csr.id(previousIndexes[node]));
+            }
+        }
         distances.put(start, 0);
-        nodes.add(start);
 
-        Function<Integer, Integer> getMinDistance = (node) -> distances.get(node);
-        BiFunction<Integer, Integer, Integer> updateDistance = (closest, edgeWeight) -> distances.get(closest) + edgeWeight;
+        return distances;
+    }
+
+    /**
+     * Applies Dijkstra's algorithm to a graph in CSR form, picking the priority structure from the
+     * observed weight range as described for {@link SsspEngine#AUTO}.
+     *
+     * @param graph    The graph in CSR form.
+     * @param start    The starting node id.
+     * @param previous An array of length {@code graph.nodeCount()} that receives the index of the
+     *                 previous node on the shortest path to each node, or -1 if there is none.
+     * @return The shortest path distances from the start node, indexed by node index;
+     *         unreachable nodes have distance {@code Integer.MAX_VALUE}.
+     */
+    public static int[] dijkstra(CsrGraph graph, int start, int[] previous) {
+        return dijkstra(graph, start, previous, SsspEngine.AUTO);
+    }
 
+    /**
+     * Computes single-source shortest paths on a graph in CSR form with the given engine.
+     *
+     * @param graph    The graph in CSR form.
+     * @param start    The starting node id.
+     * @param previous An array of length {@code graph.nodeCount()} that receives the index of the
+     *                 previous node on the shortest path to each node, or -1 if there is none.
+     * @param engine   The priority structure to use; {@link SsspEngine#AUTO} picks one from the weights.
+     * @return The shortest path distances from the start node, indexed by node index;
+     *         unreachable nodes have distance {@code Integer.MAX_VALUE}.
+     */
+    public static int[] dijkstra(CsrGraph graph, int start, int[] previous, SsspEngine engine) {
+        int[] distances = new int[graph.nodeCount()];
+        int source = graph.indexOf(start);
+        if (source < 0) {
+            Arrays.fill(distances, Integer.MAX_VALUE);
+            Arrays.fill(previous, -1);
+            return distances;
+        }
+        switch (engine.resolve(graph)) {
+            case DIAL:
+                DialSssp.run(graph, source, distances, previous);
+                break;
+            case RADIX_HEAP:
+                RadixHeapSssp.run(graph, source, distances, previous);
+                break;
+            case DELTA_STEPPING:
+                return DeltaStepping.shortestPaths(graph, start, previous);
+            case ZERO_ONE_BFS:
+                ZeroOneBfs.run(graph, source, distances, previous);
+                break;
+            default:
+                dijkstra(graph, source, distances, previous, new IndexedMinHeap(graph.nodeCount()));
+                break;
+        }
+        return distances;
+    }
+
+    /**
+     * Applies Dijkstra's algorithm to any {@link NeighbourGraph}, e.g. a {@link MappedGraph} that is
+     * read straight from a memory-mapped file or a {@link CompressedGraph}, reading the edges through
+     * its {@link EdgeCursor}. The result is the same as for the {@link CsrGraph} the graph was made from.
+     *
+     * @param graph    The graph.
+     * @param start    The starting node id.
+     * @param previous An array of length {@code graph.nodeCount()} that receives the index of the
+     *                 previous node on the shortest path to each node, or -1 if there is none.
+     * @return The shortest path distances from the start node, indexed by node index;
+     *         unreachable nodes have distance {@code Integer.MAX_VALUE}.
+     */
+    public static int[] dijkstra(NeighbourGraph graph, int start, int[] previous) {
+        int[] distances = new int[graph.nodeCount()];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(previous, -1);
+        int source = graph.indexOf(start);
+        if (source < 0) {
+            return distances;
+        }
+
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("HEAP") : null;
+        IndexedMinHeap nodes = new IndexedMinHeap(graph.nodeCount());
+        EdgeCursor edges = graph.cursor();
+        distances[source] = 0;
+        nodes.insert(source, 0);
+        if (GraphMetrics.ENABLED) {
+            counters.push();
+        }
         while (!nodes.isEmpty()) {
             int closest = nodes.poll();
-            for (Edge edge : graph.getOrDefault(closest, Collections.emptyList())) {
-                int newDist = updateDistance.apply(closest, edge.getWeight());
-                if (newDist < distances.get(edge.getTo())) {
-                    distances.put(edge.getTo(), newDist);
-                    previous.put(edge.getTo(), closest);
-                    nodes.remove(edge.getTo());
-                    nodes.add(edge.getTo());
+            if (GraphMetrics.ENABLED) {
+                counters.settle();
+            }
+            edges.moveTo(closest);
+            while (edges.next()) {
+                int to = edges.target();
+                int newDist = distances[closest] + edges.weight();
+                if (GraphMetrics.ENABLED) {
+                    counters.relax(1);
+                }
+                if (newDist < distances[to]) {
+                    if (GraphMetrics.ENABLED) {
+                        counters.improve(nodes.contains(to));
+                    }
+                    distances[to] = newDist;
+                    previous[to] = closest;
+                    nodes.insertOrDecrease(to, newDist);
                 }
             }
         }
-
+        if (GraphMetrics.ENABLED) {
+            counters.end(start, -1);
+        }
         return distances;
     }
 
+    /**
+     * Runs Dijkstra's algorithm from a source index into caller-provided buffers, so that callers
+     * running many searches can reuse them.
+     *
+     * @param graph     The graph in CSR form.
+     * @param source    The index of the starting node.
+     * @param distances Receives the distance of every node, {@code Integer.MAX_VALUE} if unreachable.
+     * @param previous  Receives the previous node index of every node, or -1.
+     * @param nodes     An empty heap with capacity {@code graph.nodeCount()}; it is empty again on return.
+     */
+    static void dijkstra(CsrGraph graph, int source, int[] distances, int[] previous, IndexedMinHeap nodes) {
+        dijkstra(graph, source, -1, distances, previous, nodes);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from a source index and stops as soon as the target index is settled.
+     * Distances of nodes that were not settled by then are only upper bounds.
+     *
+     * @param graph     The graph in CSR form.
+     * @param source    The index of the starting node.
+     * @param target    The index of the node to stop at, or -1 to settle every reachable node.
+     * @param distances Receives the distance of every settled node.
+     * @param previous  Receives the previous node index of every reached node, or -1.
+     * @param nodes     An empty heap with capacity {@code graph.nodeCount()}; it is empty again on return.
+     */
+    static void dijkstra(CsrGraph graph, int source, int target, int[] distances, int[] previous, IndexedMinHeap nodes) {
+        dijkstra(graph, source, target, distances, previous, nodes, null);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from a source index and also records the order in which nodes are
+     * settled, which is a topological order of the shortest path DAG when all weights are positive.
+     *
+     * @param graph     The graph in CSR form.
+     * @param source    The index of the starting node.
+     * @param target    The index of the node to stop at, or -1 to settle every reachable node.
+     * @param distances Receives the distance of every settled node.
+     * @param previous  Receives the previous node index of every reached node, or -1.
+     * @param nodes     An empty heap with capacity {@code graph.nodeCount()}; it is empty again on return.
+     * @param settled   Receives the settled node indexes in order, or null if not needed.
+     * @return The number of nodes settled, including the target.
+     */
+    static int dijkstra(CsrGraph graph, int source, int target, int[] distances, int[] previous, IndexedMinHeap nodes,
+                        int[] settled) {
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("HEAP") : null;
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(previous, -1);
+
+        distances[source] = 0;
+        nodes.insert(source, 0);
+        if (GraphMetrics.ENABLED) {
+            counters.push();
+        }
+
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        int count = 0;
+        while (!nodes.isEmpty()) {
+            int closest = nodes.poll();
+            if (GraphMetrics.ENABLED) {
+                counters.settle();
+            }
+            if (settled != null) {
+                settled[count] = closest;
+            }
+            count++;
+            if (closest == target) {
+                nodes.clear();
+                break;
+            }
+            if (GraphMetrics.ENABLED) {
+                counters.relax(offsets[closest + 1] - offsets[closest]);
+            }
+            for (int e = offsets[closest]; e < offsets[closest + 1]; e++) {
+                int to = targets[e];
+                int newDist = distances[closest] + weights[e];
+                if (newDist < distances[to]) {
+                    if (GraphMetrics.ENABLED) {
+                        counters.improve(nodes.contains(to));
+                    }
+                    distances[to] = newDist;
+                    previous[to] = closest;
+                    nodes.insertOrDecrease(to, newDist);
+                }
+            }
+        }
+        if (GraphMetrics.ENABLED) {
+            counters.end(graph.id(source), target < 0 ? -1 : graph.id(target));
+        }
+        return count;
+    }
+
     /**
      * Finds the shortest path between the start and end nodes using Dijkstra's algorithm.
+     * <p>
+     * The map is converted to a {@link CsrGraph} on every call, which costs more than the early-exit
+     * search itself; callers with more than one query should convert it once with
+     * {@link CsrGraph#fromMap(Map)} and use {@link #shortestPath(CsrGraph, int, int)}, which allocates
+     * nothing but the path.
      *
      * @param graph The graph as a map of nodes to edges.
      * @param start The starting node.
@@ -55,31 +262,207 @@ public class Dijkstra {
      * @return A list of nodes representing the shortest path from start to end.
      */
     public static List<Integer> shortestPath(Map<Integer, List<Edge>> graph, int start, int end) {
-        Map<Integer, Integer> previous = new HashMap<>();
-        Map<Integer, Integer> distances = dijkstra(graph, start, previous);
+        return shortestPath(CsrGraph.fromMap(graph), start, end);
+    }
 
-        List<Integer> path = Optional.ofNullable(constructPath(previous, end))
-                .orElse(Collections.emptyList());
+    /**
+     * Finds the shortest path between the start and end nodes of a graph in CSR form.
+     *
+     * @param graph The graph in CSR form.
+     * @param start The starting node id.
+     * @param end   The ending node id.
+     * @return A list of node ids representing the shortest path from start to end.
+     */
+    public static List<Integer> shortestPath(CsrGraph graph, int start, int end) {
+        return shortestPath(graph, start, end, SearchContext.forCurrentThread(graph.nodeCount()));
+    }
 
-        if (!path.isEmpty() && path.get(0).equals(start)) {
-            return path;
-        } else {
+    /**
+     * Finds the shortest path between the start and end nodes of a graph in CSR form, searching in the
+     * given context so that repeated queries allocate nothing but the returned path.
+     *
+     * @param graph   The graph in CSR form.
+     * @param start   The starting node id.
+     * @param end     The ending node id.
+     * @param context The buffers to search in; its capacity must be at least {@code graph.nodeCount()}.
+     * @return A list of node ids representing the shortest path from start to end.
+     */
+    public static List<Integer> shortestPath(CsrGraph graph, int start, int end, SearchContext context) {
+        if (context.capacity() < graph.nodeCount()) {
+            throw new IllegalArgumentException("The search context holds " + context.capacity()
+                    + " nodes but the graph has " + graph.nodeCount() + ".");
+        }
+        int source = graph.indexOf(start);
+        int target = graph.indexOf(end);
+        if (source < 0 || target < 0) {
             return Collections.emptyList();
         }
+        dijkstra(graph, source, target, context);
+        if (context.distance(target) == Integer.MAX_VALUE) {
+            return Collections.emptyList();
+        }
+        return constructPath(graph, context.previous, target);
     }
 
     /**
-     * Constructs the shortest path from the previous nodes map.
+     * Runs Dijkstra's algorithm from a source index in a reusable context and stops as soon as the
+     * target index is settled.
      *
-     * @param previous The map of previous nodes.
-     * @param end      The ending node.
-     * @return A list of nodes representing the path from start to end.
+     * @param graph   The graph in CSR form.
+     * @param source  The index of the starting node.
+     * @param target  The index of the node to stop at, or -1 to settle every reachable node.
+     * @param context The buffers to search in; they are reset first.
      */
-    private static List<Integer> constructPath(Map<Integer, Integer> previous, int end) {
-        LinkedList<Integer> path = new LinkedList<>();
-        for (Integer at = end; at != null; at = previous.get(at)) {
-            path.addFirst(at);
+    static void dijkstra(CsrGraph graph, int source, int target, SearchContext context) {
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("HEAP") : null;
+        context.reset();
+        IndexedMinHeap nodes = context.heap;
+        context.reach(source, 0, -1);
+        nodes.insert(source, 0);
+        if (GraphMetrics.ENABLED) {
+            counters.push();
+        }
+
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        while (!nodes.isEmpty()) {
+            int closest = nodes.poll();
+            if (GraphMetrics.ENABLED) {
+                counters.settle();
+            }
+            if (closest == target) {
+                nodes.clear();
+                break;
+            }
+            if (GraphMetrics.ENABLED) {
+                counters.relax(offsets[closest + 1] - offsets[closest]);
+            }
+            int distance = context.distance(closest);
+            for (int e = offsets[closest]; e < offsets[closest + 1]; e++) {
+                int to = targets[e];
+                int newDist = distance + weights[e];
+                if (newDist < context.distance(to)) {
+                    if (GraphMetrics.ENABLED) {
+                        counters.improve(nodes.contains(to));
+                    }
+                    context.reach(to, newDist, closest);
+                    nodes.insertOrDecrease(to, newDist);
+                }
+            }
+        }
+        if (GraphMetrics.ENABLED) {
+            counters.end(graph.id(source), target < 0 ? -1 : graph.id(target));
+        }
+    }
+
+    /**
+     * Finds the shortest path between the start and end nodes with a bidirectional search: a forward
+     * search from the start on the graph and a backward search from the end on its
+     * {@link CsrGraph#reverse() reverse graph} run in turns, always advancing the one with the smaller
+     * queue, until the smallest keys of both queues add up to at least the best path seen so far.
+     *
+     * @param graph The graph in CSR form.
+     * @param start The starting node id.
+     * @param end   The ending node id.
+     * @return A list of node ids representing the shortest path from start to end.
+     */
+    public static List<Integer> bidirectionalShortestPath(CsrGraph graph, int start, int end) {
+        int source = graph.indexOf(start);
+        int target = graph.indexOf(end);
+        if (source < 0 || target < 0) {
+            return Collections.emptyList();
+        }
+        if (source == target) {
+            return Collections.singletonList(start);
+        }
+        CsrGraph reverse = graph.reverse();
+        int n = graph.nodeCount();
+        int[] forwardDistances = new int[n];
+        int[] backwardDistances = new int[n];
+        int[] forwardPrevious = new int[n];
+        int[] backwardPrevious = new int[n];
+        Arrays.fill(forwardDistances, Integer.MAX_VALUE);
+        Arrays.fill(backwardDistances, Integer.MAX_VALUE);
+        Arrays.fill(forwardPrevious, -1);
+        Arrays.fill(backwardPrevious, -1);
+        IndexedMinHeap forwardNodes = new IndexedMinHeap(n);
+        IndexedMinHeap backwardNodes = new IndexedMinHeap(n);
+
+        forwardDistances[source] = 0;
+        backwardDistances[target] = 0;
+        forwardNodes.insert(source, 0);
+        backwardNodes.insert(target, 0);
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("BIDIRECTIONAL") : null;
+        if (GraphMetrics.ENABLED) {
+            counters.push();
+            counters.push();
+        }
+
+        long best = Long.MAX_VALUE;
+        int meeting = -1;
+        while (!forwardNodes.isEmpty() && !backwardNodes.isEmpty()
+                && (long) forwardNodes.minKey() + backwardNodes.minKey() < best) {
+            boolean forward = forwardNodes.size() <= backwardNodes.size();
+            CsrGraph side = forward ? graph : reverse;
+            IndexedMinHeap nodes = forward ? forwardNodes : backwardNodes;
+            int[] distances = forward ? forwardDistances : backwardDistances;
+            int[] previous = forward ? forwardPrevious : backwardPrevious;
+            int[] otherDistances = forward ? backwardDistances : forwardDistances;
+
+            int closest = nodes.poll();
+            if (GraphMetrics.ENABLED) {
+                counters.settle();
+                counters.relax(side.offsets[closest + 1] - side.offsets[closest]);
+            }
+            for (int e = side.offsets[closest]; e < side.offsets[closest + 1]; e++) {
+                int to = side.targets[e];
+                int newDist = distances[closest] + side.weights[e];
+                if (newDist < distances[to]) {
+                    if (GraphMetrics.ENABLED) {
+                        counters.improve(nodes.contains(to));
+                    }
+                    distances[to] = newDist;
+                    previous[to] = closest;
+                    nodes.insertOrDecrease(to, newDist);
+                }
+                if (otherDistances[to] != Integer.MAX_VALUE && (long) newDist + otherDistances[to] < best) {
+                    best = (long) newDist + otherDistances[to];
+                    meeting = to;
+                }
+            }
+        }
+        if (GraphMetrics.ENABLED) {
+            counters.end(start, end);
+        }
+        if (meeting < 0) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> path = new ArrayList<>(constructPath(graph, forwardPrevious, meeting));
+        for (int at = backwardPrevious[meeting]; at >= 0; at = backwardPrevious[at]) {
+            path.add(graph.id(at));
         }
         return path;
     }
+
+    /**
+     * Constructs the shortest path from an array of previous node indexes.
+     *
+     * @param graph    The graph the indexes refer to.
+     * @param previous The previous node index of every node, or -1.
+     * @param end      The index of the ending node.
+     * @return A list of node ids representing the path from start to end.
+     */
+    static List<Integer> constructPath(CsrGraph graph, int[] previous, int end) {
+        int length = 0;
+        for (int at = end; at >= 0; at = previous[at]) {
+            length++;
+        }
+        Integer[] path = new Integer[length];
+        for (int at = end; at >= 0; at = previous[at]) {
+            path[--length] = graph.id(at);
+        }
+        return Arrays.asList(path);
+    }
 }
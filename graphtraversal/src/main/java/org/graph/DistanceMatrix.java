@@ -0,0 +1,73 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * The shortest path distances between all pairs of vertices of a graph, stored row by row in one flat
+ * array: the distance from the node with index {@code u} to the node with index {@code v} is at
+ * {@code u * n + v}. Unreachable pairs have distance {@code Integer.MAX_VALUE}.
+ */
+public final class DistanceMatrix {
+    private final CsrGraph graph;
+    private final int[] distances;
+
+    DistanceMatrix(CsrGraph graph, int[] distances) {
+        this.graph = graph;
+        this.distances = distances;
+    }
+
+    /**
+     * @param from The source vertex id.
+     * @param to   The target vertex id.
+     * @return The distance from the source to the target, {@code Integer.MAX_VALUE} if unreachable.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public int distance(int from, int to) {
+        return distances[index(from) * graph.nodeCount() + index(to)];
+    }
+
+    /**
+     * @param vertex The vertex id.
+     * @return The distances from the vertex to every node, indexed by node index.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public int[] row(int vertex) {
+        int n = graph.nodeCount();
+        int start = index(vertex) * n;
+        return Arrays.copyOfRange(distances, start, start + n);
+    }
+
+    /**
+     * @return A copy of the whole matrix, row by row.
+     */
+    public int[] toArray() {
+        return distances.clone();
+    }
+
+    /**
+     * @return The eccentricity of every vertex, the largest finite distance in its row, together with
+     *         the radius, diameter, center and periphery derived from them.
+     */
+    public EccentricityResult eccentricities() {
+        int n = graph.nodeCount();
+        int[] eccentricities = new int[n];
+        for (int u = 0; u < n; u++) {
+            int max = 0;
+            for (int i = u * n, end = i + n; i < end; i++) {
+                if (distances[i] != Integer.MAX_VALUE && distances[i] > max) {
+                    max = distances[i];
+                }
+            }
+            eccentricities[u] = max;
+        }
+        return new EccentricityResult(graph, eccentricities);
+    }
+
+    private int index(int vertex) {
+        int index = graph.indexOf(vertex);
+        if (index < 0) {
+            throw new IllegalArgumentException("Vertex " + vertex + " is not in the graph.");
+        }
+        return index;
+    }
+}
@@ -0,0 +1,295 @@
+package org.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A directed graph whose edges can be inserted, deleted and reweighted, with shortest path trees that
+ * are repaired after every update instead of being recomputed.
+ * <p>
+ * The vertex set is fixed when the graph is created from a {@link CsrGraph}; vertices keep the same
+ * indexes. Every vertex has primitive lists of its outgoing and incoming edges, since repairing a tree
+ * after an edge gets longer needs to look at the edges entering a vertex. At most one edge connects an
+ * ordered pair of vertices, and weights must not be negative.
+ * <p>
+ * Trees created with {@link #track(int)} follow every update, see {@link DynamicShortestPathTree}.
+ * The graph is not thread-safe.
+ */
+public final class DynamicGraph {
+    private final CsrGraph vertices;
+    private final IntList[] outTargets;
+    private final IntList[] outWeights;
+    private final IntList[] inSources;
+    private final IntList[] inWeights;
+    private final List<DynamicShortestPathTree> trees = new ArrayList<>();
+    private int edgeCount;
+    private long version;
+
+    private DynamicGraph(CsrGraph graph) {
+        int n = graph.nodeCount();
+        // An edgeless copy is enough to translate between ids and indexes.
+        this.vertices = new CsrGraph(graph.ids, new int[n + 1], new int[0], new int[0]);
+        outTargets = new IntList[n];
+        outWeights = new IntList[n];
+        inSources = new IntList[n];
+        inWeights = new IntList[n];
+        for (int v = 0; v < n; v++) {
+            outTargets[v] = new IntList(Math.max(graph.degree(v), 1));
+            outWeights[v] = new IntList(Math.max(graph.degree(v), 1));
+            inSources[v] = new IntList(4);
+            inWeights[v] = new IntList(4);
+        }
+        for (int v = 0; v < n; v++) {
+            for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                checkWeight(graph.weight(e));
+                link(v, graph.target(e), graph.weight(e));
+            }
+        }
+    }
+
+    /**
+     * Creates a mutable copy of a graph.
+     *
+     * @param graph The graph in CSR form; its weights must not be negative.
+     * @return The mutable graph.
+     */
+    public static DynamicGraph from(CsrGraph graph) {
+        return new DynamicGraph(graph);
+    }
+
+    /**
+     * @return The number of vertices in the graph.
+     */
+    public int nodeCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * @return The number of edges in the graph.
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return The number of updates applied so far.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @param from The source vertex id.
+     * @param to   The destination vertex id.
+     * @return The weight of the edge, or -1 if there is no such edge.
+     */
+    public int weight(int from, int to) {
+        int u = index(from);
+        int position = find(u, index(to));
+        return position < 0 ? -1 : outWeights[u].get(position);
+    }
+
+    /**
+     * Inserts an edge and repairs the tracked trees.
+     *
+     * @param from   The source vertex id.
+     * @param to     The destination vertex id.
+     * @param weight The edge weight.
+     * @throws IllegalArgumentException if a vertex is unknown, the edge already exists or the weight is negative.
+     */
+    public void insertEdge(int from, int to, int weight) {
+        int u = index(from);
+        int v = index(to);
+        checkWeight(weight);
+        if (find(u, v) >= 0) {
+            throw new IllegalArgumentException("The edge " + from + " -> " + to + " already exists.");
+        }
+        link(u, v, weight);
+        version++;
+        for (DynamicShortestPathTree tree : trees) {
+            tree.edgeShortened(u, v, weight);
+        }
+    }
+
+    /**
+     * Deletes an edge and repairs the tracked trees.
+     *
+     * @param from The source vertex id.
+     * @param to   The destination vertex id.
+     * @throws IllegalArgumentException if a vertex or the edge is unknown.
+     */
+    public void deleteEdge(int from, int to) {
+        int u = index(from);
+        int v = index(to);
+        int position = existing(u, v, from, to);
+        removeAt(outTargets[u], outWeights[u], position);
+        removeAt(inSources[v], inWeights[v], findIncoming(v, u));
+        edgeCount--;
+        version++;
+        for (DynamicShortestPathTree tree : trees) {
+            tree.edgeLengthened(u, v);
+        }
+    }
+
+    /**
+     * Changes the weight of an edge and repairs the tracked trees.
+     *
+     * @param from   The source vertex id.
+     * @param to     The destination vertex id.
+     * @param weight The new edge weight.
+     * @throws IllegalArgumentException if a vertex or the edge is unknown, or the weight is negative.
+     */
+    public void changeWeight(int from, int to, int weight) {
+        int u = index(from);
+        int v = index(to);
+        checkWeight(weight);
+        int position = existing(u, v, from, to);
+        int old = outWeights[u].get(position);
+        outWeights[u].set(position, weight);
+        inWeights[v].set(findIncoming(v, u), weight);
+        version++;
+        for (DynamicShortestPathTree tree : trees) {
+            if (weight < old) {
+                tree.edgeShortened(u, v, weight);
+            } else if (weight > old) {
+                tree.edgeLengthened(u, v);
+            }
+        }
+    }
+
+    /**
+     * Computes the shortest path tree of a source and keeps it up to date with every later update.
+     *
+     * @param source The source vertex id.
+     * @return The tree, which changes as the graph does.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public DynamicShortestPathTree track(int source) {
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(this, index(source));
+        trees.add(tree);
+        return tree;
+    }
+
+    /**
+     * Stops keeping a tree up to date.
+     *
+     * @param tree A tree returned by {@link #track(int)}.
+     */
+    public void untrack(DynamicShortestPathTree tree) {
+        trees.remove(tree);
+    }
+
+    /**
+     * Copies the current graph into CSR form, with the same ids at the same vertex indexes, also for
+     * a graph relabelled by {@link GraphReordering}. Every row is sorted by target index.
+     *
+     * @return The graph in CSR form.
+     */
+    public CsrGraph toCsrGraph() {
+        int n = nodeCount();
+        int[] offsets = new int[n + 1];
+        int widest = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + outTargets[v].size();
+            widest = Math.max(widest, outTargets[v].size());
+        }
+        int[] targets = new int[edgeCount];
+        int[] weights = new int[edgeCount];
+        long[] row = new long[widest];
+        for (int v = 0; v < n; v++) {
+            int degree = outTargets[v].size();
+            for (int i = 0; i < degree; i++) {
+                row[i] = ((long) outTargets[v].get(i) << 32) | (outWeights[v].get(i) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(row, 0, degree);
+            for (int i = 0; i < degree; i++) {
+                targets[offsets[v] + i] = (int) (row[i] >>> 32);
+                weights[offsets[v] + i] = (int) row[i];
+            }
+        }
+        return new CsrGraph(vertices.ids, offsets, targets, weights);
+    }
+
+    int id(int index) {
+        return vertices.id(index);
+    }
+
+    int indexOf(int id) {
+        return vertices.indexOf(id);
+    }
+
+    IntList outTargets(int v) {
+        return outTargets[v];
+    }
+
+    IntList outWeights(int v) {
+        return outWeights[v];
+    }
+
+    IntList inSources(int v) {
+        return inSources[v];
+    }
+
+    IntList inWeights(int v) {
+        return inWeights[v];
+    }
+
+    private int index(int id) {
+        int index = vertices.indexOf(id);
+        if (index < 0) {
+            throw new IllegalArgumentException("Vertex " + id + " is not in the graph.");
+        }
+        return index;
+    }
+
+    private int existing(int u, int v, int from, int to) {
+        int position = find(u, v);
+        if (position < 0) {
+            throw new IllegalArgumentException("The edge " + from + " -> " + to + " does not exist.");
+        }
+        return position;
+    }
+
+    private int find(int u, int v) {
+        IntList targets = outTargets[u];
+        for (int i = 0; i < targets.size(); i++) {
+            if (targets.get(i) == v) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int findIncoming(int v, int u) {
+        IntList sources = inSources[v];
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i) == u) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("The incoming edges of " + id(v) + " are out of sync.");
+    }
+
+    private void link(int u, int v, int weight) {
+        outTargets[u].add(v);
+        outWeights[u].add(weight);
+        inSources[v].add(u);
+        inWeights[v].add(weight);
+        edgeCount++;
+    }
+
+    private static void removeAt(IntList values, IntList weights, int position) {
+        int last = values.size() - 1;
+        values.set(position, values.get(last));
+        weights.set(position, weights.get(last));
+        values.removeLast();
+        weights.removeLast();
+    }
+
+    private static void checkWeight(int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Edge weights must not be negative but got " + weight + ".");
+        }
+    }
+}
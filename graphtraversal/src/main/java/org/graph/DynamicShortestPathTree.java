@@ -0,0 +1,198 @@
+package org.graph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A shortest path tree of a {@link DynamicGraph} that is repaired after every edge update, touching
+ * only the vertices whose distance may change, in the style of Ramalingam and Reps.
+ * <p>
+ * When an edge {@code u -> v} gets shorter or is inserted and now improves {@code v}, a Dijkstra search
+ * seeded with {@code v} alone propagates the improvement and stops at vertices it does not improve.
+ * When a tree edge gets longer or is deleted, only the subtree below it can get longer: its distances
+ * are reset, every subtree vertex is seeded with its best incoming edge from outside the subtree, and a
+ * Dijkstra search restricted to the subtree settles them again. Updates to edges outside the tree
+ * change nothing. The eccentricity of the source is recomputed lazily, only after a repair that could
+ * have changed it.
+ */
+public final class DynamicShortestPathTree {
+    private final DynamicGraph graph;
+    private final int source;
+    private final int[] distances;
+    private final int[] previous;
+    private final IndexedMinHeap heap;
+    // Marks the subtree being repaired; reset after each repair.
+    private final boolean[] affected;
+    private final IntList subtree = new IntList();
+    private int eccentricity = -1;
+    private int lastRepairSize;
+
+    DynamicShortestPathTree(DynamicGraph graph, int source) {
+        int n = graph.nodeCount();
+        this.graph = graph;
+        this.source = source;
+        this.distances = new int[n];
+        this.previous = new int[n];
+        this.heap = new IndexedMinHeap(n);
+        this.affected = new boolean[n];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(previous, -1);
+        distances[source] = 0;
+        heap.insert(source, 0);
+        propagate(false);
+    }
+
+    /**
+     * @return The source vertex id.
+     */
+    public int source() {
+        return graph.id(source);
+    }
+
+    /**
+     * @param target The target vertex id.
+     * @return The current distance from the source to the target, {@code Integer.MAX_VALUE} if unreachable.
+     */
+    public int distance(int target) {
+        int index = graph.indexOf(target);
+        return index < 0 ? Integer.MAX_VALUE : distances[index];
+    }
+
+    /**
+     * @param target The target vertex id.
+     * @return The vertex ids of a current shortest path from the source to the target, or an empty
+     *         list if there is none.
+     */
+    public List<Integer> path(int target) {
+        int index = graph.indexOf(target);
+        if (index < 0 || distances[index] == Integer.MAX_VALUE) {
+            return Collections.emptyList();
+        }
+        int length = 0;
+        for (int at = index; at >= 0; at = previous[at]) {
+            length++;
+        }
+        Integer[] path = new Integer[length];
+        for (int at = index; at >= 0; at = previous[at]) {
+            path[--length] = graph.id(at);
+        }
+        return Arrays.asList(path);
+    }
+
+    /**
+     * @return The current eccentricity of the source, as in {@link GraphProperties#eccentricity(CsrGraph, int)}.
+     */
+    public int eccentricity() {
+        if (eccentricity < 0) {
+            eccentricity = GraphProperties.maxFinite(distances);
+        }
+        return eccentricity;
+    }
+
+    /**
+     * @return The number of vertices whose distance the last update recomputed, for monitoring.
+     */
+    public int lastRepairSize() {
+        return lastRepairSize;
+    }
+
+    /**
+     * Repairs the tree after the edge {@code u -> v} was inserted or its weight lowered.
+     */
+    void edgeShortened(int u, int v, int weight) {
+        lastRepairSize = 0;
+        if (distances[u] == Integer.MAX_VALUE || distances[u] + weight >= distances[v]) {
+            return;
+        }
+        distances[v] = distances[u] + weight;
+        previous[v] = u;
+        heap.insert(v, distances[v]);
+        propagate(false);
+        eccentricity = -1;
+    }
+
+    /**
+     * Repairs the tree after the edge {@code u -> v} was deleted or its weight raised.
+     */
+    void edgeLengthened(int u, int v) {
+        lastRepairSize = 0;
+        if (previous[v] != u) {
+            return;
+        }
+        collectSubtree(v);
+        for (int i = 0; i < subtree.size(); i++) {
+            int y = subtree.get(i);
+            distances[y] = Integer.MAX_VALUE;
+            previous[y] = -1;
+        }
+        // Seed each subtree vertex with its best edge from a vertex whose distance is still valid.
+        for (int i = 0; i < subtree.size(); i++) {
+            int y = subtree.get(i);
+            IntList sources = graph.inSources(y);
+            IntList weights = graph.inWeights(y);
+            for (int k = 0; k < sources.size(); k++) {
+                int x = sources.get(k);
+                if (!affected[x] && distances[x] != Integer.MAX_VALUE && distances[x] + weights.get(k) < distances[y]) {
+                    distances[y] = distances[x] + weights.get(k);
+                    previous[y] = x;
+                }
+            }
+            if (distances[y] != Integer.MAX_VALUE) {
+                heap.insert(y, distances[y]);
+            }
+        }
+        propagate(true);
+        for (int i = 0; i < subtree.size(); i++) {
+            affected[subtree.get(i)] = false;
+        }
+        lastRepairSize = subtree.size();
+        subtree.clear();
+        eccentricity = -1;
+    }
+
+    /**
+     * Marks and collects the vertices whose tree path runs through {@code root}.
+     */
+    private void collectSubtree(int root) {
+        subtree.add(root);
+        affected[root] = true;
+        for (int i = 0; i < subtree.size(); i++) {
+            int x = subtree.get(i);
+            IntList targets = graph.outTargets(x);
+            for (int k = 0; k < targets.size(); k++) {
+                int y = targets.get(k);
+                if (previous[y] == x && !affected[y]) {
+                    affected[y] = true;
+                    subtree.add(y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the vertices in the heap, optionally only into affected vertices.
+     */
+    private void propagate(boolean withinAffected) {
+        while (!heap.isEmpty()) {
+            int x = heap.poll();
+            if (!withinAffected) {
+                lastRepairSize++;
+            }
+            IntList targets = graph.outTargets(x);
+            IntList weights = graph.outWeights(x);
+            for (int k = 0; k < targets.size(); k++) {
+                int y = targets.get(k);
+                if (withinAffected && !affected[y]) {
+                    continue;
+                }
+                int newDist = distances[x] + weights.get(k);
+                if (newDist < distances[y]) {
+                    distances[y] = newDist;
+                    previous[y] = x;
+                    heap.insertOrDecrease(y, newDist);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.graph;
+
+/**
+ * Lower and upper bounds on the radius and diameter of a graph, as computed by
+ * {@link BoundedEccentricity}. When the bounds are {@link #isExact() exact} both ends are equal.
+ */
+public final class EccentricityBounds {
+    private final int radiusLower;
+    private final int radiusUpper;
+    private final int diameterLower;
+    private final int diameterUpper;
+    private final int sources;
+
+    EccentricityBounds(int radiusLower, int radiusUpper, int diameterLower, int diameterUpper, int sources) {
+        this.radiusLower = radiusLower;
+        this.radiusUpper = radiusUpper;
+        this.diameterLower = diameterLower;
+        this.diameterUpper = diameterUpper;
+        this.sources = sources;
+    }
+
+    /**
+     * @return A lower bound on the radius.
+     */
+    public int radiusLower() {
+        return radiusLower;
+    }
+
+    /**
+     * @return An upper bound on the radius; it is the eccentricity of a vertex that was searched.
+     */
+    public int radiusUpper() {
+        return radiusUpper;
+    }
+
+    /**
+     * @return A lower bound on the diameter; it is the eccentricity of a vertex that was searched.
+     */
+    public int diameterLower() {
+        return diameterLower;
+    }
+
+    /**
+     * @return An upper bound on the diameter, {@code Integer.MAX_VALUE} if nothing bounds it yet.
+     */
+    public int diameterUpper() {
+        return diameterUpper;
+    }
+
+    /**
+     * @return The number of source vertices whose eccentricity was computed.
+     */
+    public int sources() {
+        return sources;
+    }
+
+    /**
+     * @return True if both the radius and the diameter are known exactly.
+     */
+    public boolean isExact() {
+        return radiusLower == radiusUpper && diameterLower == diameterUpper;
+    }
+
+    @Override
+    public String toString() {
+        return "radius in [" + radiusLower + ", " + radiusUpper + "], diameter in [" + diameterLower + ", "
+                + diameterUpper + "] after " + sources + " sources";
+    }
+}
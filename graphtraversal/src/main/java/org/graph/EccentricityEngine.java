@@ -0,0 +1,75 @@
+package org.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the eccentricity of every vertex in one pass, running the single-source searches in
+ * parallel on a fork-join pool. Each leaf task owns its distance, predecessor and heap buffers and
+ * reuses them for all of its sources, so the searches share no mutable state.
+ */
+public class EccentricityEngine {
+
+    /**
+     * Computes all eccentricities on the common fork-join pool.
+     *
+     * @param graph The graph in CSR form.
+     * @return The eccentricities with the radius, diameter, center and periphery derived from them.
+     */
+    public static EccentricityResult compute(CsrGraph graph) {
+        return compute(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes all eccentricities on the given fork-join pool.
+     *
+     * @param graph The graph in CSR form.
+     * @param pool  The pool to run the searches on.
+     * @return The eccentricities with the radius, diameter, center and periphery derived from them.
+     */
+    public static EccentricityResult compute(CsrGraph graph, ForkJoinPool pool) {
+        PhaseEvent event = GraphMetrics.ENABLED ? GraphMetrics.beginPhase(GraphMetrics.Phase.PROPERTIES) : null;
+        int[] eccentricities = new int[graph.nodeCount()];
+        // Several leaves per worker so that uneven search costs still balance out.
+        int threshold = Math.max(1, graph.nodeCount() / (pool.getParallelism() * 8));
+        pool.invoke(new EccentricityTask(graph, eccentricities, 0, graph.nodeCount(), threshold));
+        if (GraphMetrics.ENABLED) {
+            GraphMetrics.endPhase(event, GraphMetrics.Phase.PROPERTIES, graph.nodeCount());
+        }
+        return new EccentricityResult(graph, eccentricities);
+    }
+
+    private static final class EccentricityTask extends RecursiveAction {
+        private final CsrGraph graph;
+        private final int[] eccentricities;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        EccentricityTask(CsrGraph graph, int[] eccentricities, int from, int to, int threshold) {
+            this.graph = graph;
+            this.eccentricities = eccentricities;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new EccentricityTask(graph, eccentricities, from, mid, threshold),
+                        new EccentricityTask(graph, eccentricities, mid, to, threshold));
+                return;
+            }
+            int n = graph.nodeCount();
+            int[] distances = new int[n];
+            int[] previous = new int[n];
+            IndexedMinHeap heap = new IndexedMinHeap(n);
+            for (int source = from; source < to; source++) {
+                Dijkstra.dijkstra(graph, source, distances, previous, heap);
+                eccentricities[source] = GraphProperties.maxFinite(distances);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The eccentricity of every vertex of a graph, together with the radius, diameter, center and
+ * periphery derived from them. Like {@link GraphProperties}, vertices whose eccentricity is 0
+ * (vertices that reach no other vertex) are ignored for the radius and diameter.
+ */
+public final class EccentricityResult {
+    private final CsrGraph graph;
+    private final int[] eccentricities;
+    private final int radius;
+    private final int diameter;
+
+    EccentricityResult(CsrGraph graph, int[] eccentricities) {
+        this.graph = graph;
+        this.eccentricities = eccentricities;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int e : eccentricities) {
+            if (e != 0 && e != Integer.MAX_VALUE) {
+                min = Math.min(min, e);
+                max = Math.max(max, e);
+            }
+        }
+        this.radius = min == Integer.MAX_VALUE ? 0 : min;
+        this.diameter = max;
+    }
+
+    /**
+     * @param vertex The vertex id.
+     * @return The eccentricity of the vertex.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public int eccentricity(int vertex) {
+        int index = graph.indexOf(vertex);
+        if (index < 0) {
+            throw new IllegalArgumentException("Vertex " + vertex + " is not in the graph.");
+        }
+        return eccentricities[index];
+    }
+
+    /**
+     * @return The radius of the graph.
+     */
+    public int radius() {
+        return radius;
+    }
+
+    /**
+     * @return The diameter of the graph.
+     */
+    public int diameter() {
+        return diameter;
+    }
+
+    /**
+     * @return The ids of the vertices whose eccentricity equals the radius, in ascending order.
+     */
+    public List<Integer> center() {
+        return verticesWithEccentricity(radius);
+    }
+
+    /**
+     * @return The ids of the vertices whose eccentricity equals the diameter, in ascending order.
+     */
+    public List<Integer> periphery() {
+        return verticesWithEccentricity(diameter);
+    }
+
+    private List<Integer> verticesWithEccentricity(int value) {
+        if (value == 0) {
+            return Collections.emptyList();
+        }
+        List<Integer> vertices = new ArrayList<>();
+        for (int v = 0; v < eccentricities.length; v++) {
+            if (eccentricities[v] == value) {
+                vertices.add(graph.id(v));
+            }
+        }
+        // Indexes of a relabelled graph no longer follow the ids.
+        Collections.sort(vertices);
+        return Collections.unmodifiableList(vertices);
+    }
+}
@@ -0,0 +1,34 @@
+package org.graph;
+
+/**
+ * Walks the outgoing edges of one vertex at a time, in ascending order of target index. A cursor
+ * keeps the decoding state of a {@link NeighbourGraph}, so a search takes one with
+ * {@link NeighbourGraph#cursor()} and moves it from vertex to vertex without allocating. Cursors
+ * must not be shared between threads.
+ */
+public interface EdgeCursor {
+
+    /**
+     * Positions the cursor before the first outgoing edge of a vertex.
+     *
+     * @param index The vertex index.
+     */
+    void moveTo(int index);
+
+    /**
+     * Advances to the next outgoing edge.
+     *
+     * @return False if the vertex has no more edges.
+     */
+    boolean next();
+
+    /**
+     * @return The index of the destination vertex of the current edge.
+     */
+    int target();
+
+    /**
+     * @return The weight of the current edge.
+     */
+    int weight();
+}
@@ -0,0 +1,222 @@
+package org.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * All-pairs shortest paths with a cache-blocked Floyd-Warshall over one flat {@code int[]} matrix,
+ * which beats one Dijkstra search per vertex on small, dense graphs.
+ * <p>
+ * The matrix is cut into square tiles of {@value #TILE} by {@value #TILE} distances that fit in the L1
+ * cache. For every diagonal tile {@code k}, the tile itself is closed first, then the other tiles of
+ * row and column {@code k}, which only depend on it, and then every remaining tile, which only depends
+ * on its row and column tile in {@code k}. The tiles of the last two phases are independent and run in
+ * parallel on a fork-join pool. The innermost min-plus loop runs over contiguous ints; when the
+ * {@code jdk.incubator.vector} module is present, e.g. with {@code --add-modules jdk.incubator.vector}
+ * on JDK 16 or later, it uses the Vector API (see {@code VectorMinPlus}), and plain scalar code
+ * otherwise. Setting {@code -Dgraph.vector=false} forces the scalar loop.
+ * <p>
+ * Distances are computed in ints with {@code Integer.MAX_VALUE / 2} as infinity, so that adding two
+ * of them cannot overflow; {@link #fits(CsrGraph)} tells whether the longest possible path of a graph
+ * stays below it.
+ */
+public class FloydWarshall {
+    static final int TILE = 64;
+    /**
+     * The largest graph {@link #preferred(CsrGraph)} accepts; its matrix takes 64 MiB.
+     */
+    static final int MAX_PREFERRED_NODES = 4096;
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+    /**
+     * The Vector API min-plus loop, or null to use the scalar one; decided once when the class is loaded.
+     */
+    private static final RowKernel VECTOR_KERNEL = vectorKernel();
+    static final boolean VECTORIZED = VECTOR_KERNEL != null;
+
+    /**
+     * Computes the distance matrix on the common fork-join pool.
+     *
+     * @param graph The graph in CSR form; its weights must be non-negative.
+     * @return The distances between all pairs of vertices.
+     * @throws IllegalArgumentException if a weight is negative or paths may be too long, see {@link #fits(CsrGraph)}.
+     */
+    public static DistanceMatrix distances(CsrGraph graph) {
+        return distances(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the distance matrix, running independent tiles in parallel on the given pool.
+     *
+     * @param graph The graph in CSR form; its weights must be non-negative.
+     * @param pool  The pool to run the tiles on.
+     * @return The distances between all pairs of vertices.
+     * @throws IllegalArgumentException if a weight is negative or paths may be too long, see {@link #fits(CsrGraph)}.
+     */
+    public static DistanceMatrix distances(CsrGraph graph, ForkJoinPool pool) {
+        if (graph.minWeight() < 0) {
+            throw new IllegalArgumentException("Floyd-Warshall here requires non-negative edge weights.");
+        }
+        if (!fits(graph)) {
+            throw new IllegalArgumentException("Paths of up to " + (graph.nodeCount() - 1) + " edges of weight "
+                    + graph.maxWeight() + " may not fit in the distance matrix.");
+        }
+        PhaseEvent event = GraphMetrics.ENABLED ? GraphMetrics.beginPhase(GraphMetrics.Phase.PROPERTIES) : null;
+        int n = graph.nodeCount();
+        int[] d = new int[n * n];
+        Arrays.fill(d, INFINITY);
+        for (int u = 0; u < n; u++) {
+            d[u * n + u] = 0;
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int cell = u * n + graph.target(e);
+                d[cell] = Math.min(d[cell], graph.weight(e));
+            }
+        }
+
+        int tiles = (n + TILE - 1) / TILE;
+        for (int k = 0; k < tiles; k++) {
+            relax(d, n, k, k, k);
+            // Row and column k: 2 * (tiles - 1) tiles that read the diagonal tile.
+            pool.invoke(new TileTask(d, n, k, tiles, 0, 2 * tiles, true));
+            // Everything else: (tiles - 1)^2 tiles that read row and column k.
+            pool.invoke(new TileTask(d, n, k, tiles, 0, tiles * tiles, false));
+        }
+
+        for (int i = 0; i < d.length; i++) {
+            if (d[i] >= INFINITY) {
+                d[i] = Integer.MAX_VALUE;
+            }
+        }
+        if (GraphMetrics.ENABLED) {
+            GraphMetrics.endPhase(event, GraphMetrics.Phase.PROPERTIES, n);
+        }
+        return new DistanceMatrix(graph, d);
+    }
+
+    /**
+     * @param graph The graph in CSR form.
+     * @return True if no simple path can be as long as the value used for infinity, so that the
+     *         graph's distances can be computed with {@link #distances(CsrGraph)}.
+     */
+    public static boolean fits(CsrGraph graph) {
+        return (long) Math.max(graph.maxWeight(), 0) * Math.max(graph.nodeCount() - 1, 0) < INFINITY
+                && (long) graph.nodeCount() * graph.nodeCount() <= Integer.MAX_VALUE - 8;
+    }
+
+    /**
+     * Tells whether Floyd-Warshall should beat one Dijkstra search per vertex. Its n^3 min-plus steps
+     * cost a small fraction of a heap operation each, so it wins once the graph is dense enough: from
+     * about n^2 / 16 edges with the Vector API and n^2 / 2 edges with the scalar loop. Graphs with more
+     * than {@value #MAX_PREFERRED_NODES} nodes are never preferred, because of the size of the matrix.
+     *
+     * @param graph The graph in CSR form.
+     * @return True if {@link #distances(CsrGraph)} is the faster way to all eccentricities.
+     */
+    public static boolean preferred(CsrGraph graph) {
+        long n = graph.nodeCount();
+        long edges = graph.edgeCount();
+        return n > 0 && n <= MAX_PREFERRED_NODES
+                && (VECTORIZED ? edges * 16 >= n * n : edges * 2 >= n * n)
+                && graph.minWeight() >= 0 && fits(graph);
+    }
+
+    /**
+     * Relaxes tile (ti, tj) through the intermediate vertices of tile tk, in the order of Floyd-Warshall
+     * so that the tiles may overlap.
+     */
+    private static void relax(int[] d, int n, int ti, int tj, int tk) {
+        int iEnd = Math.min(n, (ti + 1) * TILE);
+        int jStart = tj * TILE;
+        int jEnd = Math.min(n, jStart + TILE);
+        int kEnd = Math.min(n, (tk + 1) * TILE);
+        for (int k = tk * TILE; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = ti * TILE; i < iEnd; i++) {
+                int iRow = i * n;
+                int viaK = d[iRow + k];
+                if (viaK >= INFINITY) {
+                    continue;
+                }
+                if (VECTOR_KERNEL != null) {
+                    VECTOR_KERNEL.relaxRow(d, iRow, kRow, viaK, jStart, jEnd);
+                    continue;
+                }
+                for (int j = jStart; j < jEnd; j++) {
+                    d[iRow + j] = Math.min(d[iRow + j], viaK + d[kRow + j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads {@code VectorMinPlus} by name, so that this class still links when the kernel was left out
+     * of the build or the module is missing at runtime.
+     */
+    private static RowKernel vectorKernel() {
+        if ("false".equals(System.getProperty("graph.vector"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (RowKernel) Class.forName("org.graph.VectorMinPlus").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * One row of the min-plus product: {@code d[row + j] = min(d[row + j], via + d[through + j])} for
+     * {@code j} in [from, to).
+     */
+    interface RowKernel {
+        void relaxRow(int[] d, int row, int through, int via, int from, int to);
+    }
+
+    /**
+     * Relaxes a range of the tiles of one phase. In the row-and-column phase, index {@code t} names tile
+     * (k, t) for {@code t < tiles} and tile (t - tiles, k) otherwise; in the last phase it names tile
+     * (t / tiles, t % tiles). Tiles in row or column k are skipped where they belong to another phase.
+     */
+    private static final class TileTask extends RecursiveAction {
+        private final int[] d;
+        private final int n;
+        private final int k;
+        private final int tiles;
+        private final int from;
+        private final int to;
+        private final boolean crossPhase;
+
+        TileTask(int[] d, int n, int k, int tiles, int from, int to, boolean crossPhase) {
+            this.d = d;
+            this.n = n;
+            this.k = k;
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.crossPhase = crossPhase;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TileTask(d, n, k, tiles, from, mid, crossPhase),
+                        new TileTask(d, n, k, tiles, mid, to, crossPhase));
+                return;
+            }
+            if (crossPhase) {
+                boolean row = from < tiles;
+                int other = row ? from : from - tiles;
+                if (other != k) {
+                    relax(d, n, row ? k : other, row ? other : k, k);
+                }
+            } else {
+                int ti = from / tiles;
+                int tj = from % tiles;
+                if (ti != k && tj != k) {
+                    relax(d, n, ti, tj, k);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes graphs in a versioned binary file format that can be memory-mapped as is.
+ * <p>
+ * All values are little-endian 32-bit ints. The file starts with a 32-byte header holding the
+ * magic number {@code "GTGF"}, the format version, a flags word, the node count and the edge count;
+ * the rest of the header is zero. The CSR arrays follow back to back: the vertex ids
+ * ({@code nodeCount} values, ascending), the offsets ({@code nodeCount + 1}), the targets and the
+ * weights ({@code edgeCount} each). If flag bit 0 is set, the offsets, targets and weights of the
+ * reverse graph follow in the same layout.
+ */
+public class GraphFile {
+    static final int MAGIC = 0x46475447;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int FLAG_REVERSE = 1;
+
+    /**
+     * Writes a graph, optionally with its reverse graph so that backward searches on the mapped
+     * graph need not build it.
+     *
+     * @param graph        The graph in CSR form.
+     * @param path         The file to write; an existing file is replaced.
+     * @param writeReverse True to include the reverse graph.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if the graph was relabelled by {@link GraphReordering}, whose ids
+     *                                  are not ascending as the format requires.
+     */
+    public static void write(CsrGraph graph, Path path, boolean writeReverse) throws IOException {
+        if (!graph.hasAscendingIds()) {
+            throw new IllegalArgumentException("Graph files need ascending ids; write the graph before reordering it.");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(writeReverse ? FLAG_REVERSE : 0)
+                    .putInt(graph.nodeCount()).putInt(graph.edgeCount());
+            while (buffer.position() < HEADER_BYTES) {
+                buffer.put((byte) 0);
+            }
+            writeInts(channel, buffer, graph.ids);
+            writeInts(channel, buffer, graph.offsets);
+            writeInts(channel, buffer, graph.targets);
+            writeInts(channel, buffer, graph.weights);
+            if (writeReverse) {
+                CsrGraph reverse = graph.reverse();
+                writeInts(channel, buffer, reverse.offsets);
+                writeInts(channel, buffer, reverse.targets);
+                writeInts(channel, buffer, reverse.weights);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Maps a graph file into memory. Nothing is copied onto the heap: traversals read the pages of
+     * the file directly, and processes mapping the same file share one copy in the page cache. The
+     * mapping is released once the returned graph is garbage collected.
+     *
+     * @param path The file to map.
+     * @return The mapped graph.
+     * @throws IOException if the file cannot be read or is not a graph file of a supported version.
+     */
+    public static MappedGraph map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("The file " + path + " is too short to be a graph file.");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete.
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("The file " + path + " is not a graph file.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("The graph file " + path + " has version " + version
+                        + " but only version " + VERSION + " is supported.");
+            }
+            int flags = header.getInt();
+            int n = header.getInt();
+            int m = header.getInt();
+            boolean hasReverse = (flags & FLAG_REVERSE) != 0;
+            long ints = 2L * n + 1 + 2L * m + (hasReverse ? n + 1 + 2L * m : 0);
+            if (n < 0 || m < 0 || channel.size() != HEADER_BYTES + 4 * ints) {
+                throw new IOException("The graph file " + path + " is truncated or corrupt.");
+            }
+
+            long position = HEADER_BYTES;
+            MappedInts ids = new MappedInts(channel, position, n);
+            position += 4L * n;
+            MappedInts offsets = new MappedInts(channel, position, n + 1);
+            position += 4L * (n + 1);
+            MappedInts targets = new MappedInts(channel, position, m);
+            position += 4L * m;
+            MappedInts weights = new MappedInts(channel, position, m);
+            position += 4L * m;
+            MappedGraph graph = new MappedGraph(ids, offsets, targets, weights);
+            if (hasReverse) {
+                MappedInts reverseOffsets = new MappedInts(channel, position, n + 1);
+                position += 4L * (n + 1);
+                MappedInts reverseTargets = new MappedInts(channel, position, m);
+                position += 4L * m;
+                MappedInts reverseWeights = new MappedInts(channel, position, m);
+                graph.setReverse(new MappedGraph(ids, reverseOffsets, reverseTargets, reverseWeights));
+            }
+            return graph;
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        int written = 0;
+        while (written < values.length) {
+            if (buffer.remaining() < 4) {
+                flush(channel, buffer);
+            }
+            IntBuffer ints = buffer.asIntBuffer();
+            int count = Math.min(ints.remaining(), values.length - written);
+            ints.put(values, written, count);
+            buffer.position(buffer.position() + 4 * count);
+            written += count;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * An int array backed by one or more read-only mappings of a file region; a single
+     * {@link java.nio.MappedByteBuffer} cannot exceed 2 GB. Java 11, which this project targets, has no
+     * API for mapping larger regions as one, so the region is split into chunks of 2^28 ints.
+     */
+    static final class MappedInts {
+        private static final int CHUNK_SHIFT = 28;
+        private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+        private final IntBuffer[] chunks;
+        private final int length;
+
+        MappedInts(FileChannel channel, long position, int length) throws IOException {
+            this.length = length;
+            int count = (int) (((long) length + CHUNK_MASK) >>> CHUNK_SHIFT);
+            chunks = new IntBuffer[count];
+            for (int c = 0; c < count; c++) {
+                long first = (long) c << CHUNK_SHIFT;
+                int size = (int) Math.min(1L << CHUNK_SHIFT, length - first);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, position + 4 * first, 4L * size)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asIntBuffer();
+            }
+        }
+
+        int get(int index) {
+            return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+        }
+
+        int length() {
+            return length;
+        }
+    }
+}
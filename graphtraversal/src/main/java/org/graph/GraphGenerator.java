@@ -1,5 +1,6 @@
 package org.graph;
 
+import java.math.BigInteger;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -11,6 +12,13 @@ import java.util.stream.IntStream;
  * Each edge has a destination node and a weight.
  */
 public class GraphGenerator {
+    /**
+     * The largest edge weight of the generators that take no weight range.
+     */
+    public static final int DEFAULT_MAX_WEIGHT = 10;
+
+    // Roughly the number of edges generated per partition by generateCsrGraph.
+    private static final int PARTITION_EDGES = 1 << 18;
 
     /**
      * Generates a random, simple, connected directed graph with the given number of nodes (N) and edges (S).
@@ -22,14 +30,33 @@ public class GraphGenerator {
      * @throws IllegalStateException if the generated graph is not connected.
      */
     public static Map<Integer, List<Edge>> generateGraph(int N, int S) {
+        return generateGraph(N, S, new Random().nextLong(), DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * Generates a random, simple, connected directed graph like {@link #generateGraph(int, int)}, but
+     * from a seed, so that the same arguments always give the same graph, and with weights between 1
+     * and {@code maxWeight}.
+     *
+     * @param N         The number of vertices in the graph.
+     * @param S         The number of edges in the graph.
+     * @param seed      The seed of the random number generator.
+     * @param maxWeight The largest edge weight.
+     * @return A map representing the generated graph, where keys are node IDs and values are lists of edges.
+     * @throws IllegalArgumentException if the number of edges is less than the minimum required to form a connected graph,
+     *                                  or maxWeight is less than 1.
+     * @throws IllegalStateException if the generated graph is not connected.
+     */
+    public static Map<Integer, List<Edge>> generateGraph(int N, int S, long seed, int maxWeight) {
 
         // Validate the input parameters to ensure enough edges to form a connected graph.
         GraphValidator.validateGraphParameters(N, S);
+        validateMaxWeight(maxWeight);
 
-        Random rand = new Random();
+        Random rand = new Random(seed);
 
-        // Function to create a new edge with a random weight between 1 and 10.
-        Function<Integer, Edge> createEdge = to -> new Edge(to, rand.nextInt(10) + 1);
+        // Function to create a new edge with a random weight between 1 and maxWeight.
+        Function<Integer, Edge> createEdge = to -> new Edge(to, rand.nextInt(maxWeight) + 1);
 
         // Create the initial graph with each node having an edge to the next node.
         Map<Integer, List<Edge>> initialGraph = IntStream.rangeClosed(1, N)
@@ -53,7 +80,7 @@ public class GraphGenerator {
             int from = vertices.get(rand.nextInt(vertices.size()));
             int to = rand.nextInt(N) + 1;
             if (from != to) {
-                int weight = rand.nextInt(10) + 1;
+                int weight = rand.nextInt(maxWeight) + 1;
                 List<Edge> neighbors = initialGraph.computeIfAbsent(from, k -> new ArrayList<>());
                 if (neighbors.stream().noneMatch(e -> e.getTo() == to)) {
                     neighbors.add(new Edge(to, weight));
@@ -76,4 +103,216 @@ public class GraphGenerator {
 
         return Collections.unmodifiableMap(initialGraph);
     }
+
+    /**
+     * Generates a random, simple, connected directed graph like {@link #generateGraph(int, int)},
+     * but builds it directly in CSR form without the intermediate map of edge lists. It uses a random
+     * seed; see {@link #generateCsrGraph(int, int, long)}.
+     *
+     * @param N The number of vertices in the graph.
+     * @param S The number of edges in the graph.
+     * @return The generated graph in CSR form.
+     * @throws IllegalArgumentException if S is less than N - 1 or more than N * (N - 1).
+     */
+    public static CsrGraph generateCsrGraph(int N, int S) {
+        return generateCsrGraph(N, S, new Random().nextLong());
+    }
+
+    /**
+     * Generates a random, simple, connected directed graph in CSR form from a seed, so that the same
+     * arguments always give the same graph regardless of the number of cores.
+     * <p>
+     * The vertices are split into ranges of roughly equal edge count, each with its own
+     * {@link SplittableRandom} split off the seed in a fixed order, and the ranges are generated in
+     * parallel straight into the CSR arrays. A range that needs fewer than half of its free slots
+     * samples edge keys at random and removes duplicates by sorting; a denser one walks its free slots
+     * once and picks each with the remaining probability (selection sampling), so generation stays
+     * linear even for complete graphs. As in {@link #generateGraph(int, int)}, every node has an edge to
+     * the next one and weights are between 1 and 10, which also makes a separate connectivity check
+     * unnecessary.
+     *
+     * @param N    The number of vertices in the graph.
+     * @param S    The number of edges in the graph.
+     * @param seed The seed of the random number generator.
+     * @return The generated graph in CSR form.
+     * @throws IllegalArgumentException if S is less than N - 1 or more than N * (N - 1).
+     */
+    public static CsrGraph generateCsrGraph(int N, int S, long seed) {
+        return generateCsrGraph(N, S, seed, DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * Generates a graph in CSR form like {@link #generateCsrGraph(int, int, long)}, but with weights
+     * between 1 and {@code maxWeight}.
+     *
+     * @param N         The number of vertices in the graph.
+     * @param S         The number of edges in the graph.
+     * @param seed      The seed of the random number generator.
+     * @param maxWeight The largest edge weight.
+     * @return The generated graph in CSR form.
+     * @throws IllegalArgumentException if S is less than N - 1 or more than N * (N - 1), or maxWeight is
+     *                                  less than 1.
+     */
+    public static CsrGraph generateCsrGraph(int N, int S, long seed, int maxWeight) {
+        PhaseEvent event = GraphMetrics.ENABLED ? GraphMetrics.beginPhase(GraphMetrics.Phase.GENERATION) : null;
+        CsrGraph graph = generate(N, S, seed, maxWeight);
+        if (GraphMetrics.ENABLED) {
+            GraphMetrics.endPhase(event, GraphMetrics.Phase.GENERATION, S);
+        }
+        return graph;
+    }
+
+    private static void validateMaxWeight(int maxWeight) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("The largest edge weight must be at least 1. Given: " + maxWeight);
+        }
+    }
+
+    private static CsrGraph generate(int N, int S, long seed, int maxWeight) {
+        GraphValidator.validateGraphParameters(N, S);
+        validateMaxWeight(maxWeight);
+        if (S > (long) N * (N - 1)) {
+            throw new IllegalArgumentException("Number of edges S must be at most N * (N - 1) for a simple graph. Given: N = " + N + ", S = " + S);
+        }
+
+        int[] ids = IntStream.rangeClosed(1, N).toArray();
+        int[] offsets = new int[N + 1];
+        int[] targets = new int[S];
+        int[] weights = new int[S];
+        if (N == 0) {
+            return new CsrGraph(ids, offsets, targets, weights);
+        }
+
+        // Fixed partition boundaries and random streams keep the result independent of scheduling.
+        int partitions = Math.max(1, Math.min(N, S / PARTITION_EDGES));
+        long extraEdges = (long) S - (N - 1);
+        int[] firstVertex = new int[partitions + 1];
+        long[] firstExtra = new long[partitions + 1];
+        SplittableRandom[] randoms = new SplittableRandom[partitions];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int p = 0; p <= partitions; p++) {
+            firstVertex[p] = (int) ((long) N * p / partitions);
+            firstExtra[p] = extraBefore(firstVertex[p], N, extraEdges);
+            if (p < partitions) {
+                randoms[p] = root.split();
+            }
+        }
+
+        IntStream.range(0, partitions).parallel().forEach(p -> {
+            int from = firstVertex[p];
+            int to = firstVertex[p + 1];
+            long extras = firstExtra[p + 1] - firstExtra[p];
+            // Extra edges before this range, plus one chain edge per earlier vertex.
+            int position = (int) (firstExtra[p] + from);
+            long freeSlots = freeSlotsBefore(to, N) - freeSlotsBefore(from, N);
+            if (extras * 2 > freeSlots) {
+                selectSlots(N, from, to, extras, freeSlots, position, offsets, targets, weights, maxWeight, randoms[p]);
+            } else {
+                sampleSlots(N, from, to, (int) extras, position, offsets, targets, weights, maxWeight, randoms[p]);
+            }
+        });
+        offsets[N] = S;
+
+        return new CsrGraph(ids, offsets, targets, weights);
+    }
+
+    /**
+     * Returns the number of edge slots of the vertices before {@code vertex} that are neither self
+     * loops nor chain edges: every vertex but the last has N - 2 of them, the last one N - 1.
+     */
+    private static long freeSlotsBefore(int vertex, int N) {
+        return (long) vertex * (N - 2) + (vertex == N ? 1 : 0);
+    }
+
+    /**
+     * Returns the number of extra edges assigned to the vertices before {@code vertex}, proportional to
+     * their free slots so that no range is asked for more edges than it can hold.
+     */
+    private static long extraBefore(int vertex, int N, long extraEdges) {
+        long total = freeSlotsBefore(N, N);
+        if (total == 0) {
+            return 0;
+        }
+        return BigInteger.valueOf(extraEdges)
+                .multiply(BigInteger.valueOf(freeSlotsBefore(vertex, N)))
+                .divide(BigInteger.valueOf(total))
+                .longValue();
+    }
+
+    /**
+     * Picks {@code extras} random extra edges for the vertex range by sampling edge keys, sorting them
+     * and sampling again for the duplicates until enough distinct keys remain.
+     */
+    private static void sampleSlots(int N, int from, int to, int extras, int position,
+                                    int[] offsets, int[] targets, int[] weights, int maxWeight, SplittableRandom rand) {
+        long[] keys = new long[extras];
+        int distinct = 0;
+        while (distinct < extras) {
+            for (int i = distinct; i < extras; ) {
+                int source = rand.nextInt(from, to);
+                int target = rand.nextInt(N);
+                if (target != source && target != source + 1) {
+                    keys[i++] = (long) source * N + target;
+                }
+            }
+            Arrays.sort(keys);
+            distinct = 0;
+            for (int i = 0; i < extras; i++) {
+                if (i == 0 || keys[i] != keys[i - 1]) {
+                    keys[distinct++] = keys[i];
+                }
+            }
+        }
+
+        int k = 0;
+        for (int source = from; source < to; source++) {
+            offsets[source] = position;
+            boolean chain = source + 1 < N;
+            while (k < extras && keys[k] / N == source) {
+                int target = (int) (keys[k++] % N);
+                if (chain && source + 1 < target) {
+                    targets[position] = source + 1;
+                    weights[position++] = rand.nextInt(maxWeight) + 1;
+                    chain = false;
+                }
+                targets[position] = target;
+                weights[position++] = rand.nextInt(maxWeight) + 1;
+            }
+            if (chain) {
+                targets[position] = source + 1;
+                weights[position++] = rand.nextInt(maxWeight) + 1;
+            }
+        }
+    }
+
+    /**
+     * Picks {@code extras} of the {@code freeSlots} extra edge slots of the vertex range by walking all
+     * of them once and taking each with probability {@code needed / remaining}.
+     */
+    private static void selectSlots(int N, int from, int to, long extras, long freeSlots, int position,
+                                    int[] offsets, int[] targets, int[] weights, int maxWeight, SplittableRandom rand) {
+        long needed = extras;
+        long remaining = freeSlots;
+        for (int source = from; source < to; source++) {
+            offsets[source] = position;
+            for (int target = 0; target < N; target++) {
+                boolean take;
+                if (target == source) {
+                    continue;
+                } else if (target == source + 1) {
+                    take = true;
+                } else {
+                    take = rand.nextLong(remaining) < needed;
+                    remaining--;
+                    if (take) {
+                        needed--;
+                    }
+                }
+                if (take) {
+                    targets[position] = target;
+                    weights[position++] = rand.nextInt(maxWeight) + 1;
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,176 @@
+package org.graph;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in counters and timers for the graph algorithms, enabled by starting the JVM with
+ * {@code -Dgraph.metrics=true}.
+ * <p>
+ * {@link #ENABLED} is a compile-time-style constant: the JIT folds it, so every
+ * {@code if (GraphMetrics.ENABLED)} block on a hot path, and the counters feeding it, are removed
+ * entirely when metrics are off. When they are on, each search counts its work in its own
+ * {@link SearchCounters} and publishes it once into striped {@link LongAdder}s, so threads do not
+ * contend on shared counters inside their loops. Every search and phase is also committed as a JDK Flight Recorder
+ * event ({@link SearchEvent}, {@link PhaseEvent}), which costs next to nothing unless a recording
+ * with those events is running.
+ */
+public final class GraphMetrics {
+    /**
+     * Whether instrumentation is compiled in, read once from the {@code graph.metrics} system property.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("graph.metrics");
+
+    /**
+     * The timed phases.
+     */
+    public enum Phase {
+        /**
+         * Generating a random graph.
+         */
+        GENERATION,
+        /**
+         * Checking that every node is reachable.
+         */
+        CONNECTIVITY,
+        /**
+         * Computing eccentricities, radius, diameter, center and periphery.
+         */
+        PROPERTIES,
+        /**
+         * Answering a batch of queries.
+         */
+        BATCH
+    }
+
+    static final LongAdder SEARCHES = new LongAdder();
+    static final LongAdder SEARCH_NANOS = new LongAdder();
+    static final LongAdder RELAXATIONS = new LongAdder();
+    static final LongAdder HEAP_PUSHES = new LongAdder();
+    static final LongAdder HEAP_POPS = new LongAdder();
+    static final LongAdder DECREASE_KEYS = new LongAdder();
+    static final LongAdder SETTLED = new LongAdder();
+    static final LongAdder BFS_TRAVERSALS = new LongAdder();
+    static final LongAdder BFS_LEVELS = new LongAdder();
+    static final LongAdder BFS_VISITED = new LongAdder();
+    static final LongAccumulator BFS_MAX_FRONTIER = new LongAccumulator(Math::max, 0);
+    static final LongAdder[] PHASE_COUNTS = adders(Phase.values().length);
+    static final LongAdder[] PHASE_NANOS = adders(Phase.values().length);
+
+    private GraphMetrics() {
+    }
+
+    /**
+     * @return The current values of all counters; all zero when metrics are disabled.
+     */
+    public static MetricsSnapshot snapshot() {
+        return new MetricsSnapshot();
+    }
+
+    /**
+     * Sets all counters back to zero. Updates that race with the reset may survive it.
+     */
+    public static void reset() {
+        for (LongAdder adder : new LongAdder[]{SEARCHES, SEARCH_NANOS, RELAXATIONS, HEAP_PUSHES, HEAP_POPS,
+                DECREASE_KEYS, SETTLED, BFS_TRAVERSALS, BFS_LEVELS, BFS_VISITED}) {
+            adder.reset();
+        }
+        BFS_MAX_FRONTIER.reset();
+        for (int p = 0; p < PHASE_COUNTS.length; p++) {
+            PHASE_COUNTS[p].reset();
+            PHASE_NANOS[p].reset();
+        }
+    }
+
+    /**
+     * Starts timing a search; call only if {@link #ENABLED}.
+     */
+    static SearchEvent beginSearch() {
+        SearchEvent event = new SearchEvent();
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Publishes the work of a finished search and commits its event.
+     *
+     * @param event    The event returned by {@link #beginSearch()}.
+     * @param engine   The name of the search algorithm.
+     * @param source   The source id.
+     * @param target   The target id, or -1 for a full search.
+     * @param settled  The number of vertices whose distance became final.
+     */
+    static void endSearch(SearchEvent event, String engine, int source, int target, long relaxations,
+                          long pushes, long pops, long decreaseKeys, long settled) {
+        event.end();
+        SEARCHES.increment();
+        SEARCH_NANOS.add(System.nanoTime() - event.startNanos);
+        RELAXATIONS.add(relaxations);
+        HEAP_PUSHES.add(pushes);
+        HEAP_POPS.add(pops);
+        DECREASE_KEYS.add(decreaseKeys);
+        SETTLED.add(settled);
+        if (event.shouldCommit()) {
+            event.engine = engine;
+            event.source = source;
+            event.target = target;
+            event.relaxations = relaxations;
+            event.heapPushes = pushes;
+            event.heapPops = pops;
+            event.decreaseKeys = decreaseKeys;
+            event.settled = settled;
+            event.commit();
+        }
+    }
+
+    /**
+     * Publishes the shape of a finished breadth-first traversal.
+     *
+     * @param levels      The number of BFS levels, including the source's.
+     * @param visited     The number of vertices reached.
+     * @param maxFrontier The largest number of vertices on one level.
+     */
+    static void recordBfs(long levels, long visited, long maxFrontier) {
+        BFS_TRAVERSALS.increment();
+        BFS_LEVELS.add(levels);
+        BFS_VISITED.add(visited);
+        BFS_MAX_FRONTIER.accumulate(maxFrontier);
+    }
+
+    /**
+     * Starts timing a phase; call only if {@link #ENABLED}.
+     */
+    static PhaseEvent beginPhase(Phase phase) {
+        PhaseEvent event = new PhaseEvent();
+        event.phase = phase.name();
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Publishes the duration of a finished phase and commits its event.
+     *
+     * @param event The event returned by {@link #beginPhase(Phase)}.
+     * @param phase The phase.
+     * @param size  The size of the input, e.g. the number of nodes, for the event.
+     */
+    static void endPhase(PhaseEvent event, Phase phase, long size) {
+        event.end();
+        PHASE_COUNTS[phase.ordinal()].increment();
+        PHASE_NANOS[phase.ordinal()].add(System.nanoTime() - event.startNanos);
+        if (event.shouldCommit()) {
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
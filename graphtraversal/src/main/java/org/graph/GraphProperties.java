@@ -1,6 +1,5 @@
 package org.graph;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -8,20 +7,36 @@ import java.util.Map;
  * This class provides methods to calculate graph properties such as eccentricity, radius, and diameter.
  */
 public class GraphProperties {
+    /**
+     * The node count from which the distance and heap arrays of a search outgrow the L2 cache.
+     */
+    private static final int REORDER_NODES = 1 << 16;
+
+    /**
+     * How the radius and diameter are computed.
+     */
+    public enum Strategy {
+        /**
+         * Computes the eccentricity of every vertex, in parallel.
+         */
+        ALL_PAIRS,
+        /**
+         * Prunes vertices with eccentricity bounds and stops once the bounds prove the result;
+         * see {@link BoundedEccentricity}.
+         */
+        BOUNDED
+    }
 
     /**
-     * Calculates the eccentricity of a vertex in the graph.
+     * Calculates the eccentricity of a vertex in the graph. The map is converted to a {@link CsrGraph}
+     * on every call; for more than one vertex, convert it once and use {@link #eccentricity(CsrGraph, int)}.
      *
      * @param graph  The graph as a map of nodes to edges.
      * @param vertex The vertex to calculate the eccentricity for.
      * @return The eccentricity of the vertex.
      */
     public static int eccentricity(Map<Integer, List<Edge>> graph, int vertex) {
-        Map<Integer, Integer> distances = Dijkstra.dijkstra(graph, vertex, new HashMap<>());
-        return distances.values().stream()
-                .filter(d -> d != Integer.MAX_VALUE)
-                .max(Integer::compareTo)
-                .orElse(0);
+        return eccentricity(CsrGraph.fromMap(graph), vertex);
     }
 
     /**
@@ -31,11 +46,7 @@ public class GraphProperties {
      * @return The radius of the graph.
      */
     public static int radius(Map<Integer, List<Edge>> graph) {
-        return graph.keySet().stream()
-                .mapToInt(v -> eccentricity(graph, v))
-                .filter(e -> e != 0 && e != Integer.MAX_VALUE)
-                .min()
-                .orElse(0);
+        return properties(graph).radius();
     }
 
     /**
@@ -45,10 +56,236 @@ public class GraphProperties {
      * @return The diameter of the graph.
      */
     public static int diameter(Map<Integer, List<Edge>> graph) {
-        return graph.keySet().stream()
-                .mapToInt(v -> eccentricity(graph, v))
-                .filter(e -> e != 0 && e != Integer.MAX_VALUE)
-                .max()
-                .orElse(0);
+        return properties(graph).diameter();
+    }
+
+    /**
+     * Calculates the eccentricity of every vertex at once, in parallel, together with the radius,
+     * diameter, center and periphery of the graph.
+     *
+     * @param graph The graph as a map of nodes to edges.
+     * @return The eccentricities and the properties derived from them.
+     */
+    public static EccentricityResult properties(Map<Integer, List<Edge>> graph) {
+        return EccentricityEngine.compute(CsrGraph.fromMap(graph));
+    }
+
+    /**
+     * Calculates the eccentricity of a vertex in a graph in CSR form.
+     *
+     * @param graph  The graph in CSR form.
+     * @param vertex The vertex id to calculate the eccentricity for.
+     * @return The eccentricity of the vertex.
+     */
+    public static int eccentricity(CsrGraph graph, int vertex) {
+        int[] distances = Dijkstra.dijkstra(graph, vertex, new int[graph.nodeCount()]);
+        return maxFinite(distances);
+    }
+
+    /**
+     * Calculates the radius of a graph in CSR form.
+     *
+     * @param graph The graph in CSR form.
+     * @return The radius of the graph.
+     */
+    public static int radius(CsrGraph graph) {
+        return properties(graph).radius();
+    }
+
+    /**
+     * Calculates the diameter of a graph in CSR form.
+     *
+     * @param graph The graph in CSR form.
+     * @return The diameter of the graph.
+     */
+    public static int diameter(CsrGraph graph) {
+        return properties(graph).diameter();
+    }
+
+    /**
+     * Calculates the eccentricity of every vertex of a graph in CSR form at once, in parallel,
+     * together with the radius, diameter, center and periphery of the graph. Dense graphs go through
+     * the all-pairs distance matrix, see {@link FloydWarshall#preferred(CsrGraph)}, all others through
+     * one search per vertex. Graphs too large for the cache are first relabelled in the
+     * {@link GraphReordering#DEFAULT} order, which costs about two of those searches.
+     *
+     * @param graph The graph in CSR form.
+     * @return The eccentricities and the properties derived from them.
+     */
+    public static EccentricityResult properties(CsrGraph graph) {
+        if (FloydWarshall.preferred(graph)) {
+            return FloydWarshall.distances(graph).eccentricities();
+        }
+        boolean reorder = graph.nodeCount() >= REORDER_NODES && graph.hasAscendingIds();
+        return EccentricityEngine.compute(reorder ? graph.reordered() : graph);
+    }
+
+    /**
+     * Calculates the distances between all pairs of vertices with a blocked Floyd-Warshall.
+     *
+     * @param graph The graph in CSR form; its weights must be non-negative.
+     * @return The distance matrix.
+     * @throws IllegalArgumentException if paths may be too long for the matrix, see {@link FloydWarshall#fits(CsrGraph)}.
+     */
+    public static DistanceMatrix distances(CsrGraph graph) {
+        return FloydWarshall.distances(graph);
+    }
+
+    /**
+     * Calculates the radius of a graph in CSR form with the given strategy.
+     *
+     * @param graph    The graph in CSR form.
+     * @param strategy How to compute the radius.
+     * @return The radius of the graph.
+     */
+    public static int radius(CsrGraph graph, Strategy strategy) {
+        return strategy == Strategy.BOUNDED
+                ? BoundedEccentricity.solve(graph, ApproximationBudget.unlimited()).radiusUpper()
+                : radius(graph);
+    }
+
+    /**
+     * Calculates the diameter of a graph in CSR form with the given strategy.
+     *
+     * @param graph    The graph in CSR form.
+     * @param strategy How to compute the diameter.
+     * @return The diameter of the graph.
+     */
+    public static int diameter(CsrGraph graph, Strategy strategy) {
+        return strategy == Strategy.BOUNDED
+                ? BoundedEccentricity.solve(graph, ApproximationBudget.unlimited()).diameterLower()
+                : diameter(graph);
+    }
+
+    /**
+     * Calculates the radius of the graph with the given strategy.
+     *
+     * @param graph    The graph as a map of nodes to edges.
+     * @param strategy How to compute the radius.
+     * @return The radius of the graph.
+     */
+    public static int radius(Map<Integer, List<Edge>> graph, Strategy strategy) {
+        return radius(CsrGraph.fromMap(graph), strategy);
+    }
+
+    /**
+     * Calculates the diameter of the graph with the given strategy.
+     *
+     * @param graph    The graph as a map of nodes to edges.
+     * @param strategy How to compute the diameter.
+     * @return The diameter of the graph.
+     */
+    public static int diameter(Map<Integer, List<Edge>> graph, Strategy strategy) {
+        return diameter(CsrGraph.fromMap(graph), strategy);
+    }
+
+    /**
+     * Calculates the hop eccentricity of a vertex, the largest number of edges on a shortest path to
+     * any vertex it reaches, ignoring weights.
+     *
+     * @param graph  The graph in CSR form.
+     * @param vertex The vertex id.
+     * @return The hop eccentricity of the vertex.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public static int hopEccentricity(CsrGraph graph, int vertex) {
+        return BreadthFirstSearch.run(graph, vertex).levels() - 1;
+    }
+
+    /**
+     * Calculates the radius of a graph in CSR form in hops, ignoring weights.
+     *
+     * @param graph The graph in CSR form.
+     * @return The hop radius of the graph.
+     */
+    public static int hopRadius(CsrGraph graph) {
+        return hopProperties(graph).radius();
+    }
+
+    /**
+     * Calculates the diameter of a graph in CSR form in hops, ignoring weights.
+     *
+     * @param graph The graph in CSR form.
+     * @return The hop diameter of the graph.
+     */
+    public static int hopDiameter(CsrGraph graph) {
+        return hopProperties(graph).diameter();
+    }
+
+    /**
+     * Calculates the hop eccentricity of every vertex at once with a bit-parallel BFS from 64 sources
+     * at a time, see {@link MultiSourceBfs}.
+     *
+     * @param graph The graph in CSR form.
+     * @return The hop eccentricities and the properties derived from them.
+     */
+    public static EccentricityResult hopProperties(CsrGraph graph) {
+        return MultiSourceBfs.eccentricities(graph);
+    }
+
+    /**
+     * Calculates the betweenness centrality of every vertex of a graph in CSR form, in parallel; see
+     * {@link Centrality} for the sampled variant.
+     *
+     * @param graph The graph in CSR form; its weights must be positive.
+     * @return The betweenness of every vertex.
+     */
+    public static CentralityResult betweenness(CsrGraph graph) {
+        return Centrality.betweenness(graph);
+    }
+
+    /**
+     * Calculates the closeness centrality of every vertex of a graph in CSR form, in parallel.
+     *
+     * @param graph The graph in CSR form.
+     * @return The closeness of every vertex.
+     */
+    public static CentralityResult closeness(CsrGraph graph) {
+        return Centrality.closeness(graph);
+    }
+
+    /**
+     * Calculates the harmonic centrality of every vertex of a graph in CSR form, in parallel.
+     *
+     * @param graph The graph in CSR form.
+     * @return The harmonic centrality of every vertex.
+     */
+    public static CentralityResult harmonicCentrality(CsrGraph graph) {
+        return Centrality.harmonic(graph);
+    }
+
+    /**
+     * Approximates the radius and diameter of a graph in CSR form within a work budget.
+     *
+     * @param graph  The graph in CSR form.
+     * @param budget The limits on the work to spend.
+     * @return Lower and upper bounds on the radius and diameter.
+     */
+    public static EccentricityBounds approximate(CsrGraph graph, ApproximationBudget budget) {
+        return BoundedEccentricity.solve(graph, budget);
+    }
+
+    /**
+     * Approximates the radius and diameter of a graph within a work budget.
+     *
+     * @param graph  The graph as a map of nodes to edges.
+     * @param budget The limits on the work to spend.
+     * @return Lower and upper bounds on the radius and diameter.
+     */
+    public static EccentricityBounds approximate(Map<Integer, List<Edge>> graph, ApproximationBudget budget) {
+        return approximate(CsrGraph.fromMap(graph), budget);
+    }
+
+    /**
+     * Returns the largest distance that is not {@code Integer.MAX_VALUE}, or 0 if there is none.
+     */
+    static int maxFinite(int[] distances) {
+        int max = 0;
+        for (int d : distances) {
+            if (d != Integer.MAX_VALUE && d > max) {
+                max = d;
+            }
+        }
+        return max;
     }
 }
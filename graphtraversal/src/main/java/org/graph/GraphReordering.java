@@ -0,0 +1,269 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * Relabels the vertices of a graph so that vertices which are close in the graph get close indexes,
+ * and rebuilds the CSR arrays in the new order. The generators number vertices in the order they
+ * wire them, so the neighbours of a vertex are spread over the whole distance and predecessor arrays
+ * and nearly every relaxation touches a cold cache line; after a locality-preserving order most of
+ * them hit lines a recent relaxation already loaded.
+ * <p>
+ * The relabelled graph keeps the original ids, so distances, eccentricities and
+ * {@link CsrGraph#toMap()} are the same on it. Where several answers are equally right, such as one of
+ * several shortest paths or the order of the vertices within a BFS level, it may give another one,
+ * because ties are broken by index. {@link #originalIndex(int)} and {@link #newIndex(int)} convert
+ * between the two numberings, e.g. for arrays indexed by node index.
+ */
+public final class GraphReordering {
+
+    /**
+     * How the vertices are relabelled. All orders treat edges as undirected.
+     */
+    public enum Order {
+        /**
+         * Breadth-first order, restarting at the smallest unvisited index.
+         */
+        BFS,
+        /**
+         * Reverse Cuthill-McKee: breadth-first from a vertex of smallest degree, visiting neighbours by
+         * ascending degree, then reversed. Keeps the edges of a vertex in a narrow band of indexes.
+         */
+        RCM,
+        /**
+         * Descending degree, so that the hubs that most searches pass through share a few cache lines.
+         */
+        DEGREE
+    }
+
+    /**
+     * The order {@link #reorder(CsrGraph)} uses; see the {@code ReorderingBenchmark} for the measurements.
+     */
+    public static final Order DEFAULT = Order.RCM;
+
+    private final CsrGraph graph;
+    private final Order order;
+    private final int[] permutation;
+    private final int[] inverse;
+
+    private GraphReordering(CsrGraph graph, Order order, int[] permutation, int[] inverse) {
+        this.graph = graph;
+        this.order = order;
+        this.permutation = permutation;
+        this.inverse = inverse;
+    }
+
+    /**
+     * Relabels a graph in the {@link #DEFAULT} order.
+     *
+     * @param graph The graph in CSR form.
+     * @return The relabelled graph with the permutation that produced it.
+     */
+    public static GraphReordering reorder(CsrGraph graph) {
+        return reorder(graph, DEFAULT);
+    }
+
+    /**
+     * Relabels a graph in the given order.
+     *
+     * @param graph The graph in CSR form.
+     * @param order How to order the vertices.
+     * @return The relabelled graph with the permutation that produced it.
+     */
+    public static GraphReordering reorder(CsrGraph graph, Order order) {
+        int[] permutation;
+        switch (order) {
+            case BFS:
+                permutation = breadthFirst(graph, false);
+                break;
+            case RCM:
+                permutation = breadthFirst(graph, true);
+                break;
+            case DEGREE:
+                permutation = byDegree(graph);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown order " + order + ".");
+        }
+        int[] inverse = new int[permutation.length];
+        for (int i = 0; i < permutation.length; i++) {
+            inverse[permutation[i]] = i;
+        }
+        return new GraphReordering(relabel(graph, permutation, inverse), order, permutation, inverse);
+    }
+
+    /**
+     * @return The relabelled graph, with the same ids and edges as the original one.
+     */
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    /**
+     * @return The order the graph was relabelled in.
+     */
+    public Order order() {
+        return order;
+    }
+
+    /**
+     * @param index A node index in the relabelled graph.
+     * @return The index of the same node in the original graph.
+     */
+    public int originalIndex(int index) {
+        return permutation[index];
+    }
+
+    /**
+     * @param originalIndex A node index in the original graph.
+     * @return The index of the same node in the relabelled graph.
+     */
+    public int newIndex(int originalIndex) {
+        return inverse[originalIndex];
+    }
+
+    /**
+     * @return The original index of every node, indexed by its new index.
+     */
+    public int[] permutation() {
+        return permutation.clone();
+    }
+
+    /**
+     * @return The new index of every node, indexed by its original index.
+     */
+    public int[] inverse() {
+        return inverse.clone();
+    }
+
+    /**
+     * Lists the vertices in breadth-first order over the edges in both directions. Components are
+     * started at the smallest unvisited index, or, for Cuthill-McKee, at an unvisited vertex of
+     * smallest degree and with neighbours taken by ascending degree; that order is then reversed.
+     */
+    private static int[] breadthFirst(CsrGraph graph, boolean cuthillMcKee) {
+        int n = graph.nodeCount();
+        CsrGraph reverse = graph.reverse();
+        int[] degrees = new int[n];
+        for (int v = 0; v < n; v++) {
+            degrees[v] = graph.degree(v) + reverse.degree(v);
+        }
+        int[] starts = cuthillMcKee ? sortByDegree(degrees, true) : null;
+        boolean[] visited = new boolean[n];
+        int[] queue = new int[n];
+        long[] neighbours = new long[maxDegree(degrees)];
+        int tail = 0;
+        for (int s = 0; s < n; s++) {
+            int start = cuthillMcKee ? starts[s] : s;
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            queue[tail++] = start;
+            for (int head = tail - 1; head < tail; head++) {
+                int v = queue[head];
+                int found = unvisited(graph, v, visited, cuthillMcKee ? degrees : null, neighbours, 0);
+                found = unvisited(reverse, v, visited, cuthillMcKee ? degrees : null, neighbours, found);
+                if (cuthillMcKee) {
+                    Arrays.sort(neighbours, 0, found);
+                }
+                for (int i = 0; i < found; i++) {
+                    queue[tail++] = (int) neighbours[i];
+                }
+            }
+        }
+        if (cuthillMcKee) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                int swap = queue[i];
+                queue[i] = queue[j];
+                queue[j] = swap;
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Marks the unvisited neighbours of v visited and appends them to {@code found}, keyed by degree in
+     * the upper half if degrees are given.
+     *
+     * @return The new number of neighbours found.
+     */
+    private static int unvisited(CsrGraph graph, int v, boolean[] visited, int[] degrees, long[] found, int count) {
+        for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+            int w = graph.target(e);
+            if (!visited[w]) {
+                visited[w] = true;
+                found[count++] = degrees == null ? w : ((long) degrees[w] << 32) | w;
+            }
+        }
+        return count;
+    }
+
+    private static int[] byDegree(CsrGraph graph) {
+        CsrGraph reverse = graph.reverse();
+        int[] degrees = new int[graph.nodeCount()];
+        for (int v = 0; v < degrees.length; v++) {
+            degrees[v] = graph.degree(v) + reverse.degree(v);
+        }
+        return sortByDegree(degrees, false);
+    }
+
+    /**
+     * Counting sort of the vertices by degree, ascending or descending; ties keep index order.
+     */
+    private static int[] sortByDegree(int[] degrees, boolean ascending) {
+        int max = maxDegree(degrees);
+        int[] starts = new int[max + 2];
+        for (int degree : degrees) {
+            starts[(ascending ? degree : max - degree) + 1]++;
+        }
+        for (int d = 0; d <= max; d++) {
+            starts[d + 1] += starts[d];
+        }
+        int[] sorted = new int[degrees.length];
+        for (int v = 0; v < degrees.length; v++) {
+            sorted[starts[ascending ? degrees[v] : max - degrees[v]]++] = v;
+        }
+        return sorted;
+    }
+
+    private static int maxDegree(int[] degrees) {
+        int max = 0;
+        for (int degree : degrees) {
+            max = Math.max(max, degree);
+        }
+        return max;
+    }
+
+    /**
+     * Rebuilds the CSR arrays with node {@code permutation[i]} at index {@code i}, keeping every row
+     * sorted by target.
+     */
+    private static CsrGraph relabel(CsrGraph graph, int[] permutation, int[] inverse) {
+        int n = graph.nodeCount();
+        int[] ids = new int[n];
+        int[] offsets = new int[n + 1];
+        int widest = 0;
+        for (int i = 0; i < n; i++) {
+            ids[i] = graph.id(permutation[i]);
+            offsets[i + 1] = offsets[i] + graph.degree(permutation[i]);
+            widest = Math.max(widest, graph.degree(permutation[i]));
+        }
+        int[] targets = new int[graph.edgeCount()];
+        int[] weights = new int[graph.edgeCount()];
+        long[] row = new long[widest];
+        for (int i = 0; i < n; i++) {
+            int v = permutation[i];
+            int degree = 0;
+            for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                row[degree++] = ((long) inverse[graph.target(e)] << 32) | (graph.weight(e) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(row, 0, degree);
+            for (int k = 0; k < degree; k++) {
+                targets[offsets[i] + k] = (int) (row[k] >>> 32);
+                weights[offsets[i] + k] = (int) row[k];
+            }
+        }
+        return new CsrGraph(ids, offsets, targets, weights);
+    }
+}
@@ -0,0 +1,591 @@
+package org.graph;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A long-running HTTP server that keeps a graph resident and answers queries against it, so that
+ * clients pay neither JVM startup nor graph construction per query. It uses the JDK's built-in
+ * {@link HttpServer} and answers with small JSON documents:
+ * <ul>
+ *     <li>{@code GET /path?from=1&to=5}: the shortest path and its distance, -1 if unreachable.</li>
+ *     <li>{@code GET /eccentricity?node=3}: the eccentricity of a node.</li>
+ *     <li>{@code GET /properties}: the radius, diameter, center and periphery, or {@code 202 Accepted}
+ *     while they are being computed.</li>
+ *     <li>{@code GET /graph}: the version and size of the resident graph.</li>
+ *     <li>{@code GET /cache}: the size and hit, miss and eviction counts of the shortest path tree cache.</li>
+ *     <li>{@code GET /metrics}: the {@link GraphMetrics} counters, all zero unless metrics are enabled.</li>
+ *     <li>{@code POST /graph?file=graph.bin&format=binary} (or {@code adjacency}, {@code tsv},
+ *     {@code csv}) or {@code POST /graph?nodes=1000&edges=5000&seed=7}: loads or generates a new graph
+ *     and swaps it in.</li>
+ * </ul>
+ * The server has no authentication, so it listens on the loopback address unless
+ * {@link Builder#bindAddress(InetAddress)} says otherwise. Graphs are only loaded from files inside
+ * the {@link Builder#dataDirectory(Path) data directory}, and not at all without one, and generated
+ * graphs are limited to {@link Builder#maxGeneratedEdges(int)} nodes and edges, so that a request can
+ * neither read arbitrary files nor exhaust the heap.
+ * <p>
+ * Requests run on a fixed pool of threads with a bounded queue. When the queue is full, the request is
+ * answered with {@code 503 Service Unavailable} and a {@code Retry-After} header instead of being
+ * queued. Those answers are written by a thread of their own, so that a slow client cannot stall the
+ * thread that accepts connections; only if that thread falls behind by {@value #REJECTION_BACKLOG}
+ * answers does the accepting thread write them itself.
+ * <p>
+ * The graph and the indexes derived from it live in an immutable snapshot behind an
+ * {@link AtomicReference}. Each request reads the reference once, so a swap never blocks or disturbs
+ * requests in flight: they finish on the snapshot they started with. Path and eccentricity queries go
+ * through a {@link ShortestPathTreeCache} keyed by the snapshot version, so repeated sources are
+ * answered from their cached tree and a swap invalidates every cached tree.
+ * <p>
+ * The properties need a search from every vertex, which can take hours on the largest graphs, so they
+ * are computed on a thread of their own rather than on a request thread. The first request starts the
+ * computation and, like every request until it is done, is answered with {@code 202 Accepted} and a
+ * {@code Retry-After} header; later requests get the result. A swap abandons the computation for the
+ * previous graph if it has not started yet.
+ * <p>
+ * Binary graph files are mapped and then copied onto the heap rather than served mapped: the searches
+ * and indexes behind every endpoint work on the arrays of a {@link CsrGraph}, and a resident copy cannot
+ * be corrupted by a later rewrite of the file in the data directory.
+ */
+public class GraphServer {
+    /**
+     * The default for {@link Builder#maxGeneratedEdges(int)}.
+     */
+    public static final int DEFAULT_MAX_GENERATED_EDGES = 10_000_000;
+    static final int REJECTION_BACKLOG = 1024;
+
+    // Set while a rejected request runs, so that it is answered with 503.
+    private static final ThreadLocal<Boolean> OVERLOADED = ThreadLocal.withInitial(() -> false);
+
+    private final AtomicReference<Snapshot> snapshot;
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor rejections;
+    private final ThreadPoolExecutor properties;
+    private final ShortestPathTreeCache cache;
+    private final Path dataDirectory;
+    private final int maxGeneratedEdges;
+
+    /**
+     * Creates a server for a graph on the loopback address with a 256 MB shortest path tree cache and
+     * without file loading; call {@link #start()} to begin serving.
+     *
+     * @param graph         The graph to serve.
+     * @param port          The port to listen on, or 0 for any free port.
+     * @param threads       The number of threads answering requests.
+     * @param queueCapacity The number of requests that may wait for a thread; 0 for none.
+     * @throws IOException if the port cannot be bound.
+     */
+    public GraphServer(CsrGraph graph, int port, int threads, int queueCapacity) throws IOException {
+        this(graph, port, threads, queueCapacity, 256L << 20);
+    }
+
+    /**
+     * Creates a server for a graph on the loopback address and without file loading; call
+     * {@link #start()} to begin serving.
+     *
+     * @param graph         The graph to serve.
+     * @param port          The port to listen on, or 0 for any free port.
+     * @param threads       The number of threads answering requests.
+     * @param queueCapacity The number of requests that may wait for a thread; 0 for none.
+     * @param cacheBytes    The memory budget of the shortest path tree cache.
+     * @throws IOException if the port cannot be bound.
+     */
+    public GraphServer(CsrGraph graph, int port, int threads, int queueCapacity, long cacheBytes) throws IOException {
+        this(builder(graph).port(port).threads(threads).queueCapacity(queueCapacity).cacheBytes(cacheBytes));
+    }
+
+    private GraphServer(Builder builder) throws IOException {
+        if (builder.threads < 1 || builder.queueCapacity < 0) {
+            throw new IllegalArgumentException("Invalid thread count " + builder.threads + " or queue capacity " + builder.queueCapacity + ".");
+        }
+        if (builder.maxGeneratedEdges < 0) {
+            throw new IllegalArgumentException("Invalid maximum generated edge count " + builder.maxGeneratedEdges + ".");
+        }
+        dataDirectory = builder.dataDirectory != null ? builder.dataDirectory.toRealPath() : null;
+        maxGeneratedEdges = builder.maxGeneratedEdges;
+        snapshot = new AtomicReference<>(new Snapshot(builder.graph, 1));
+        cache = new ShortestPathTreeCache(builder.cacheBytes);
+        rejections = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(REJECTION_BACKLOG),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // One computation may run and one, for the current graph, wait behind it.
+        properties = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        BlockingQueue<Runnable> queue = builder.queueCapacity == 0
+                ? new SynchronousQueue<>()
+                : new ArrayBlockingQueue<>(builder.queueCapacity);
+        executor = new ThreadPoolExecutor(builder.threads, builder.threads, 0, TimeUnit.SECONDS, queue,
+                (request, pool) -> rejections.execute(() -> {
+                    OVERLOADED.set(true);
+                    try {
+                        request.run();
+                    } finally {
+                        OVERLOADED.set(false);
+                    }
+                }));
+        server = HttpServer.create(new InetSocketAddress(builder.bindAddress, builder.port), 0);
+        server.setExecutor(executor);
+        server.createContext("/path", exchange -> handle(exchange, "GET", this::path));
+        server.createContext("/eccentricity", exchange -> handle(exchange, "GET", this::eccentricity));
+        server.createContext("/properties", exchange -> handle(exchange, "GET", this::properties));
+        server.createContext("/cache", exchange -> handle(exchange, "GET", this::cacheInfo));
+        server.createContext("/metrics", exchange -> handle(exchange, "GET", this::metrics));
+        server.createContext("/graph", exchange -> {
+            boolean post = "POST".equals(exchange.getRequestMethod());
+            handle(exchange, post ? "POST" : "GET", post ? this::swap : this::graphInfo);
+        });
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, giving requests in flight up to the given number of seconds to finish.
+     *
+     * @param delaySeconds The longest time to wait for requests in flight.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        rejections.shutdown();
+        properties.shutdownNow();
+    }
+
+    /**
+     * Starts building a server for a graph, listening on any free port of the loopback address.
+     *
+     * @param graph The graph to serve.
+     * @return A builder with the defaults of {@link #GraphServer(CsrGraph, int, int, int)}.
+     */
+    public static Builder builder(CsrGraph graph) {
+        return new Builder(graph);
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return The address the server listens on.
+     */
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    /**
+     * Replaces the served graph. Requests in flight finish on the previous graph.
+     *
+     * @param graph The new graph.
+     * @return The version of the new graph; versions start at 1 and grow by one per swap.
+     */
+    public long swap(CsrGraph graph) {
+        while (true) {
+            Snapshot current = snapshot.get();
+            Snapshot next = new Snapshot(graph, current.version + 1);
+            if (snapshot.compareAndSet(current, next)) {
+                cache.invalidate();
+                current.abandonProperties();
+                properties.purge();
+                return next.version;
+            }
+        }
+    }
+
+    /**
+     * @return The cache of shortest path trees behind path and eccentricity queries.
+     */
+    public ShortestPathTreeCache cache() {
+        return cache;
+    }
+
+    /**
+     * @return The graph currently served.
+     */
+    public CsrGraph graph() {
+        return snapshot.get().graph;
+    }
+
+    /**
+     * @return The pool that answers requests, e.g. for tests that need every thread busy.
+     */
+    ThreadPoolExecutor executor() {
+        return executor;
+    }
+
+    /**
+     * @return The thread that computes the graph properties, e.g. for tests that need it busy.
+     */
+    ThreadPoolExecutor propertiesExecutor() {
+        return properties;
+    }
+
+    private String path(Snapshot current, Map<String, String> query) {
+        int from = intParameter(query, "from");
+        int to = intParameter(query, "to");
+        List<Integer> path = Collections.emptyList();
+        int distance = Integer.MAX_VALUE;
+        if (current.graph.containsVertex(from)) {
+            ShortestPathTree tree = cache.tree(current.graph, current.version, from);
+            path = tree.path(to);
+            distance = tree.distance(to);
+        }
+        return "{\"from\":" + from + ",\"to\":" + to + ",\"distance\":" + (distance == Integer.MAX_VALUE ? -1 : distance)
+                + ",\"path\":" + path.toString().replace(" ", "") + "}";
+    }
+
+    private String eccentricity(Snapshot current, Map<String, String> query) {
+        int node = intParameter(query, "node");
+        EccentricityResult computed = current.computedProperties();
+        int eccentricity = computed != null
+                ? computed.eccentricity(node)
+                : cache.tree(current.graph, current.version, node).eccentricity();
+        return "{\"node\":" + node + ",\"eccentricity\":" + eccentricity + "}";
+    }
+
+    private String properties(Snapshot current, Map<String, String> query) {
+        EccentricityResult result = current.properties(properties);
+        return "{\"radius\":" + result.radius() + ",\"diameter\":" + result.diameter()
+                + ",\"center\":" + result.center().toString().replace(" ", "")
+                + ",\"periphery\":" + result.periphery().toString().replace(" ", "") + "}";
+    }
+
+    private String cacheInfo(Snapshot current, Map<String, String> query) {
+        return "{\"trees\":" + cache.size() + ",\"bytes\":" + cache.sizeInBytes() + ",\"hits\":" + cache.hits()
+                + ",\"misses\":" + cache.misses() + ",\"evictions\":" + cache.evictions() + "}";
+    }
+
+    private String metrics(Snapshot current, Map<String, String> query) {
+        MetricsSnapshot metrics = GraphMetrics.snapshot();
+        return "{\"enabled\":" + GraphMetrics.ENABLED + ",\"searches\":" + metrics.searches()
+                + ",\"searchNanos\":" + metrics.searchNanos() + ",\"relaxations\":" + metrics.relaxations()
+                + ",\"heapPushes\":" + metrics.heapPushes() + ",\"heapPops\":" + metrics.heapPops()
+                + ",\"decreaseKeys\":" + metrics.decreaseKeys() + ",\"settled\":" + metrics.settled()
+                + ",\"bfsTraversals\":" + metrics.bfsTraversals() + ",\"bfsMaxFrontier\":" + metrics.bfsMaxFrontier() + "}";
+    }
+
+    private String graphInfo(Snapshot current, Map<String, String> query) {
+        return "{\"version\":" + current.version + ",\"nodes\":" + current.graph.nodeCount()
+                + ",\"edges\":" + current.graph.edgeCount() + "}";
+    }
+
+    private String swap(Snapshot current, Map<String, String> query) throws IOException {
+        CsrGraph graph;
+        String file = query.get("file");
+        if (file != null) {
+            Path path = dataFile(file);
+            String format = query.getOrDefault("format", "binary");
+            if (format.equals("binary")) {
+                // Copied, not served mapped; see the class comment.
+                graph = GraphFile.map(path).toCsrGraph();
+            } else {
+                graph = GraphText.read(path, GraphText.Format.valueOf(format.toUpperCase()));
+            }
+        } else {
+            int nodes = intParameter(query, "nodes");
+            int edges = intParameter(query, "edges");
+            if (nodes > maxGeneratedEdges || edges > maxGeneratedEdges) {
+                throw new IllegalArgumentException("At most " + maxGeneratedEdges + " nodes and edges may be generated.");
+            }
+            String seed = query.get("seed");
+            graph = seed != null
+                    ? GraphGenerator.generateCsrGraph(nodes, edges, Long.parseLong(seed))
+                    : GraphGenerator.generateCsrGraph(nodes, edges);
+        }
+        long version = swap(graph);
+        return "{\"version\":" + version + ",\"nodes\":" + graph.nodeCount() + ",\"edges\":" + graph.edgeCount() + "}";
+    }
+
+    /**
+     * Resolves a file name against the data directory, following links, and rejects it unless the
+     * file is inside that directory.
+     *
+     * @throws IOException if the file does not exist.
+     */
+    private Path dataFile(String file) throws IOException {
+        if (dataDirectory == null) {
+            throw new IllegalArgumentException("Loading graphs from files is disabled.");
+        }
+        Path path = dataDirectory.resolve(file).normalize();
+        if (!path.startsWith(dataDirectory) || !path.toRealPath().startsWith(dataDirectory)) {
+            throw new IllegalArgumentException("The file '" + file + "' is outside the data directory.");
+        }
+        return path.toRealPath();
+    }
+
+    private void handle(HttpExchange exchange, String method, Handler handler) throws IOException {
+        try {
+            if (OVERLOADED.get()) {
+                throw new Unavailable(503, "{\"error\":\"The server is overloaded.\"}");
+            } else if (!method.equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "{\"error\":\"Method " + exchange.getRequestMethod() + " is not allowed.\"}");
+            } else {
+                String body = handler.handle(snapshot.get(), parseQuery(exchange.getRequestURI().getRawQuery()));
+                respond(exchange, 200, body);
+            }
+        } catch (Unavailable e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, e.status, e.body);
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, "{\"error\":\"" + escape(e.getMessage()) + "\"}");
+        } catch (IOException | RuntimeException e) {
+            respond(exchange, 500, "{\"error\":\"" + escape(String.valueOf(e.getMessage())) + "\"}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static int intParameter(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter '" + name + "'.");
+        }
+        return Integer.parseInt(value);
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Configures a {@link GraphServer}. Everything but the graph is optional.
+     */
+    public static final class Builder {
+        private final CsrGraph graph;
+        private InetAddress bindAddress = InetAddress.getLoopbackAddress();
+        private int port;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+        private long cacheBytes = 256L << 20;
+        private Path dataDirectory;
+        private int maxGeneratedEdges = DEFAULT_MAX_GENERATED_EDGES;
+
+        private Builder(CsrGraph graph) {
+            this.graph = graph;
+        }
+
+        /**
+         * @param bindAddress The address to listen on, the loopback address by default; a wildcard
+         *                    address exposes the unauthenticated server on every interface.
+         * @return This builder.
+         */
+        public Builder bindAddress(InetAddress bindAddress) {
+            this.bindAddress = bindAddress;
+            return this;
+        }
+
+        /**
+         * @param port The port to listen on, or 0 for any free port (the default).
+         * @return This builder.
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * @param threads The number of threads answering requests, all processors by default.
+         * @return This builder.
+         */
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity The number of requests that may wait for a thread, 1024 by default; 0 for none.
+         * @return This builder.
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param cacheBytes The memory budget of the shortest path tree cache, 256 MB by default.
+         * @return This builder.
+         */
+        public Builder cacheBytes(long cacheBytes) {
+            this.cacheBytes = cacheBytes;
+            return this;
+        }
+
+        /**
+         * @param dataDirectory The directory that {@code POST /graph?file=} may load from; file names
+         *                      are resolved against it. Null, the default, disables file loading.
+         * @return This builder.
+         */
+        public Builder dataDirectory(Path dataDirectory) {
+            this.dataDirectory = dataDirectory;
+            return this;
+        }
+
+        /**
+         * @param maxGeneratedEdges The largest node and edge count of a graph generated by
+         *                          {@code POST /graph}; {@value GraphServer#DEFAULT_MAX_GENERATED_EDGES} by default.
+         * @return This builder.
+         */
+        public Builder maxGeneratedEdges(int maxGeneratedEdges) {
+            this.maxGeneratedEdges = maxGeneratedEdges;
+            return this;
+        }
+
+        /**
+         * Creates the server; call {@link GraphServer#start()} to begin serving.
+         *
+         * @return The server.
+         * @throws IOException if the port cannot be bound or the data directory does not exist.
+         */
+        public GraphServer build() throws IOException {
+            return new GraphServer(this);
+        }
+    }
+
+    /**
+     * Answers a request that cannot be served yet, with a status and a body of its own and a
+     * {@code Retry-After} header.
+     */
+    private static final class Unavailable extends RuntimeException {
+        final int status;
+        final String body;
+
+        Unavailable(int status, String body) {
+            super(body, null, false, false);
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        String handle(Snapshot current, Map<String, String> query) throws IOException;
+    }
+
+    /**
+     * A graph with its version and the properties derived from it, which are computed on first use.
+     */
+    private static final class Snapshot {
+        final CsrGraph graph;
+        final long version;
+        final AtomicReference<Future<EccentricityResult>> properties = new AtomicReference<>();
+
+        Snapshot(CsrGraph graph, long version) {
+            this.graph = graph;
+            this.version = version;
+        }
+
+        /**
+         * Returns the properties of the graph, starting their computation on the given executor if no
+         * request has yet.
+         *
+         * @throws Unavailable with status 202 while the properties are computed, or 503 if the executor
+         *                     is busy with the properties of a previous graph and one waiting behind it.
+         */
+        EccentricityResult properties(ThreadPoolExecutor executor) {
+            Future<EccentricityResult> future = properties.get();
+            if (future == null) {
+                FutureTask<EccentricityResult> task = new FutureTask<>(() -> GraphProperties.properties(graph));
+                if (properties.compareAndSet(null, task)) {
+                    try {
+                        executor.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        properties.set(null);
+                        throw new Unavailable(503, "{\"error\":\"The properties of another graph are being computed.\"}");
+                    }
+                }
+                future = properties.get();
+            }
+            if (future == null || !future.isDone()) {
+                throw new Unavailable(202, "{\"status\":\"The properties are being computed.\"}");
+            }
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                // Let the next request try again.
+                properties.compareAndSet(future, null);
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        /**
+         * @return The properties if they have been computed, or null.
+         */
+        EccentricityResult computedProperties() {
+            Future<EccentricityResult> future = properties.get();
+            if (future == null || !future.isDone() || future.isCancelled()) {
+                return null;
+            }
+            try {
+                return future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Cancels the computation of the properties unless it has started, after a swap.
+         */
+        void abandonProperties() {
+            Future<EccentricityResult> future = properties.get();
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package org.graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reads and writes graphs as text, streaming in both directions so that memory use does not grow
+ * with the size of the text.
+ * <p>
+ * Writers encode numbers straight into a fixed-size byte buffer that is flushed to the channel
+ * whenever it fills up. Readers map the file in chunks that end at line breaks and parse the chunks
+ * in parallel, byte by byte, each into its own {@link CsrGraph.Builder}; the builders are then
+ * combined in file order. All formats are line-oriented, and lines without numbers (such as the
+ * braces of the adjacency format or a CSV header) or starting with {@code #} are skipped.
+ */
+public class GraphText {
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long CHUNK_BYTES = 1L << 26;
+
+    /**
+     * The supported text formats.
+     */
+    public enum Format {
+        /**
+         * The format of {@link GraphUtil#printGraph(java.util.Map)}: one line per node such as
+         * {@code :1 [(: 2 7), (: 3 4)]}, enclosed in braces.
+         */
+        ADJACENCY,
+        /**
+         * One edge per line as {@code from<TAB>to<TAB>weight}, and a line with just the id for each
+         * node without outgoing edges, so that isolated nodes survive a round trip.
+         */
+        TSV,
+        /**
+         * One edge per line as {@code from,to,weight}, and a line with just the id for each node
+         * without outgoing edges, as for {@link #TSV}.
+         */
+        CSV
+    }
+
+    /**
+     * Writes a graph to a file, replacing an existing one.
+     *
+     * @param graph  The graph.
+     * @param path   The file to write.
+     * @param format The text format.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(IndexedGraph graph, Path path, Format format) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(graph, channel, format);
+        }
+    }
+
+    /**
+     * Writes a graph to a channel, e.g. {@code Channels.newChannel(System.out)}. The channel is not closed.
+     *
+     * @param graph   The graph.
+     * @param channel The channel to write to.
+     * @param format  The text format.
+     * @throws IOException if the channel cannot be written.
+     */
+    public static void write(IndexedGraph graph, WritableByteChannel channel, Format format) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        byte[] digits = new byte[11];
+        int n = graph.nodeCount();
+        if (format == Format.ADJACENCY) {
+            putAscii(buffer, "{\n");
+        }
+        for (int v = 0; v < n; v++) {
+            if (format == Format.ADJACENCY) {
+                putAscii(buffer, "  :");
+                putInt(buffer, digits, graph.id(v));
+                putAscii(buffer, " [");
+            }
+            if (format != Format.ADJACENCY && graph.edgeStart(v) == graph.edgeEnd(v)) {
+                if (buffer.remaining() < 64) {
+                    flush(channel, buffer);
+                }
+                putInt(buffer, digits, graph.id(v));
+                buffer.put((byte) '\n');
+            }
+            for (int e = graph.edgeStart(v), end = graph.edgeEnd(v); e < end; e++) {
+                if (buffer.remaining() < 64) {
+                    flush(channel, buffer);
+                }
+                if (format == Format.ADJACENCY) {
+                    putAscii(buffer, e == graph.edgeStart(v) ? "(: " : ", (: ");
+                    putInt(buffer, digits, graph.id(graph.target(e)));
+                    buffer.put((byte) ' ');
+                    putInt(buffer, digits, graph.weight(e));
+                    buffer.put((byte) ')');
+                } else {
+                    byte separator = (byte) (format == Format.TSV ? '\t' : ',');
+                    putInt(buffer, digits, graph.id(v));
+                    buffer.put(separator);
+                    putInt(buffer, digits, graph.id(graph.target(e)));
+                    buffer.put(separator);
+                    putInt(buffer, digits, graph.weight(e));
+                    buffer.put((byte) '\n');
+                }
+            }
+            if (buffer.remaining() < 64) {
+                flush(channel, buffer);
+            }
+            if (format == Format.ADJACENCY) {
+                putAscii(buffer, v < n - 1 ? "],\n" : "]\n");
+            }
+        }
+        if (format == Format.ADJACENCY) {
+            putAscii(buffer, "}\n");
+        }
+        flush(channel, buffer);
+    }
+
+    /**
+     * Reads a graph from a file. Nodes that only appear as edge targets are included as well, and
+     * duplicate edges keep the smallest weight as in {@link CsrGraph.Builder}.
+     *
+     * @param path   The file to read.
+     * @param format The text format.
+     * @return The graph in CSR form.
+     * @throws IOException if the file cannot be read or a line is malformed.
+     */
+    public static CsrGraph read(Path path, Format format) throws IOException {
+        return read(path, format, CHUNK_BYTES);
+    }
+
+    static CsrGraph read(Path path, Format format, long chunkBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] starts = chunkStarts(channel, chunkBytes);
+            List<CsrGraph.Builder> parts;
+            try {
+                parts = IntStream.range(0, starts.length - 1).parallel()
+                        .mapToObj(c -> parseChunk(channel, starts[c], starts[c + 1], format, path))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            CsrGraph.Builder builder = parts.get(0);
+            for (int c = 1; c < parts.size(); c++) {
+                builder.addAll(parts.get(c));
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Splits the file into chunks of about {@code chunkBytes} that each end just after a line break.
+     */
+    private static long[] chunkStarts(FileChannel channel, long chunkBytes) throws IOException {
+        long size = channel.size();
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = chunkBytes;
+        while (position < size) {
+            long lineEnd = -1;
+            while (lineEnd < 0 && position < size) {
+                probe.clear();
+                int read = channel.read(probe, position);
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        lineEnd = position + i + 1;
+                        break;
+                    }
+                }
+                position += Math.max(read, 0);
+            }
+            if (lineEnd < 0 || lineEnd >= size) {
+                break;
+            }
+            starts.add(lineEnd);
+            position = lineEnd + chunkBytes;
+        }
+        starts.add(size);
+        return starts.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static CsrGraph.Builder parseChunk(FileChannel channel, long start, long end, Format format, Path path) {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        if (end == start) {
+            return builder;
+        }
+        MappedByteBuffer bytes;
+        try {
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        boolean adjacency = format == Format.ADJACENCY;
+        int limit = bytes.limit();
+        int lineStart = 0;
+        int count = 0;
+        int from = 0;
+        int to = 0;
+        int weight = 0;
+        boolean comment = false;
+        boolean lineBegun = false;
+        for (int i = 0; i <= limit; i++) {
+            byte b = i < limit ? bytes.get(i) : (byte) '\n';
+            if (b == '\n') {
+                if (!comment && (adjacency ? count > 0 && count % 2 == 0 : count == 2 || count > 3)) {
+                    throw malformed(path, start + lineStart);
+                }
+                if (!adjacency && count == 3) {
+                    builder.addEdge(from, to, weight);
+                } else if (!adjacency && count == 1) {
+                    builder.addVertex(from);
+                }
+                count = 0;
+                comment = false;
+                lineBegun = false;
+                lineStart = i + 1;
+                continue;
+            }
+            if (comment) {
+                continue;
+            }
+            if (!lineBegun && b != ' ' && b != '\t' && b != '\r') {
+                lineBegun = true;
+                if (b == '#') {
+                    comment = true;
+                    continue;
+                }
+            }
+            boolean negative = b == '-' && i + 1 < limit && isDigit(bytes.get(i + 1));
+            if (!negative && !isDigit(b)) {
+                continue;
+            }
+            // Parse one number and leave i on its last digit.
+            int j = negative ? i + 1 : i;
+            long value = 0;
+            while (j < limit && isDigit(bytes.get(j))) {
+                value = value * 10 + (bytes.get(j) - '0');
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw malformed(path, start + lineStart);
+                }
+                j++;
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw malformed(path, start + lineStart);
+            }
+            i = j - 1;
+            int number = (int) value;
+
+            if (adjacency) {
+                if (count == 0) {
+                    from = number;
+                    builder.addVertex(from);
+                } else if (count % 2 == 1) {
+                    to = number;
+                } else {
+                    builder.addEdge(from, to, number);
+                }
+            } else if (count == 0) {
+                from = number;
+            } else if (count == 1) {
+                to = number;
+            } else if (count == 2) {
+                weight = number;
+            }
+            count++;
+        }
+        return builder;
+    }
+
+    private static UncheckedIOException malformed(Path path, long offset) {
+        return new UncheckedIOException(new IOException("Malformed line at byte " + offset + " of " + path + "."));
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static void putAscii(ByteBuffer buffer, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    private static void putInt(ByteBuffer buffer, byte[] digits, int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            buffer.put((byte) '-');
+            remaining = -remaining;
+        }
+        int k = digits.length;
+        do {
+            digits[--k] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        buffer.put(digits, k, digits.length - k);
+    }
+
+    private static void flush(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -1,10 +1,21 @@
 package org.graph;
 
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.stream.Collectors;
 
 /**
  * Utility class for graph-related operations.
@@ -18,8 +29,7 @@ public class GraphUtil {
      * @return The generated graph as a map of nodes to edges.
      */
     public static Map<Integer, List<Edge>> createGraphFromArgs(String[] args) {
-        if (args.length < 4) {
-            System.out.println("Usage: java -jar graph.jar -N <number_of_vertices> -S <number_of_edges>");
+        if (!hasGraphSize(args)) {
             return null;
         }
 
@@ -35,41 +45,102 @@ public class GraphUtil {
     }
 
     /**
-     * Prints the graph in a readable format.
+     * Creates a graph in CSR form from command line arguments, without building it as a map first.
+     *
+     * @param args The command line arguments.
+     * @return The generated graph in CSR form, or null if the arguments are missing or invalid.
+     */
+    public static CsrGraph createCsrGraphFromArgs(String[] args) {
+        if (!hasGraphSize(args)) {
+            return null;
+        }
+
+        int N = Integer.parseInt(args[1]);
+        int S = Integer.parseInt(args[3]);
+
+        try {
+            return GraphGenerator.generateCsrGraph(N, S);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace(); // Print stack trace explicitly
+            return null;
+        }
+    }
+
+    /**
+     * Prints the usage unless the arguments name the number of vertices and edges.
+     */
+    private static boolean hasGraphSize(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: java -jar graph.jar -N <number_of_vertices> -S <number_of_edges>"
+                    + " [--batch <query_file|-> [--threads <n>] [--unordered]]"
+                    + " [--serve <port> [--threads <n>] [--queue <n>] [--bind <address>] [--data-dir <dir>]]");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Prints the graph in a readable format, one node at a time so that the text of the whole
+     * graph is never held in memory.
      *
      * @param graph The graph to print.
      */
     public static void printGraph(Map<Integer, List<Edge>> graph) {
         System.out.println("{");
-        String graphString = graph.entrySet().stream()
-                .map(entry -> "  :" + entry.getKey() + " [" +
-                        entry.getValue().stream()
-                                .map(Edge::toString)
-                                .collect(Collectors.joining(", ")) + "]")
-                .collect(Collectors.joining(",\n"));
-        System.out.println(graphString);
+        int remaining = graph.size();
+        for (Map.Entry<Integer, List<Edge>> entry : graph.entrySet()) {
+            System.out.print("  :" + entry.getKey() + " [");
+            List<Edge> edges = entry.getValue();
+            for (int i = 0; i < edges.size(); i++) {
+                System.out.print(i == 0 ? edges.get(i).toString() : ", " + edges.get(i));
+            }
+            System.out.println(--remaining > 0 ? "]," : "]");
+        }
         System.out.println("}");
     }
 
+    /**
+     * Prints a graph in CSR form, on the heap or memory-mapped, in the same format as
+     * {@link #printGraph(Map)}, streaming it through a fixed-size buffer.
+     *
+     * @param graph The graph to print.
+     */
+    public static void printGraph(IndexedGraph graph) {
+        try {
+            GraphText.write(graph, Channels.newChannel(System.out), GraphText.Format.ADJACENCY);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.out.flush();
+    }
+
     /**
      * Prints the properties of the graph such as eccentricity, radius, and diameter.
      *
      * @param graph The graph to print the properties of.
      */
     public static void printGraphProperties(Map<Integer, List<Edge>> graph) {
+        printGraphProperties(CsrGraph.fromMap(graph));
+    }
+
+    /**
+     * Prints the properties of a graph in CSR form such as eccentricity, radius, and diameter.
+     *
+     * @param graph The graph to print the properties of.
+     */
+    public static void printGraphProperties(CsrGraph graph) {
         System.out.println("Graph Properties:");
 
         // Select a random node
-        List<Integer> nodes = new ArrayList<>(graph.keySet());
         Random rand = new Random();
-        int randomNode = nodes.get(rand.nextInt(nodes.size()));
+        int randomNode = graph.id(rand.nextInt(graph.nodeCount()));
 
-        // Calculate the eccentricity of the random node
-        int eccentricity = GraphProperties.eccentricity(graph, randomNode);
-        System.out.println("Eccentricity of node " + randomNode + ": " + eccentricity);
+        // Calculate all eccentricities once and derive the radius and diameter from them
+        EccentricityResult properties = GraphProperties.properties(graph);
+        System.out.println("Eccentricity of node " + randomNode + ": " + properties.eccentricity(randomNode));
 
-        System.out.println("Radius of the graph: " + GraphProperties.radius(graph));
-        System.out.println("Diameter of the graph: " + GraphProperties.diameter(graph));
+        System.out.println("Radius of the graph: " + properties.radius());
+        System.out.println("Diameter of the graph: " + properties.diameter());
     }
 
     /**
@@ -79,6 +150,16 @@ public class GraphUtil {
      * @param args  The command line arguments.
      */
     public static void printShortestPathBetweenRandomNodes(Map<Integer, List<Edge>> graph, String[] args) {
+        printShortestPathBetweenRandomNodes(CsrGraph.fromMap(graph), args);
+    }
+
+    /**
+     * Randomly selects two nodes of a graph in CSR form and prints the shortest path between them.
+     *
+     * @param graph The graph to analyze.
+     * @param args  The command line arguments.
+     */
+    public static void printShortestPathBetweenRandomNodes(CsrGraph graph, String[] args) {
         int N = Integer.parseInt(args[1]);
         Random rand = new Random();
         int start = rand.nextInt(N) + 1;
@@ -90,4 +171,131 @@ public class GraphUtil {
         List<Integer> shortestPath = Dijkstra.shortestPath(graph, start, end);
         System.out.println("Shortest path from " + start + " to " + end + ": " + shortestPath);
     }
+
+    /**
+     * Checks if the command line arguments ask for batch query mode.
+     *
+     * @param args The command line arguments.
+     * @return True if the {@code --batch} option is given.
+     */
+    public static boolean isBatchMode(String[] args) {
+        return optionValue(args, "--batch") != null;
+    }
+
+    /**
+     * Answers the shortest path queries named by the {@code --batch} option, a file or {@code -} for
+     * standard input, with {@link BatchQueries}. Results go to standard output and the throughput and
+     * latency summary to standard error. {@code --threads} sets the number of threads (all processors
+     * by default) and {@code --unordered} writes results as they complete, prefixed with their query id.
+     *
+     * @param graph The graph to query.
+     * @param args  The command line arguments.
+     * @throws IOException if the queries cannot be read or are malformed.
+     */
+    public static void runBatchQueries(Map<Integer, List<Edge>> graph, String[] args) throws IOException {
+        runBatchQueries(CsrGraph.fromMap(graph), args);
+    }
+
+    /**
+     * Answers the shortest path queries named by the {@code --batch} option against a graph in CSR
+     * form, as {@link #runBatchQueries(Map, String[])} does.
+     *
+     * @param graph The graph to query.
+     * @param args  The command line arguments.
+     * @throws IOException if the queries cannot be read or are malformed.
+     */
+    public static void runBatchQueries(CsrGraph graph, String[] args) throws IOException {
+        String source = optionValue(args, "--batch");
+        String threadsValue = optionValue(args, "--threads");
+        int threads = threadsValue != null ? Integer.parseInt(threadsValue) : Runtime.getRuntime().availableProcessors();
+        boolean ordered = Arrays.stream(args).noneMatch("--unordered"::equals);
+
+        Reader in = "-".equals(source)
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        try (Reader queries = in) {
+            BatchStats stats = BatchQueries.run(graph, queries, out, threads, ordered);
+            System.err.println(stats);
+        }
+    }
+
+    /**
+     * Prints the {@link GraphMetrics} counters to standard error if the JVM was started with
+     * {@code -Dgraph.metrics=true}, and does nothing otherwise.
+     */
+    public static void printMetrics() {
+        if (GraphMetrics.ENABLED) {
+            System.err.print("Metrics:\n" + GraphMetrics.snapshot());
+        }
+    }
+
+    /**
+     * Checks if the command line arguments ask for server mode.
+     *
+     * @param args The command line arguments.
+     * @return True if the {@code --serve} option is given.
+     */
+    public static boolean isServeMode(String[] args) {
+        return optionValue(args, "--serve") != null;
+    }
+
+    /**
+     * Starts a {@link GraphServer} for the graph on the port named by the {@code --serve} option and
+     * keeps it running until the JVM exits. {@code --threads} sets the number of request threads (all
+     * processors by default) and {@code --queue} the number of requests that may wait (1024 by default).
+     * The server listens on the loopback address unless {@code --bind} names another one, and loads
+     * graphs only from files in the {@code --data-dir} directory, if given.
+     *
+     * @param graph The graph to serve.
+     * @param args  The command line arguments.
+     * @return The started server.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static GraphServer startServer(Map<Integer, List<Edge>> graph, String[] args) throws IOException {
+        return startServer(CsrGraph.fromMap(graph), args);
+    }
+
+    /**
+     * Starts a {@link GraphServer} for a graph in CSR form, as {@link #startServer(Map, String[])} does.
+     *
+     * @param graph The graph to serve.
+     * @param args  The command line arguments.
+     * @return The started server.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static GraphServer startServer(CsrGraph graph, String[] args) throws IOException {
+        int port = Integer.parseInt(optionValue(args, "--serve"));
+        String threadsValue = optionValue(args, "--threads");
+        String queueValue = optionValue(args, "--queue");
+        int threads = threadsValue != null ? Integer.parseInt(threadsValue) : Runtime.getRuntime().availableProcessors();
+        int queue = queueValue != null ? Integer.parseInt(queueValue) : 1024;
+        String bind = optionValue(args, "--bind");
+        String dataDirectory = optionValue(args, "--data-dir");
+
+        GraphServer server = GraphServer.builder(graph)
+                .port(port)
+                .threads(threads)
+                .queueCapacity(queue)
+                .bindAddress(bind != null ? InetAddress.getByName(bind) : InetAddress.getLoopbackAddress())
+                .dataDirectory(dataDirectory != null ? Paths.get(dataDirectory) : null)
+                .build();
+        server.start();
+        System.out.println("Serving the graph on " + server.address());
+        return server;
+    }
+
+    /**
+     * Returns the value following an option name.
+     *
+     * @return The value, or null if the option or its value is missing.
+     */
+    static String optionValue(String[] args, String name) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
 }
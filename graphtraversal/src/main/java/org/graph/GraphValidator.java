@@ -1,7 +1,8 @@
 package org.graph;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -9,6 +10,7 @@ import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -30,14 +32,17 @@ public class GraphValidator {
     }
 
     /**
-     * Traverses the graph using BFS and returns a stream of nodes.
+     * Traverses the graph in the order of the given queue and returns a stream of nodes. The traversal
+     * is lazy: each element of the stream expands one node, so {@code findFirst()} or {@code limit()}
+     * only pay for the nodes they take. A FIFO queue gives BFS order, a LIFO queue a depth-first order
+     * and a priority queue best-first order.
      *
-     * @param queue      The queue used for BFS.
+     * @param queue      The queue that decides which node is expanded next.
      * @param graph      The graph as a map of nodes to edges.
      * @param start      The starting node.
      * @param edgeMapper A function to map edges to nodes.
      * @param <T>        The type of nodes.
-     * @return A stream of nodes in BFS order.
+     * @return A stream of nodes in the order they leave the queue.
      */
     public static <T> Stream<T> seqGraph(Queue<T> queue, Map<T, List<Edge>> graph, T start, Function<Edge, T> edgeMapper) {
         Set<T> explored = new HashSet<>();
@@ -62,7 +67,15 @@ public class GraphValidator {
     }
 
     /**
-     * Traverses the graph using BFS and returns a stream of nodes.
+     * Traverses the graph using BFS and returns a stream of nodes. The nodes are numbered and packed
+     * into a {@link CsrGraph}, and the traversal runs eagerly on {@link BreadthFirstSearch}; the stream
+     * only maps the visited indexes back to nodes. Nodes come level by level, in no particular order
+     * within a level.
+     * <p>
+     * The whole graph is indexed and searched before the first node is returned, which takes
+     * O(V + E) time and memory even for {@code findFirst()} or {@code limit()}. Callers that only take
+     * a few nodes should use {@link #seqGraph(Queue, Map, Object, Function)} with an {@code ArrayDeque},
+     * which traverses lazily.
      *
      * @param graph      The graph as a map of nodes to edges.
      * @param start      The starting node.
@@ -71,16 +84,83 @@ public class GraphValidator {
      * @return A stream of nodes in BFS order.
      */
     public static <T> Stream<T> seqGraphBfs(Map<T, List<Edge>> graph, T start, Function<Edge, T> edgeMapper) {
-        return seqGraph(new ArrayDeque<>(), graph, start, edgeMapper);
+        Map<T, Integer> indexes = new HashMap<>(graph.size() * 4 / 3 + 1);
+        List<T> nodes = new ArrayList<>(graph.size());
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addVertex(index(start, indexes, nodes));
+        graph.forEach((node, edges) -> {
+            int from = index(node, indexes, nodes);
+            builder.addVertex(from);
+            for (Edge edge : edges) {
+                builder.addEdge(from, index(edgeMapper.apply(edge), indexes, nodes), edge.getWeight());
+            }
+        });
+        // Node indexes are their ids, so the search yields the indexes into the node list.
+        return BreadthFirstSearch.run(builder.build(), 0).ids().mapToObj(nodes::get);
+    }
+
+    private static <T> int index(T node, Map<T, Integer> indexes, List<T> nodes) {
+        Integer index = indexes.putIfAbsent(node, nodes.size());
+        if (index == null) {
+            nodes.add(node);
+            return nodes.size() - 1;
+        }
+        return index;
     }
 
     /**
-     * Checks if the graph is connected.
+     * Checks if the graph is connected, i.e. every node is reachable from node 1, by running
+     * {@link BreadthFirstSearch} on the graph's CSR form. Nodes that only appear as edge targets are
+     * counted as reached.
      *
      * @param graph The graph as a map of nodes to edges.
      * @return True if the graph is connected, false otherwise.
      */
     public static boolean isGraphConnected(Map<Integer, List<Edge>> graph) {
-        return seqGraphBfs(graph, 1, Edge::getTo).count() == graph.size();
+        PhaseEvent event = GraphMetrics.ENABLED ? GraphMetrics.beginPhase(GraphMetrics.Phase.CONNECTIVITY) : null;
+        boolean connected = reachedFromNodeOne(CsrGraph.fromMap(graph)) == graph.size();
+        if (GraphMetrics.ENABLED) {
+            GraphMetrics.endPhase(event, GraphMetrics.Phase.CONNECTIVITY, graph.size());
+        }
+        return connected;
+    }
+
+    /**
+     * Traverses a graph in CSR form, on the heap or memory-mapped, using BFS and returns a stream of node ids.
+     * The traversal runs eagerly on {@link BreadthFirstSearch}; the stream only maps the visited
+     * indexes to ids. Nodes come level by level, in no particular order within a level.
+     *
+     * @param graph The graph in CSR form.
+     * @param start The starting node id.
+     * @return A stream of node ids in BFS order.
+     */
+    public static IntStream seqGraphBfs(IndexedGraph graph, int start) {
+        if (graph.indexOf(start) < 0) {
+            return IntStream.of(start);
+        }
+        return BreadthFirstSearch.run(graph, start).ids();
+    }
+
+    /**
+     * Checks if a graph in CSR form is connected, i.e. every node is reachable from node 1.
+     *
+     * @param graph The graph in CSR form, on the heap or memory-mapped.
+     * @return True if the graph is connected, false otherwise.
+     */
+    public static boolean isGraphConnected(IndexedGraph graph) {
+        PhaseEvent event = GraphMetrics.ENABLED ? GraphMetrics.beginPhase(GraphMetrics.Phase.CONNECTIVITY) : null;
+        boolean connected = reachedFromNodeOne(graph) == graph.nodeCount();
+        if (GraphMetrics.ENABLED) {
+            GraphMetrics.endPhase(event, GraphMetrics.Phase.CONNECTIVITY, graph.nodeCount());
+        }
+        return connected;
+    }
+
+    /**
+     * Counts the nodes reachable from node 1, counting node 1 even if the graph lacks it, as the
+     * streams above do.
+     */
+    private static int reachedFromNodeOne(IndexedGraph graph) {
+        return graph.indexOf(1) < 0 ? 1 : BreadthFirstSearch.run(graph, 1).reached();
     }
 }
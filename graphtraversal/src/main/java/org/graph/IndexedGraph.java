@@ -0,0 +1,48 @@
+package org.graph;
+
+/**
+ * Read access to a directed graph whose vertices are addressed by a dense index in
+ * {@code [0, nodeCount())} and whose outgoing edges occupy a contiguous range of edge positions,
+ * as in compressed sparse row form. Implemented by the heap-based {@link CsrGraph} and by
+ * {@link MappedGraph}, which reads the same arrays from a memory-mapped file, so that traversals
+ * written against this interface run on either. Its cursor steps through the same edge positions.
+ */
+public interface IndexedGraph extends NeighbourGraph {
+
+    /**
+     * @param index The vertex index.
+     * @return The position of the first outgoing edge of the vertex.
+     */
+    int edgeStart(int index);
+
+    /**
+     * @param index The vertex index.
+     * @return The position just past the last outgoing edge of the vertex.
+     */
+    int edgeEnd(int index);
+
+    /**
+     * @param edge The edge position.
+     * @return The index of the edge's destination vertex.
+     */
+    int target(int edge);
+
+    /**
+     * @param edge The edge position.
+     * @return The weight of the edge.
+     */
+    int weight(int edge);
+
+    /**
+     * @param index The vertex index.
+     * @return The number of outgoing edges of the vertex.
+     */
+    default int degree(int index) {
+        return edgeEnd(index) - edgeStart(index);
+    }
+
+    @Override
+    default EdgeCursor cursor() {
+        return new PositionCursor(this);
+    }
+}
@@ -0,0 +1,194 @@
+package org.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A 4-ary min-heap over primitive vertex indexes in {@code [0, capacity)} with int keys.
+ * Every vertex knows its position in the heap, so {@link #decreaseKey(int, int)} is a single
+ * O(log n) sift-up instead of the linear scan of {@code PriorityQueue.remove}, and comparisons
+ * read the keys from a primitive array instead of a boxed map.
+ */
+public final class IndexedMinHeap {
+    private static final int ARITY = 4;
+
+    private final int[] heap;
+    private final int[] keys;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity The number of vertices; vertex indexes must be in {@code [0, capacity)}.
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * @return True if the heap holds no vertices.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The number of vertices in the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param vertex The vertex index.
+     * @return True if the vertex is currently in the heap.
+     */
+    public boolean contains(int vertex) {
+        return positions[vertex] >= 0;
+    }
+
+    /**
+     * @param vertex The vertex index, which must be in the heap.
+     * @return The current key of the vertex.
+     */
+    public int key(int vertex) {
+        return keys[vertex];
+    }
+
+    /**
+     * @return The smallest key in the heap.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int minKey() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+        return keys[heap[0]];
+    }
+
+    /**
+     * Inserts a vertex that is not yet in the heap.
+     *
+     * @param vertex The vertex index.
+     * @param key    The key of the vertex.
+     */
+    public void insert(int vertex, int key) {
+        if (positions[vertex] >= 0) {
+            throw new IllegalArgumentException("Vertex " + vertex + " is already in the heap.");
+        }
+        keys[vertex] = key;
+        positions[vertex] = size;
+        heap[size] = vertex;
+        siftUp(size++);
+    }
+
+    /**
+     * Lowers the key of a vertex that is already in the heap.
+     *
+     * @param vertex The vertex index.
+     * @param key    The new key, which must not be larger than the current one.
+     */
+    public void decreaseKey(int vertex, int key) {
+        if (key > keys[vertex]) {
+            throw new IllegalArgumentException("Key " + key + " is larger than the current key " + keys[vertex] + ".");
+        }
+        keys[vertex] = key;
+        siftUp(positions[vertex]);
+    }
+
+    /**
+     * Inserts the vertex, or lowers its key if it is already in the heap.
+     *
+     * @param vertex The vertex index.
+     * @param key    The key of the vertex.
+     */
+    public void insertOrDecrease(int vertex, int key) {
+        if (positions[vertex] >= 0) {
+            decreaseKey(vertex, key);
+        } else {
+            insert(vertex, key);
+        }
+    }
+
+    /**
+     * Removes the vertex with the smallest key.
+     *
+     * @return The removed vertex index.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+        int min = heap[0];
+        positions[min] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes all vertices in O(size) time, so the heap can be reused for another search.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int vertex = heap[position];
+        int key = keys[vertex];
+        while (position > 0) {
+            int parentPosition = (position - 1) / ARITY;
+            int parent = heap[parentPosition];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = vertex;
+        positions[vertex] = position;
+    }
+
+    private void siftDown(int position) {
+        int vertex = heap[position];
+        int key = keys[vertex];
+        while (true) {
+            int firstChild = position * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int best = firstChild;
+            int bestKey = keys[heap[firstChild]];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                int childKey = keys[heap[child]];
+                if (childKey < bestKey) {
+                    best = child;
+                    bestKey = childKey;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            int child = heap[best];
+            heap[position] = child;
+            positions[child] = position;
+            position = best;
+        }
+        heap[position] = vertex;
+        positions[vertex] = position;
+    }
+}
@@ -0,0 +1,445 @@
+package org.graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A landmark index for repeated shortest-path queries on the same graph (the ALT technique: A*,
+ * landmarks and the triangle inequality).
+ * <p>
+ * For a few landmark vertices {@code L} the index stores {@code d(L, v)} and {@code d(v, L)} for every
+ * vertex {@code v}, so that {@code d(L, t) - d(L, v)} and {@code d(v, L) - d(t, L)} are lower bounds on
+ * {@code d(v, t)}. {@link #shortestPath(CsrGraph, int, int)} runs A* with the largest of these bounds
+ * as its heuristic, which steers the search towards the target and settles far fewer vertices than
+ * Dijkstra's algorithm. The tables are stored vertex-major, so the bounds of one vertex are adjacent.
+ * <p>
+ * The index can be built once, {@link #save(Path) saved}, and {@link #load(Path, CsrGraph) loaded}
+ * again at startup. The file holds big-endian values: the magic number {@code "GTLI"}, the format
+ * version, the node count, the landmark count {@code k}, a checksum of the graph as a long, then the
+ * {@code k} landmark indexes and the two tables of {@code nodeCount * k} distances each.
+ */
+public final class LandmarkIndex {
+    static final int MAGIC = 0x47544C49;
+    static final int VERSION = 1;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * How the landmarks are chosen.
+     */
+    public enum Selection {
+        /**
+         * Each landmark is the vertex farthest from the landmarks chosen so far.
+         */
+        FARTHEST,
+        /**
+         * Each landmark is a leaf of the shortest-path tree of a random root, reached by descending into
+         * the subtree whose distances the current landmarks bound worst (Goldberg and Werneck).
+         */
+        AVOID
+    }
+
+    private final int nodeCount;
+    private final long checksum;
+    private final int[] landmarks;
+    private final int[] fromLandmark;
+    private final int[] toLandmark;
+
+    private LandmarkIndex(int nodeCount, long checksum, int[] landmarks, int[] fromLandmark, int[] toLandmark) {
+        this.nodeCount = nodeCount;
+        this.checksum = checksum;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Selects landmarks and computes the distance tables to and from them, running a forward and a
+     * backward search per landmark.
+     *
+     * @param graph     The graph in CSR form.
+     * @param count     The number of landmarks; at most {@code graph.nodeCount()} are used.
+     * @param selection How to choose the landmarks.
+     * @return The landmark index.
+     */
+    public static LandmarkIndex build(CsrGraph graph, int count, Selection selection) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one landmark is required. Given: " + count);
+        }
+        int n = graph.nodeCount();
+        int k = Math.min(count, n);
+        int[] landmarks = new int[k];
+        int[] fromLandmark = new int[n * k];
+        int[] toLandmark = new int[n * k];
+
+        int[] forward = new int[n];
+        int[] backward = new int[n];
+        int[] previous = new int[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        Random rand = new Random(n);
+        boolean[] chosen = new boolean[n];
+
+        for (int l = 0; l < k; l++) {
+            int landmark = selection == Selection.AVOID
+                    ? avoidLandmark(graph, rand, landmarks, l, fromLandmark, toLandmark, chosen, forward, previous, heap)
+                    : farthestLandmark(graph, landmarks, l, fromLandmark, toLandmark, chosen, forward, previous, heap);
+            landmarks[l] = landmark;
+            chosen[landmark] = true;
+            Dijkstra.dijkstra(graph, landmark, forward, previous, heap);
+            Dijkstra.dijkstra(graph.reverse(), landmark, backward, previous, heap);
+            for (int v = 0; v < n; v++) {
+                fromLandmark[v * k + l] = forward[v];
+                toLandmark[v * k + l] = backward[v];
+            }
+        }
+        return new LandmarkIndex(n, checksum(graph), landmarks, fromLandmark, toLandmark);
+    }
+
+    /**
+     * Loads an index written by {@link #save(Path)} and checks that it was built for the given graph.
+     *
+     * @param path  The file to read.
+     * @param graph The graph the index will be queried with.
+     * @return The landmark index.
+     * @throws IOException if the file cannot be read or does not hold a landmark index.
+     * @throws IllegalArgumentException if the index was built for a different graph.
+     */
+    public static LandmarkIndex load(Path path, CsrGraph graph) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("The file " + path + " does not hold a landmark index.");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("The landmark index " + path + " has version " + version
+                        + " but only version " + VERSION + " is supported.");
+            }
+            int n = in.readInt();
+            int k = in.readInt();
+            long checksum = in.readLong();
+            if (n != graph.nodeCount() || checksum != checksum(graph)) {
+                throw new IllegalArgumentException("The landmark index in " + path + " was built for a different graph.");
+            }
+            // build() keeps between 1 and nodeCount landmarks, and none for an empty graph.
+            if (k < Math.min(1, n) || k > n || (long) n * k > Integer.MAX_VALUE - 8) {
+                throw new IOException("The landmark index " + path + " is corrupt: " + k + " landmarks for "
+                        + n + " nodes.");
+            }
+            int[] landmarks = readInts(in, k);
+            for (int landmark : landmarks) {
+                if (landmark < 0 || landmark >= n) {
+                    throw new IOException("The landmark index " + path + " is corrupt: landmark " + landmark
+                            + " is not a node index.");
+                }
+            }
+            int[] fromLandmark = readInts(in, n * k);
+            int[] toLandmark = readInts(in, n * k);
+            if (in.read() >= 0) {
+                throw new IOException("The landmark index " + path + " is corrupt: it has trailing data.");
+            }
+            return new LandmarkIndex(n, checksum, landmarks, fromLandmark, toLandmark);
+        } catch (EOFException e) {
+            throw new IOException("The landmark index " + path + " is truncated.", e);
+        }
+    }
+
+    /**
+     * Writes the index to a file.
+     *
+     * @param path The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nodeCount);
+            out.writeInt(landmarks.length);
+            out.writeLong(checksum);
+            writeInts(out, landmarks);
+            writeInts(out, fromLandmark);
+            writeInts(out, toLandmark);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * @param graph The graph the index was built for.
+     * @return The ids of the landmarks, in selection order.
+     */
+    public List<Integer> landmarks(CsrGraph graph) {
+        List<Integer> ids = new ArrayList<>(landmarks.length);
+        for (int landmark : landmarks) {
+            ids.add(graph.id(landmark));
+        }
+        return ids;
+    }
+
+    /**
+     * Finds the shortest path between the start and end nodes with A* guided by the landmark bounds.
+     *
+     * @param graph The graph the index was built for.
+     * @param start The starting node id.
+     * @param end   The ending node id.
+     * @return A list of node ids representing the shortest path from start to end.
+     */
+    public List<Integer> shortestPath(CsrGraph graph, int start, int end) {
+        if (graph.nodeCount() != nodeCount) {
+            throw new IllegalArgumentException("The landmark index was built for a different graph.");
+        }
+        int source = graph.indexOf(start);
+        int target = graph.indexOf(end);
+        if (source < 0 || target < 0 || lowerBound(source, target) == UNREACHABLE) {
+            return Collections.emptyList();
+        }
+
+        int[] distances = new int[nodeCount];
+        int[] previous = new int[nodeCount];
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(previous, -1);
+        IndexedMinHeap nodes = new IndexedMinHeap(nodeCount);
+
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("LANDMARKS") : null;
+        distances[source] = 0;
+        nodes.insert(source, lowerBound(source, target));
+        if (GraphMetrics.ENABLED) {
+            counters.push();
+        }
+        boolean found = false;
+        while (!nodes.isEmpty()) {
+            int closest = nodes.poll();
+            if (GraphMetrics.ENABLED) {
+                counters.settle();
+            }
+            if (closest == target) {
+                found = true;
+                break;
+            }
+            if (GraphMetrics.ENABLED) {
+                counters.relax(graph.offsets[closest + 1] - graph.offsets[closest]);
+            }
+            for (int e = graph.offsets[closest]; e < graph.offsets[closest + 1]; e++) {
+                int to = graph.targets[e];
+                int newDist = distances[closest] + graph.weights[e];
+                if (newDist < distances[to]) {
+                    int bound = lowerBound(to, target);
+                    if (bound == UNREACHABLE) {
+                        continue;
+                    }
+                    if (GraphMetrics.ENABLED) {
+                        counters.improve(nodes.contains(to));
+                    }
+                    distances[to] = newDist;
+                    previous[to] = closest;
+                    nodes.insertOrDecrease(to, (int) Math.min((long) newDist + bound, Integer.MAX_VALUE - 1));
+                }
+            }
+        }
+        if (GraphMetrics.ENABLED) {
+            counters.end(start, end);
+        }
+        if (found) {
+            return Dijkstra.constructPath(graph, previous, target);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the largest landmark lower bound on the distance between two vertices.
+     *
+     * @param from The index of the first vertex.
+     * @param to   The index of the second vertex.
+     * @return A lower bound on {@code d(from, to)}, or {@code Integer.MAX_VALUE} if the tables prove
+     *         that {@code to} is unreachable from {@code from}.
+     */
+    int lowerBound(int from, int to) {
+        int k = landmarks.length;
+        int best = 0;
+        for (int l = 0; l < k; l++) {
+            int landmarkToFrom = fromLandmark[from * k + l];
+            int landmarkToTo = fromLandmark[to * k + l];
+            if (landmarkToTo == UNREACHABLE) {
+                // The landmark reaches from, so it would reach to as well if from did.
+                if (landmarkToFrom != UNREACHABLE) {
+                    return UNREACHABLE;
+                }
+            } else if (landmarkToFrom != UNREACHABLE) {
+                best = Math.max(best, landmarkToTo - landmarkToFrom);
+            }
+
+            int fromToLandmark = toLandmark[from * k + l];
+            int toToLandmark = toLandmark[to * k + l];
+            if (toToLandmark != UNREACHABLE) {
+                // To reaches the landmark, so from would as well if it reached to.
+                if (fromToLandmark == UNREACHABLE) {
+                    return UNREACHABLE;
+                }
+                best = Math.max(best, fromToLandmark - toToLandmark);
+            }
+        }
+        return best;
+    }
+
+    private static int farthestLandmark(CsrGraph graph, int[] landmarks, int chosenCount, int[] fromLandmark,
+                                        int[] toLandmark, boolean[] chosen, int[] distances, int[] previous,
+                                        IndexedMinHeap heap) {
+        int n = graph.nodeCount();
+        int k = landmarks.length;
+        if (chosenCount == 0) {
+            // Start from the vertex farthest from vertex 0, which tends to lie on the periphery.
+            Dijkstra.dijkstra(graph, 0, distances, previous, heap);
+            return farthest(distances, chosen);
+        }
+        int best = -1;
+        long bestScore = -1;
+        for (int v = 0; v < n; v++) {
+            if (chosen[v]) {
+                continue;
+            }
+            long score = Long.MAX_VALUE;
+            for (int l = 0; l < chosenCount; l++) {
+                long forward = fromLandmark[v * k + l];
+                long backward = toLandmark[v * k + l];
+                score = Math.min(score, forward + backward);
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    private static int avoidLandmark(CsrGraph graph, Random rand, int[] landmarks, int chosenCount, int[] fromLandmark,
+                                     int[] toLandmark, boolean[] chosen, int[] distances, int[] previous,
+                                     IndexedMinHeap heap) {
+        int n = graph.nodeCount();
+        int root = rand.nextInt(n);
+        Dijkstra.dijkstra(graph, root, distances, previous, heap);
+
+        // Children of every vertex in the shortest-path tree, in CSR form.
+        int[] childOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (previous[v] >= 0) {
+                childOffsets[previous[v] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            childOffsets[v + 1] += childOffsets[v];
+        }
+        int[] children = new int[n];
+        int[] cursor = Arrays.copyOf(childOffsets, n);
+        for (int v = 0; v < n; v++) {
+            if (previous[v] >= 0) {
+                children[cursor[previous[v]]++] = v;
+            }
+        }
+
+        // Tree vertices in top-down order, then subtree sizes bottom-up. The size of a vertex is the
+        // total gap between true distance and landmark bound in its subtree, or 0 if it holds a landmark.
+        int[] order = new int[n];
+        int count = 0;
+        order[count++] = root;
+        for (int i = 0; i < count; i++) {
+            for (int c = childOffsets[order[i]]; c < childOffsets[order[i] + 1]; c++) {
+                order[count++] = children[c];
+            }
+        }
+        LandmarkIndex partial = new LandmarkIndex(n, 0, Arrays.copyOf(landmarks, chosenCount),
+                project(fromLandmark, landmarks.length, chosenCount, n),
+                project(toLandmark, landmarks.length, chosenCount, n));
+        long[] size = new long[n];
+        boolean[] holdsLandmark = new boolean[n];
+        for (int i = count - 1; i >= 0; i--) {
+            int v = order[i];
+            holdsLandmark[v] |= chosen[v];
+            if (previous[v] >= 0) {
+                holdsLandmark[previous[v]] |= holdsLandmark[v];
+            }
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            int v = order[i];
+            if (holdsLandmark[v]) {
+                size[v] = 0;
+            } else {
+                int bound = chosenCount == 0 ? 0 : partial.lowerBound(root, v);
+                size[v] += distances[v] - (bound == UNREACHABLE ? 0 : Math.min(bound, distances[v]));
+            }
+            if (previous[v] >= 0 && !holdsLandmark[previous[v]]) {
+                size[previous[v]] += size[v];
+            }
+        }
+
+        // Descend into the heaviest child until reaching a leaf.
+        int at = root;
+        while (true) {
+            int next = -1;
+            for (int c = childOffsets[at]; c < childOffsets[at + 1]; c++) {
+                int child = children[c];
+                if (size[child] > 0 && (next < 0 || size[child] > size[next])) {
+                    next = child;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            at = next;
+        }
+        if (chosen[at]) {
+            // Everything reachable from the root is already covered; fall back to the farthest vertex.
+            return farthestLandmark(graph, landmarks, chosenCount, fromLandmark, toLandmark, chosen, distances,
+                    previous, heap);
+        }
+        return at;
+    }
+
+    private static int[] project(int[] table, int k, int chosenCount, int n) {
+        int[] result = new int[n * chosenCount];
+        for (int v = 0; v < n; v++) {
+            System.arraycopy(table, v * k, result, v * chosenCount, chosenCount);
+        }
+        return result;
+    }
+
+    private static int farthest(int[] distances, boolean[] chosen) {
+        int best = -1;
+        for (int v = 0; v < distances.length; v++) {
+            if (!chosen[v] && distances[v] != UNREACHABLE && (best < 0 || distances[v] > distances[best])) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    private static long checksum(CsrGraph graph) {
+        long hash = 17;
+        hash = 31 * hash + Arrays.hashCode(graph.ids);
+        hash = 31 * hash + Arrays.hashCode(graph.offsets);
+        hash = 31 * hash + Arrays.hashCode(graph.targets);
+        hash = 31 * hash + Arrays.hashCode(graph.weights);
+        return hash;
+    }
+}
@@ -1,17 +1,30 @@
 package org.graph;
 
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
 
 public class Main {
 
-    public static void main(String[] args) {
-        Map<Integer, List<Edge>> graph = GraphUtil.createGraphFromArgs(args);
+    public static void main(String[] args) throws IOException {
+        // Generate the graph in CSR form, which every step below works on, so no step converts a map
+        CsrGraph graph = GraphUtil.createCsrGraphFromArgs(args);
 
         if (graph == null) {
             return;
         }
 
+        // Answer a batch of queries instead of printing the graph and one random path
+        if (GraphUtil.isBatchMode(args)) {
+            GraphUtil.runBatchQueries(graph, args);
+            GraphUtil.printMetrics();
+            return;
+        }
+
+        // Keep the graph resident and answer queries over HTTP until the JVM is stopped
+        if (GraphUtil.isServeMode(args)) {
+            GraphUtil.startServer(graph, args);
+            return;
+        }
+
         GraphUtil.printGraph(graph);
 
         // Randomly select two nodes and print the shortest path distance between them
@@ -19,5 +32,8 @@ public class Main {
 
         // Print graph properties
         GraphUtil.printGraphProperties(graph);
+
+        // Print what the algorithms did, if metrics are enabled
+        GraphUtil.printMetrics();
     }
 }
@@ -0,0 +1,126 @@
+package org.graph;
+
+/**
+ * A read-only directed graph served straight from a memory-mapped {@link GraphFile}. It has the same
+ * layout and vertex indexes as the {@link CsrGraph} it was written from, but its arrays live in the
+ * page cache rather than on the heap, so opening even a multi-gigabyte graph only costs the mapping.
+ */
+public final class MappedGraph implements IndexedGraph {
+    private final GraphFile.MappedInts ids;
+    private final GraphFile.MappedInts offsets;
+    private final GraphFile.MappedInts targets;
+    private final GraphFile.MappedInts weights;
+    private final int firstId;
+    private final boolean contiguous;
+    private MappedGraph reverse;
+
+    MappedGraph(GraphFile.MappedInts ids, GraphFile.MappedInts offsets, GraphFile.MappedInts targets,
+                GraphFile.MappedInts weights) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        int n = ids.length();
+        this.firstId = n == 0 ? 0 : ids.get(0);
+        this.contiguous = n == 0 || (long) ids.get(n - 1) - firstId == n - 1;
+    }
+
+    void setReverse(MappedGraph reverse) {
+        this.reverse = reverse;
+        reverse.reverse = this;
+    }
+
+    @Override
+    public int nodeCount() {
+        return ids.length();
+    }
+
+    @Override
+    public int edgeCount() {
+        return targets.length();
+    }
+
+    @Override
+    public int id(int index) {
+        return ids.get(index);
+    }
+
+    @Override
+    public int indexOf(int id) {
+        if (contiguous) {
+            long index = (long) id - firstId;
+            return index >= 0 && index < ids.length() ? (int) index : -1;
+        }
+        int low = 0;
+        int high = ids.length() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = ids.get(mid);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int edgeStart(int index) {
+        return offsets.get(index);
+    }
+
+    @Override
+    public int edgeEnd(int index) {
+        return offsets.get(index + 1);
+    }
+
+    @Override
+    public int target(int edge) {
+        return targets.get(edge);
+    }
+
+    @Override
+    public int weight(int edge) {
+        return weights.get(edge);
+    }
+
+    /**
+     * @return True if the file also holds the reverse graph.
+     */
+    public boolean hasReverse() {
+        return reverse != null;
+    }
+
+    /**
+     * Returns the reverse graph stored in the same file.
+     *
+     * @return The reverse graph.
+     * @throws IllegalStateException if the file was written without the reverse graph.
+     */
+    public MappedGraph reverse() {
+        if (reverse == null) {
+            throw new IllegalStateException("The graph file was written without the reverse graph.");
+        }
+        return reverse;
+    }
+
+    /**
+     * Copies the graph onto the heap, e.g. for the algorithms that only accept a {@link CsrGraph}.
+     *
+     * @return The graph in CSR form.
+     */
+    public CsrGraph toCsrGraph() {
+        return new CsrGraph(copy(ids), copy(offsets), copy(targets), copy(weights));
+    }
+
+    private static int[] copy(GraphFile.MappedInts values) {
+        int[] result = new int[values.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
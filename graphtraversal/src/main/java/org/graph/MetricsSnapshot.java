@@ -0,0 +1,151 @@
+package org.graph;
+
+/**
+ * The values of the {@link GraphMetrics} counters at one point in time.
+ */
+public final class MetricsSnapshot {
+    private final long searches;
+    private final long searchNanos;
+    private final long relaxations;
+    private final long heapPushes;
+    private final long heapPops;
+    private final long decreaseKeys;
+    private final long settled;
+    private final long bfsTraversals;
+    private final long bfsLevels;
+    private final long bfsVisited;
+    private final long bfsMaxFrontier;
+    private final long[] phaseCounts;
+    private final long[] phaseNanos;
+
+    MetricsSnapshot() {
+        searches = GraphMetrics.SEARCHES.sum();
+        searchNanos = GraphMetrics.SEARCH_NANOS.sum();
+        relaxations = GraphMetrics.RELAXATIONS.sum();
+        heapPushes = GraphMetrics.HEAP_PUSHES.sum();
+        heapPops = GraphMetrics.HEAP_POPS.sum();
+        decreaseKeys = GraphMetrics.DECREASE_KEYS.sum();
+        settled = GraphMetrics.SETTLED.sum();
+        bfsTraversals = GraphMetrics.BFS_TRAVERSALS.sum();
+        bfsLevels = GraphMetrics.BFS_LEVELS.sum();
+        bfsVisited = GraphMetrics.BFS_VISITED.sum();
+        bfsMaxFrontier = GraphMetrics.BFS_MAX_FRONTIER.get();
+        int phases = GraphMetrics.Phase.values().length;
+        phaseCounts = new long[phases];
+        phaseNanos = new long[phases];
+        for (int p = 0; p < phases; p++) {
+            phaseCounts[p] = GraphMetrics.PHASE_COUNTS[p].sum();
+            phaseNanos[p] = GraphMetrics.PHASE_NANOS[p].sum();
+        }
+    }
+
+    /**
+     * @return The number of shortest path searches.
+     */
+    public long searches() {
+        return searches;
+    }
+
+    /**
+     * @return The total time spent in shortest path searches in nanoseconds, summed over threads.
+     */
+    public long searchNanos() {
+        return searchNanos;
+    }
+
+    /**
+     * @return The number of edges scanned by shortest path searches.
+     */
+    public long relaxations() {
+        return relaxations;
+    }
+
+    /**
+     * @return The number of vertices added to a priority queue or bucket structure.
+     */
+    public long heapPushes() {
+        return heapPushes;
+    }
+
+    /**
+     * @return The number of vertices removed from a priority queue or bucket structure, stale entries included.
+     */
+    public long heapPops() {
+        return heapPops;
+    }
+
+    /**
+     * @return The number of times a queued vertex got a smaller key.
+     */
+    public long decreaseKeys() {
+        return decreaseKeys;
+    }
+
+    /**
+     * @return The number of vertices whose distance became final.
+     */
+    public long settled() {
+        return settled;
+    }
+
+    /**
+     * @return The number of breadth-first traversals.
+     */
+    public long bfsTraversals() {
+        return bfsTraversals;
+    }
+
+    /**
+     * @return The number of BFS levels, summed over traversals.
+     */
+    public long bfsLevels() {
+        return bfsLevels;
+    }
+
+    /**
+     * @return The number of vertices reached by BFS, summed over traversals.
+     */
+    public long bfsVisited() {
+        return bfsVisited;
+    }
+
+    /**
+     * @return The largest frontier, i.e. the most vertices on one BFS level, of any traversal.
+     */
+    public long bfsMaxFrontier() {
+        return bfsMaxFrontier;
+    }
+
+    /**
+     * @param phase The phase.
+     * @return How often the phase ran.
+     */
+    public long phaseCount(GraphMetrics.Phase phase) {
+        return phaseCounts[phase.ordinal()];
+    }
+
+    /**
+     * @param phase The phase.
+     * @return The total time spent in the phase in nanoseconds.
+     */
+    public long phaseNanos(GraphMetrics.Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("searches: %d in %.3f ms, %d relaxations, %d settled%n",
+                searches, searchNanos / 1e6, relaxations, settled));
+        text.append(String.format("heap: %d pushes, %d pops, %d decrease-keys%n", heapPushes, heapPops, decreaseKeys));
+        text.append(String.format("bfs: %d traversals, %d levels, %d visited, max frontier %d%n",
+                bfsTraversals, bfsLevels, bfsVisited, bfsMaxFrontier));
+        for (GraphMetrics.Phase phase : GraphMetrics.Phase.values()) {
+            if (phaseCounts[phase.ordinal()] > 0) {
+                text.append(String.format("%s: %d in %.3f ms%n", phase.name().toLowerCase(),
+                        phaseCounts[phase.ordinal()], phaseNanos[phase.ordinal()] / 1e6));
+            }
+        }
+        return text.toString();
+    }
+}
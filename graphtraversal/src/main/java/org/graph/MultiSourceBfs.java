@@ -0,0 +1,233 @@
+package org.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Breadth-first search from up to 64 sources at once, for hop distances that ignore edge weights.
+ * <p>
+ * Source {@code i} of a batch owns bit {@code i} of three {@code long} words per vertex: the sources
+ * that have seen the vertex, the sources whose frontier it is on, and the sources that reach it on the
+ * next level. Expanding a frontier vertex pushes its whole word along each out-edge with one
+ * and-not and one or, so a batch costs one pass over the edges per level instead of one BFS per
+ * source, and the V searches of an all-pairs hop analysis become V/64 passes (Then et al.). Only the
+ * vertices on the frontier are visited on each level, kept in a list next to the words.
+ * <p>
+ * Eccentricities are computed for independent batches in parallel on a fork-join pool; hop distance
+ * rows are produced one batch at a time so that at most 64 rows are held in memory.
+ */
+public class MultiSourceBfs {
+    private static final int BATCH = 64;
+
+    /**
+     * Receives one row of hop distances.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * @param source The source node id.
+         * @param hops   The number of edges on a shortest path from the source to every node, indexed
+         *               by node index, or {@code Integer.MAX_VALUE} if unreachable. The array is reused
+         *               after the call returns.
+         */
+        void accept(int source, int[] hops);
+    }
+
+    /**
+     * Computes the hop eccentricity of every vertex on the common fork-join pool.
+     *
+     * @param graph The graph in CSR form; weights are ignored.
+     * @return The hop eccentricities with the radius, diameter, center and periphery derived from them.
+     */
+    public static EccentricityResult eccentricities(CsrGraph graph) {
+        return eccentricities(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the hop eccentricity of every vertex, the largest number of edges on a shortest path to
+     * any vertex it reaches, running batches of 64 sources in parallel on the given pool.
+     *
+     * @param graph The graph in CSR form; weights are ignored.
+     * @param pool  The pool to run the batches on.
+     * @return The hop eccentricities with the radius, diameter, center and periphery derived from them.
+     */
+    public static EccentricityResult eccentricities(CsrGraph graph, ForkJoinPool pool) {
+        int n = graph.nodeCount();
+        int[] eccentricities = new int[n];
+        int batches = (n + BATCH - 1) / BATCH;
+        if (batches > 0) {
+            int threshold = Math.max(1, batches / (pool.getParallelism() * 4));
+            pool.invoke(new BatchTask(graph, eccentricities, 0, batches, threshold));
+        }
+        return new EccentricityResult(graph, eccentricities);
+    }
+
+    /**
+     * Computes the hop distances between all pairs of vertices. The matrix takes {@code 4 n^2} bytes,
+     * so this is meant for small graphs; use {@link #hopRows(CsrGraph, int[], RowConsumer)} to stream
+     * the rows of larger ones.
+     *
+     * @param graph The graph in CSR form; weights are ignored.
+     * @return The matrix whose row {@code u} holds the hop distances from the node with index {@code u},
+     *         indexed by node index, with {@code Integer.MAX_VALUE} for unreachable nodes.
+     */
+    public static int[][] hopMatrix(CsrGraph graph) {
+        int[][] matrix = new int[graph.nodeCount()][];
+        int[] all = new int[graph.nodeCount()];
+        for (int v = 0; v < all.length; v++) {
+            all[v] = graph.id(v);
+        }
+        hopRows(graph, all, (source, hops) -> matrix[graph.indexOf(source)] = hops.clone());
+        return matrix;
+    }
+
+    /**
+     * Computes the hop distances from each of the given sources and hands them to the consumer, on the
+     * calling thread and in the order of the sources.
+     *
+     * @param graph    The graph in CSR form; weights are ignored.
+     * @param sources  The source node ids.
+     * @param consumer Receives one row per source.
+     * @throws IllegalArgumentException if a source is not in the graph.
+     */
+    public static void hopRows(CsrGraph graph, int[] sources, RowConsumer consumer) {
+        int n = graph.nodeCount();
+        int[] indexes = new int[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            indexes[i] = graph.indexOf(sources[i]);
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Vertex " + sources[i] + " is not in the graph.");
+            }
+        }
+        Search search = new Search(n);
+        int[][] rows = new int[Math.min(BATCH, sources.length)][n];
+        for (int from = 0; from < sources.length; from += BATCH) {
+            int count = Math.min(BATCH, sources.length - from);
+            for (int i = 0; i < count; i++) {
+                Arrays.fill(rows[i], Integer.MAX_VALUE);
+            }
+            search.run(graph, indexes, from, count, rows, null);
+            for (int i = 0; i < count; i++) {
+                consumer.accept(sources[from + i], rows[i]);
+            }
+        }
+    }
+
+    /**
+     * The bit words and frontier lists of one batch, reused for every batch of a thread.
+     */
+    private static final class Search {
+        private final long[] seen;
+        private long[] frontier;
+        private long[] next;
+        private IntList frontierVertices = new IntList();
+        private IntList nextVertices = new IntList();
+
+        Search(int n) {
+            seen = new long[n];
+            frontier = new long[n];
+            next = new long[n];
+        }
+
+        /**
+         * Searches from {@code sources[from..from + count)}, writing hop distances into {@code rows} and
+         * eccentricities into {@code eccentricities} (indexed like the sources) when they are not null.
+         */
+        void run(CsrGraph graph, int[] sources, int from, int count, int[][] rows, int[] eccentricities) {
+            Arrays.fill(seen, 0);
+            frontierVertices.clear();
+            for (int i = 0; i < count; i++) {
+                int s = sources[from + i];
+                if (frontier[s] == 0) {
+                    frontierVertices.add(s);
+                }
+                seen[s] |= 1L << i;
+                frontier[s] |= 1L << i;
+                if (rows != null) {
+                    rows[i][s] = 0;
+                }
+            }
+            int[] offsets = graph.offsets;
+            int[] targets = graph.targets;
+            for (int level = 1; frontierVertices.size() > 0; level++) {
+                for (int k = 0; k < frontierVertices.size(); k++) {
+                    int v = frontierVertices.get(k);
+                    long bits = frontier[v];
+                    frontier[v] = 0;
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        int w = targets[e];
+                        long reached = bits & ~seen[w];
+                        if (reached != 0) {
+                            if (next[w] == 0) {
+                                nextVertices.add(w);
+                            }
+                            next[w] |= reached;
+                        }
+                    }
+                }
+                long levelBits = 0;
+                for (int k = 0; k < nextVertices.size(); k++) {
+                    int w = nextVertices.get(k);
+                    long reached = next[w];
+                    seen[w] |= reached;
+                    levelBits |= reached;
+                    if (rows != null) {
+                        for (long bits = reached; bits != 0; bits &= bits - 1) {
+                            rows[Long.numberOfTrailingZeros(bits)][w] = level;
+                        }
+                    }
+                }
+                if (eccentricities != null) {
+                    for (long bits = levelBits; bits != 0; bits &= bits - 1) {
+                        eccentricities[from + Long.numberOfTrailingZeros(bits)] = level;
+                    }
+                }
+                // The next level becomes the frontier; its words already exclude every seen source.
+                long[] words = frontier;
+                frontier = next;
+                next = words;
+                IntList vertices = frontierVertices;
+                frontierVertices = nextVertices;
+                nextVertices = vertices;
+                nextVertices.clear();
+            }
+        }
+    }
+
+    private static final class BatchTask extends RecursiveAction {
+        private final CsrGraph graph;
+        private final int[] eccentricities;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        BatchTask(CsrGraph graph, int[] eccentricities, int from, int to, int threshold) {
+            this.graph = graph;
+            this.eccentricities = eccentricities;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(graph, eccentricities, from, mid, threshold),
+                        new BatchTask(graph, eccentricities, mid, to, threshold));
+                return;
+            }
+            int n = graph.nodeCount();
+            int[] sources = new int[n];
+            for (int v = 0; v < n; v++) {
+                sources[v] = v;
+            }
+            Search search = new Search(n);
+            for (int batch = from; batch < to; batch++) {
+                int first = batch * BATCH;
+                search.run(graph, sources, first, Math.min(BATCH, n - first), null, eccentricities);
+            }
+        }
+    }
+}
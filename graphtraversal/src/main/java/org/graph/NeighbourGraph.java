@@ -0,0 +1,41 @@
+package org.graph;
+
+/**
+ * Read access to a directed graph whose vertices are addressed by a dense index in
+ * {@code [0, nodeCount())} and whose outgoing edges can only be read in order, through an
+ * {@link EdgeCursor}. Every {@link IndexedGraph} is one; {@link CompressedGraph}, whose edges have no
+ * fixed positions, is only this. Searches written against this interface run on all of them.
+ */
+public interface NeighbourGraph {
+
+    /**
+     * @return The number of vertices in the graph.
+     */
+    int nodeCount();
+
+    /**
+     * @return The number of edges in the graph.
+     */
+    int edgeCount();
+
+    /**
+     * Returns the vertex id stored at the given index.
+     *
+     * @param index The vertex index.
+     * @return The original vertex id.
+     */
+    int id(int index);
+
+    /**
+     * Returns the index of the vertex with the given id.
+     *
+     * @param id The vertex id.
+     * @return The vertex index, or -1 if the graph has no such vertex.
+     */
+    int indexOf(int id);
+
+    /**
+     * @return A new cursor over the outgoing edges, for the calling thread only.
+     */
+    EdgeCursor cursor();
+}
@@ -0,0 +1,26 @@
+package org.graph;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event for one timed {@link GraphMetrics.Phase}, committed by {@link GraphMetrics}.
+ */
+@Name("org.graph.Phase")
+@Label("Graph Phase")
+@Category("Graph")
+@Description("A generation, connectivity, properties or batch phase")
+final class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Size")
+    @Description("The size of the input, e.g. the number of nodes or queries")
+    long size;
+
+    // Not recorded; the event's own timestamps are in ticks.
+    transient long startNanos;
+}
@@ -0,0 +1,35 @@
+package org.graph;
+
+/**
+ * The {@link EdgeCursor} of an {@link IndexedGraph}, which steps through edge positions.
+ */
+final class PositionCursor implements EdgeCursor {
+    private final IndexedGraph graph;
+    private int edge;
+    private int end;
+
+    PositionCursor(IndexedGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public void moveTo(int index) {
+        edge = graph.edgeStart(index) - 1;
+        end = graph.edgeEnd(index);
+    }
+
+    @Override
+    public boolean next() {
+        return ++edge < end;
+    }
+
+    @Override
+    public int target() {
+        return graph.target(edge);
+    }
+
+    @Override
+    public int weight() {
+        return graph.weight(edge);
+    }
+}
@@ -0,0 +1,109 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * Single-source shortest paths with Dijkstra's algorithm on a radix heap, for non-negative integer
+ * weights of any size.
+ * <p>
+ * Dijkstra's algorithm extracts keys in non-decreasing order, which a radix heap exploits: bucket
+ * {@code i} holds the keys whose highest bit that differs from the last extracted key is bit
+ * {@code i - 1}, and bucket 0 holds keys equal to it. Extracting from an empty bucket 0 redistributes
+ * the first non-empty bucket around its minimum, and each key can only move to lower buckets, so the
+ * total work is O(E + V log maxDistance) without comparisons between keys. Improved distances are
+ * inserted again and stale entries are skipped when popped.
+ */
+public class RadixHeapSssp {
+    private static final int BUCKETS = 33;
+
+    /**
+     * Computes shortest path distances from a source index.
+     *
+     * @param graph     The graph in CSR form; its weights must be non-negative.
+     * @param source    The index of the starting node.
+     * @param distances Receives the distance of every node, {@code Integer.MAX_VALUE} if unreachable.
+     * @param previous  Receives the previous node index of every node, or -1.
+     */
+    static void run(CsrGraph graph, int source, int[] distances, int[] previous) {
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(previous, -1);
+        IntList[] keys = new IntList[BUCKETS];
+        IntList[] vertices = new IntList[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            keys[b] = new IntList();
+            vertices[b] = new IntList();
+        }
+
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("RADIX_HEAP") : null;
+        distances[source] = 0;
+        keys[0].add(0);
+        vertices[0].add(source);
+        int size = 1;
+        if (GraphMetrics.ENABLED) {
+            counters.push();
+        }
+        int last = 0;
+
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        while (size > 0) {
+            if (keys[0].size() == 0) {
+                int b = 1;
+                while (keys[b].size() == 0) {
+                    b++;
+                }
+                int min = Integer.MAX_VALUE;
+                for (int i = 0; i < keys[b].size(); i++) {
+                    min = Math.min(min, keys[b].get(i));
+                }
+                last = min;
+                for (int i = 0; i < keys[b].size(); i++) {
+                    int key = keys[b].get(i);
+                    int target = bucket(key, last);
+                    keys[target].add(key);
+                    vertices[target].add(vertices[b].get(i));
+                }
+                keys[b].clear();
+                vertices[b].clear();
+            }
+
+            int closest = vertices[0].removeLast();
+            int key = keys[0].removeLast();
+            size--;
+            if (key != distances[closest]) {
+                if (GraphMetrics.ENABLED) {
+                    counters.pop();
+                }
+                continue;
+            }
+            if (GraphMetrics.ENABLED) {
+                counters.settle();
+                counters.relax(offsets[closest + 1] - offsets[closest]);
+            }
+            for (int e = offsets[closest]; e < offsets[closest + 1]; e++) {
+                int to = targets[e];
+                int newDist = key + weights[e];
+                if (newDist < distances[to]) {
+                    if (GraphMetrics.ENABLED) {
+                        // Stale entries are re-pushed instead of decreased in place.
+                        counters.push();
+                    }
+                    distances[to] = newDist;
+                    previous[to] = closest;
+                    int b = bucket(newDist, last);
+                    keys[b].add(newDist);
+                    vertices[b].add(to);
+                    size++;
+                }
+            }
+        }
+        if (GraphMetrics.ENABLED) {
+            counters.end(graph.id(source), -1);
+        }
+    }
+
+    private static int bucket(int key, int last) {
+        return key == last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+    }
+}
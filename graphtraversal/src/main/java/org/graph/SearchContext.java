@@ -0,0 +1,85 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffers for point-to-point searches: primitive distance and predecessor arrays plus a
+ * heap. Entries are valid only if their stamp matches the current epoch, so starting a new search
+ * bumps a counter instead of refilling arrays of the size of the graph, and repeated queries
+ * allocate nothing but their result.
+ * <p>
+ * A context must not be shared between threads; {@link #forCurrentThread(int)} hands out one per
+ * thread, which is what {@link Dijkstra#shortestPath(CsrGraph, int, int)} uses.
+ */
+public final class SearchContext {
+    private static final ThreadLocal<SearchContext> POOL = new ThreadLocal<>();
+
+    final int[] distance;
+    final int[] previous;
+    final IndexedMinHeap heap;
+    private final int[] stamp;
+    private int epoch;
+
+    /**
+     * Creates a context for graphs with at most the given number of nodes.
+     *
+     * @param capacity The largest node count of the graphs to search.
+     */
+    public SearchContext(int capacity) {
+        distance = new int[capacity];
+        previous = new int[capacity];
+        stamp = new int[capacity];
+        heap = new IndexedMinHeap(capacity);
+    }
+
+    /**
+     * Returns the context of the calling thread, replacing it with a larger one first if it cannot
+     * hold graphs of the given size.
+     *
+     * @param capacity The node count of the graph to search.
+     * @return The context of the calling thread.
+     */
+    public static SearchContext forCurrentThread(int capacity) {
+        SearchContext context = POOL.get();
+        if (context == null || context.capacity() < capacity) {
+            context = new SearchContext(capacity);
+            POOL.set(context);
+        }
+        return context;
+    }
+
+    /**
+     * @return The largest node count of the graphs this context can search.
+     */
+    public int capacity() {
+        return stamp.length;
+    }
+
+    /**
+     * Invalidates all entries in O(1), except once every 2^32 searches when the stamps wrap around.
+     */
+    void reset() {
+        if (++epoch == 0) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        heap.clear();
+    }
+
+    /**
+     * @param v The vertex index.
+     * @return The distance of the vertex in the current search, or {@code Integer.MAX_VALUE} if it was not reached.
+     */
+    int distance(int v) {
+        return stamp[v] == epoch ? distance[v] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Records the distance and predecessor of a vertex in the current search.
+     */
+    void reach(int v, int dist, int predecessor) {
+        stamp[v] = epoch;
+        distance[v] = dist;
+        previous[v] = predecessor;
+    }
+}
@@ -0,0 +1,97 @@
+package org.graph;
+
+/**
+ * The work of one search, counted while it runs and published to {@link GraphMetrics} when it ends.
+ * A search creates one only if {@link GraphMetrics#ENABLED} and guards every call with that constant,
+ * so that the counting is compiled away when metrics are off:
+ * <pre>{@code
+ * SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("DIAL") : null;
+ * ...
+ * if (GraphMetrics.ENABLED) {
+ *     counters.settle();
+ * }
+ * }</pre>
+ * Not thread-safe; parallel searches count in their tasks and add the totals here.
+ */
+final class SearchCounters {
+    private final SearchEvent event = GraphMetrics.beginSearch();
+    private final String engine;
+    private long relaxations;
+    private long pushes;
+    private long pops;
+    private long decreaseKeys;
+    private long settled;
+
+    /**
+     * Starts timing a search.
+     *
+     * @param engine The name of the search algorithm, e.g. an {@link SsspEngine} name.
+     */
+    SearchCounters(String engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Counts a vertex added to the queue without improving a queued entry, e.g. the source.
+     */
+    void push() {
+        pushes++;
+    }
+
+    /**
+     * Counts a queue entry that was taken out but was stale or skipped, so nothing was settled.
+     */
+    void pop() {
+        pops++;
+    }
+
+    /**
+     * Counts queue entries taken out at once, e.g. a whole bucket, whether or not they settle anything.
+     */
+    void pop(long count) {
+        pops += count;
+    }
+
+    /**
+     * Counts a vertex taken out of the queue whose distance is now final.
+     */
+    void settle() {
+        pops++;
+        settled++;
+    }
+
+    /**
+     * Counts vertices that became final without passing through a queue of their own.
+     */
+    void settle(long count) {
+        settled += count;
+    }
+
+    /**
+     * Counts examined edges, typically the degree of a vertex about to be expanded.
+     */
+    void relax(long edges) {
+        relaxations += edges;
+    }
+
+    /**
+     * Counts an improved tentative distance: a decrease-key if the vertex was queued, a push otherwise.
+     */
+    void improve(boolean queued) {
+        if (queued) {
+            decreaseKeys++;
+        } else {
+            pushes++;
+        }
+    }
+
+    /**
+     * Publishes the counts and commits the search event.
+     *
+     * @param source The source id.
+     * @param target The target id, or -1 for a full search.
+     */
+    void end(int source, int target) {
+        GraphMetrics.endSearch(event, engine, source, target, relaxations, pushes, pops, decreaseKeys, settled);
+    }
+}
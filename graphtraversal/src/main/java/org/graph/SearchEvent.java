@@ -0,0 +1,44 @@
+package org.graph;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event for one shortest path search, committed by {@link GraphMetrics}.
+ */
+@Name("org.graph.Search")
+@Label("Graph Search")
+@Category("Graph")
+@Description("A single-source or point-to-point shortest path search")
+final class SearchEvent extends Event {
+    @Label("Engine")
+    String engine;
+
+    @Label("Source")
+    int source;
+
+    @Label("Target")
+    @Description("The target id, or -1 for a search that settles every reachable vertex")
+    int target;
+
+    @Label("Relaxations")
+    long relaxations;
+
+    @Label("Heap Pushes")
+    long heapPushes;
+
+    @Label("Heap Pops")
+    long heapPops;
+
+    @Label("Decrease Keys")
+    long decreaseKeys;
+
+    @Label("Settled Vertices")
+    long settled;
+
+    // Not recorded; the event's own timestamps are in ticks.
+    transient long startNanos;
+}
@@ -0,0 +1,87 @@
+package org.graph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The shortest paths from one source to every vertex of a graph, stored as a primitive distance
+ * array and a predecessor array. Once built, the distance and path to any target cost no more than
+ * following the predecessors back to the source.
+ */
+public final class ShortestPathTree {
+    private final CsrGraph graph;
+    private final int source;
+    private final int[] distances;
+    private final int[] previous;
+    private final int eccentricity;
+
+    private ShortestPathTree(CsrGraph graph, int source, int[] distances, int[] previous) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.previous = previous;
+        this.eccentricity = GraphProperties.maxFinite(distances);
+    }
+
+    /**
+     * Computes the shortest path tree of a source.
+     *
+     * @param graph The graph in CSR form.
+     * @param start The source vertex id.
+     * @return The shortest path tree.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public static ShortestPathTree compute(CsrGraph graph, int start) {
+        if (!graph.containsVertex(start)) {
+            throw new IllegalArgumentException("Vertex " + start + " is not in the graph.");
+        }
+        int[] previous = new int[graph.nodeCount()];
+        int[] distances = Dijkstra.dijkstra(graph, start, previous);
+        return new ShortestPathTree(graph, start, distances, previous);
+    }
+
+    /**
+     * @return The source vertex id.
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * @param target The target vertex id.
+     * @return The distance from the source to the target, {@code Integer.MAX_VALUE} if it is unreachable
+     *         or not in the graph.
+     */
+    public int distance(int target) {
+        int index = graph.indexOf(target);
+        return index < 0 ? Integer.MAX_VALUE : distances[index];
+    }
+
+    /**
+     * @param target The target vertex id.
+     * @return The vertex ids of a shortest path from the source to the target, or an empty list if
+     *         there is none.
+     */
+    public List<Integer> path(int target) {
+        int index = graph.indexOf(target);
+        if (index < 0 || distances[index] == Integer.MAX_VALUE) {
+            return Collections.emptyList();
+        }
+        return Dijkstra.constructPath(graph, previous, index);
+    }
+
+    /**
+     * @return The eccentricity of the source, as in {@link GraphProperties#eccentricity(CsrGraph, int)}.
+     */
+    public int eccentricity() {
+        return eccentricity;
+    }
+
+    /**
+     * @return An estimate of the heap memory held by this tree, excluding the graph.
+     */
+    public long sizeInBytes() {
+        // Two int arrays with their 16-byte headers, plus the object itself.
+        return 8L * distances.length + 32 + 32;
+    }
+}
@@ -0,0 +1,184 @@
+package org.graph;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * A thread-safe cache of {@link ShortestPathTree shortest path trees} keyed by graph version and
+ * source vertex, for query mixes in which a few sources come up over and over. Once a source's tree
+ * is cached, every later query from it is answered by path reconstruction alone.
+ * <p>
+ * Trees are evicted in least-recently-used order once their total size exceeds the memory budget,
+ * and a tree larger than the whole budget is returned without being cached. Concurrent misses for the
+ * same source wait for a single computation. Asking for a newer graph version drops every cached tree;
+ * trees for older versions are computed but not cached, so requests still running on a replaced graph
+ * never pollute the cache. The same holds for {@link #invalidate()}: a tree whose computation started
+ * before it is returned to its caller but not cached.
+ */
+public final class ShortestPathTreeCache {
+    private final long budgetBytes;
+    private final BiFunction<CsrGraph, Integer, ShortestPathTree> computation;
+    private final LinkedHashMap<Integer, ShortestPathTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+    // Computations in progress for the current version; replaced when the version changes.
+    private Map<Integer, CompletableFuture<ShortestPathTree>> pending = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long version = Long.MIN_VALUE;
+    // Bumped whenever the cached trees are dropped; trees computed under an older one are not stored.
+    private long generation;
+    private long bytes;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param budgetBytes The most memory the cached trees may hold.
+     */
+    public ShortestPathTreeCache(long budgetBytes) {
+        this(budgetBytes, ShortestPathTree::compute);
+    }
+
+    /**
+     * Creates an empty cache that computes trees with the given function, e.g. to interleave a test
+     * with a computation.
+     */
+    ShortestPathTreeCache(long budgetBytes, BiFunction<CsrGraph, Integer, ShortestPathTree> computation) {
+        if (budgetBytes < 0) {
+            throw new IllegalArgumentException("The memory budget must not be negative but was " + budgetBytes + ".");
+        }
+        this.budgetBytes = budgetBytes;
+        this.computation = computation;
+    }
+
+    /**
+     * Returns the shortest path tree of a source, computing and caching it on a miss.
+     *
+     * @param graph   The graph in CSR form.
+     * @param version The version of the graph; a different graph must have a different version, and
+     *                newer graphs higher versions.
+     * @param source  The source vertex id.
+     * @return The shortest path tree.
+     * @throws IllegalArgumentException if the graph has no such vertex.
+     */
+    public ShortestPathTree tree(CsrGraph graph, long version, int source) {
+        Map<Integer, CompletableFuture<ShortestPathTree>> pending;
+        long generation;
+        synchronized (this) {
+            if (version > this.version) {
+                clear();
+                this.version = version;
+            }
+            generation = this.generation;
+            pending = version == this.version ? this.pending : null;
+            ShortestPathTree tree = pending != null ? trees.get(source) : null;
+            if (tree != null) {
+                hits.increment();
+                return tree;
+            }
+        }
+        misses.increment();
+        if (pending == null) {
+            return computation.apply(graph, source);
+        }
+
+        CompletableFuture<ShortestPathTree> mine = new CompletableFuture<>();
+        CompletableFuture<ShortestPathTree> running = pending.putIfAbsent(source, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            ShortestPathTree tree = computation.apply(graph, source);
+            store(generation, tree);
+            mine.complete(tree);
+            return tree;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            pending.remove(source, mine);
+        }
+    }
+
+    /**
+     * Drops every cached tree, e.g. after the graph was changed in place. Computations already running
+     * finish, but their trees are not cached.
+     */
+    public synchronized void invalidate() {
+        clear();
+    }
+
+    /**
+     * @return The number of lookups answered from the cache.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups that had to compute a tree.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of trees evicted to stay within the memory budget.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of cached trees.
+     */
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    /**
+     * @return The memory held by the cached trees.
+     */
+    public synchronized long sizeInBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ShortestPathTreeCache{trees=" + size() + ", bytes=" + sizeInBytes() + ", hits=" + hits()
+                + ", misses=" + misses() + ", evictions=" + evictions() + "}";
+    }
+
+    private synchronized void store(long generation, ShortestPathTree tree) {
+        if (generation != this.generation || tree.sizeInBytes() > budgetBytes) {
+            return;
+        }
+        ShortestPathTree replaced = trees.put(tree.source(), tree);
+        if (replaced != null) {
+            bytes -= replaced.sizeInBytes();
+        }
+        bytes += tree.sizeInBytes();
+        Iterator<ShortestPathTree> eldest = trees.values().iterator();
+        while (bytes > budgetBytes) {
+            bytes -= eldest.next().sizeInBytes();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private void clear() {
+        trees.clear();
+        bytes = 0;
+        pending = new ConcurrentHashMap<>();
+        generation++;
+    }
+}
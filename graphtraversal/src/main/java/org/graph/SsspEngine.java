@@ -0,0 +1,67 @@
+package org.graph;
+
+/**
+ * The priority structures available for single-source shortest paths on a {@link CsrGraph}.
+ * All engines return the same distances; when several shortest paths exist they may pick
+ * different predecessors.
+ */
+public enum SsspEngine {
+    /**
+     * Dijkstra's algorithm with an {@link IndexedMinHeap}, a 4-ary heap; works for any non-negative weights.
+     */
+    HEAP,
+    /**
+     * Dial's algorithm with a circular array of {@code maxWeight + 1} buckets, see {@link DialSssp}.
+     * Runs in O(E + V * maxWeight) without comparisons, which suits small integer weights.
+     */
+    DIAL,
+    /**
+     * Dijkstra's algorithm with a radix heap, see {@link RadixHeapSssp}. Runs in O(E + V log maxWeight).
+     */
+    RADIX_HEAP,
+    /**
+     * Parallel delta-stepping on the common fork-join pool with the default bucket width, see
+     * {@link DeltaStepping}. Only worth it for large graphs on machines with several cores, so
+     * {@link #AUTO} never picks it.
+     */
+    DELTA_STEPPING,
+    /**
+     * A 0-1 BFS with two vertex lists instead of a priority queue, see {@link ZeroOneBfs}. Only
+     * applies to graphs whose weights are all 0 or 1; other graphs are searched as with {@link #AUTO}.
+     */
+    ZERO_ONE_BFS,
+    /**
+     * Picks an engine from the observed weight range of the graph.
+     */
+    AUTO;
+
+    /**
+     * The largest weight for which {@link #AUTO} uses Dial's algorithm; beyond it the bucket array
+     * and the scans over empty buckets start to cost more than a heap.
+     */
+    static final int DIAL_MAX_WEIGHT = 256;
+
+    /**
+     * Resolves {@link #AUTO}, and {@link #ZERO_ONE_BFS} on graphs it does not apply to, to a concrete
+     * engine for the graph.
+     *
+     * @param graph The graph to search.
+     * @return The engine to use.
+     */
+    SsspEngine resolve(CsrGraph graph) {
+        if (this != AUTO && (this != ZERO_ONE_BFS || isZeroOne(graph))) {
+            return this;
+        }
+        if (graph.minWeight() < 0) {
+            return HEAP;
+        }
+        if (isZeroOne(graph)) {
+            return ZERO_ONE_BFS;
+        }
+        return graph.maxWeight() <= DIAL_MAX_WEIGHT ? DIAL : RADIX_HEAP;
+    }
+
+    private static boolean isZeroOne(CsrGraph graph) {
+        return graph.minWeight() >= 0 && graph.maxWeight() <= 1;
+    }
+}
@@ -0,0 +1,28 @@
+package org.graph;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The min-plus row update of {@link FloydWarshall} on the incubating Vector API, one SIMD register
+ * of distances at a time. The class links against {@code jdk.incubator.vector}, so the build leaves
+ * it out before JDK 16 and {@link FloydWarshall} only loads it, by name, once it has checked that the
+ * module is present.
+ */
+final class VectorMinPlus implements FloydWarshall.RowKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void relaxRow(int[] d, int row, int through, int via, int from, int to) {
+        IntVector viaVector = IntVector.broadcast(SPECIES, via);
+        int j = from;
+        for (int bound = to - SPECIES.length(); j <= bound; j += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, d, through + j).add(viaVector)
+                    .min(IntVector.fromArray(SPECIES, d, row + j))
+                    .intoArray(d, row + j);
+        }
+        for (; j < to; j++) {
+            d[row + j] = Math.min(d[row + j], via + d[through + j]);
+        }
+    }
+}
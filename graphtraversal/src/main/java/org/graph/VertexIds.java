@@ -0,0 +1,107 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * The vertex ids of a graph, indexed by node index, with the reverse lookup from id to index. The
+ * lookup first finds the rank of an id among the ids in ascending order: by offset if they are
+ * contiguous, by binary search otherwise. If the indexes follow ascending ids, as in every graph not
+ * relabelled by {@link GraphReordering}, the rank is the index; otherwise a table maps it to the index.
+ */
+final class VertexIds {
+    /**
+     * The id of every index, or null for ids {@code firstId, firstId + 1, ...} that were not asked to be kept.
+     */
+    final int[] ids;
+    private final int count;
+    private final int firstId;
+    private final boolean contiguous;
+    /**
+     * Maps positions in the ascending order of ids to indexes, or null if indexes already follow it.
+     */
+    private final int[] indexByRank;
+    /**
+     * The ids in ascending order for the binary search of {@link #indexOf(int)}, or null if they are contiguous.
+     */
+    private final int[] sortedIds;
+
+    VertexIds(int[] ids) {
+        this(ids, true);
+    }
+
+    /**
+     * @param ids     The id of every index.
+     * @param keepIds False to drop the array if the ids are ascending and contiguous, so that
+     *                {@link #ids} is null and ids are computed instead.
+     */
+    VertexIds(int[] ids, boolean keepIds) {
+        this.count = ids.length;
+        int[] sorted;
+        if (isAscending(ids)) {
+            sorted = ids;
+            this.indexByRank = null;
+        } else {
+            long[] pairs = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                pairs[i] = ((long) ids[i] << 32) | i;
+            }
+            Arrays.sort(pairs);
+            sorted = new int[ids.length];
+            this.indexByRank = new int[ids.length];
+            for (int r = 0; r < pairs.length; r++) {
+                sorted[r] = (int) (pairs[r] >> 32);
+                indexByRank[r] = (int) pairs[r];
+            }
+        }
+        this.firstId = ids.length == 0 ? 0 : sorted[0];
+        this.contiguous = ids.length == 0 || (long) sorted[ids.length - 1] - sorted[0] == ids.length - 1;
+        this.sortedIds = contiguous ? null : sorted;
+        this.ids = keepIds || !contiguous || indexByRank != null ? ids : null;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int id(int index) {
+        return ids != null ? ids[index] : firstId + index;
+    }
+
+    /**
+     * @param id The vertex id.
+     * @return The vertex index, or -1 if there is no such vertex.
+     */
+    int indexOf(int id) {
+        int rank;
+        if (contiguous) {
+            long offset = (long) id - firstId;
+            rank = offset >= 0 && offset < count ? (int) offset : -1;
+        } else {
+            rank = Math.max(Arrays.binarySearch(sortedIds, id), -1);
+        }
+        return rank < 0 || indexByRank == null ? rank : indexByRank[rank];
+    }
+
+    /**
+     * @return True if the indexes follow ascending ids.
+     */
+    boolean ascending() {
+        return indexByRank == null;
+    }
+
+    /**
+     * @return The heap bytes of the ids and their lookup.
+     */
+    long bytes() {
+        return 4L * ((ids == null ? 0 : count) + (indexByRank == null ? 0 : count) + (sortedIds == null || indexByRank == null ? 0 : count));
+    }
+
+    private static boolean isAscending(int[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] <= ids[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package org.graph;
+
+import java.util.Arrays;
+
+/**
+ * Single-source shortest paths for graphs whose weights are all 0 or 1, with a 0-1 BFS.
+ * <p>
+ * Open distances only ever span two values, {@code d} and {@code d + 1}, so instead of a priority
+ * queue the search keeps two lists: the vertices at the current distance, which grows while it is
+ * scanned as zero-weight edges add to it, and the vertices at the next distance. A vertex can be added
+ * more than once if a zero-weight edge improves it later; only its first removal settles it.
+ */
+public class ZeroOneBfs {
+
+    /**
+     * Computes shortest path distances from a source index.
+     *
+     * @param graph     The graph in CSR form; its weights must be 0 or 1.
+     * @param source    The index of the starting node.
+     * @param distances Receives the distance of every node, {@code Integer.MAX_VALUE} if unreachable.
+     * @param previous  Receives the previous node index of every node, or -1.
+     */
+    static void run(CsrGraph graph, int source, int[] distances, int[] previous) {
+        if (graph.edgeCount() > 0 && (graph.minWeight() < 0 || graph.maxWeight() > 1)) {
+            throw new IllegalArgumentException("0-1 BFS requires weights of 0 or 1 but the graph has weights from "
+                    + graph.minWeight() + " to " + graph.maxWeight() + ".");
+        }
+        SearchCounters counters = GraphMetrics.ENABLED ? new SearchCounters("ZERO_ONE_BFS") : null;
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(previous, -1);
+        boolean[] settled = new boolean[graph.nodeCount()];
+        IntList current = new IntList();
+        IntList next = new IntList();
+        distances[source] = 0;
+        current.add(source);
+        if (GraphMetrics.ENABLED) {
+            counters.push();
+        }
+
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        for (int distance = 0; current.size() > 0; distance++) {
+            for (int i = 0; i < current.size(); i++) {
+                int u = current.get(i);
+                if (settled[u]) {
+                    if (GraphMetrics.ENABLED) {
+                        counters.pop();
+                    }
+                    continue;
+                }
+                settled[u] = true;
+                if (GraphMetrics.ENABLED) {
+                    counters.settle();
+                    counters.relax(offsets[u + 1] - offsets[u]);
+                }
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    int newDist = distance + weights[e];
+                    if (newDist < distances[v]) {
+                        if (GraphMetrics.ENABLED) {
+                            counters.push();
+                        }
+                        distances[v] = newDist;
+                        previous[v] = u;
+                        (weights[e] == 0 ? current : next).add(v);
+                    }
+                }
+            }
+            IntList swap = current;
+            current = next;
+            next = swap;
+            next.clear();
+        }
+        if (GraphMetrics.ENABLED) {
+            counters.end(graph.id(source), -1);
+        }
+    }
+}
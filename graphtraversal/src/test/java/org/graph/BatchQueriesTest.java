@@ -0,0 +1,64 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchQueriesTest {
+
+    @Test
+    void testOrderedResultsMatchSingleQueries() throws IOException {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(300, 1200, 11);
+        Random rand = new Random(4);
+        StringBuilder queries = new StringBuilder("# source target\n");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            // Few distinct sources, so most groups hold several queries.
+            int start = rand.nextInt(20) + 1;
+            int end = rand.nextInt(320) + 1;
+            queries.append(start).append(i % 2 == 0 ? " " : ",").append(end).append('\n');
+            int[] distances = Dijkstra.dijkstra(graph, start, new int[graph.nodeCount()]);
+            int distance = graph.containsVertex(end) ? distances[graph.indexOf(end)] : Integer.MAX_VALUE;
+            List<Integer> path = Dijkstra.shortestPath(graph, start, end);
+            expected.append(start).append(' ').append(end).append(' ')
+                    .append(distance == Integer.MAX_VALUE ? -1 : distance).append(' ').append(path).append('\n');
+        }
+
+        StringWriter out = new StringWriter();
+        BatchStats stats = BatchQueries.run(graph, new StringReader(queries.toString()), out, 4, true);
+
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(200, stats.queries());
+        assertTrue(stats.searches() <= 20, "Queries with the same source should share a search.");
+        assertTrue(stats.p50Nanos() <= stats.p99Nanos());
+        assertTrue(stats.p50WaitNanos() <= stats.p99WaitNanos());
+    }
+
+    @Test
+    void testUnorderedResultsCarryQueryIds() throws IOException {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 3).addEdge(2, 3, 4).addEdge(1, 3, 10).build();
+        StringWriter out = new StringWriter();
+        BatchQueries.run(graph, new StringReader("1 3\n3 1\n\n2 3\n1 1\n"), out, 2, false);
+
+        Set<String> lines = new HashSet<>(Arrays.asList(out.toString().split("\n")));
+        assertEquals(Set.of("0 1 3 7 [1, 2, 3]", "1 3 1 -1 []", "2 2 3 4 [2, 3]", "3 1 1 0 [1]"), lines);
+    }
+
+    @Test
+    void testRejectsMalformedQueries() {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 3).build();
+        assertThrows(IOException.class,
+                () -> BatchQueries.run(graph, new StringReader("1 2\n1 2 3\n"), new StringWriter(), 1, true));
+        assertThrows(IOException.class,
+                () -> BatchQueries.run(graph, new StringReader("1 x\n"), new StringWriter(), 1, true));
+    }
+}
@@ -0,0 +1,92 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedEccentricityTest {
+
+    // A random graph with a cycle through all nodes, so that every node reaches every other node.
+    private CsrGraph createStronglyConnectedGraph(int n, int extraEdges, long seed) {
+        Random rand = new Random(seed);
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 1; i <= n; i++) {
+            builder.addEdge(i, i % n + 1, rand.nextInt(10) + 1);
+        }
+        for (int i = 0; i < extraEdges; i++) {
+            int from = rand.nextInt(n) + 1;
+            int to = rand.nextInt(n) + 1;
+            if (from != to) {
+                builder.addEdge(from, to, rand.nextInt(10) + 1);
+            }
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testBoundedMatchesAllPairsOnStronglyConnectedGraphs() {
+        for (long seed = 0; seed < 20; seed++) {
+            CsrGraph graph = createStronglyConnectedGraph(150, 300, seed);
+            EccentricityResult expected = EccentricityEngine.compute(graph);
+
+            EccentricityBounds bounds = BoundedEccentricity.solve(graph, ApproximationBudget.unlimited());
+
+            assertTrue(bounds.isExact(), "Unlimited budget should give exact bounds.");
+            assertEquals(expected.radius(), bounds.radiusLower(), "Radius is incorrect for seed " + seed);
+            assertEquals(expected.diameter(), bounds.diameterLower(), "Diameter is incorrect for seed " + seed);
+        }
+    }
+
+    @Test
+    void testBoundedStrategyOnGeneratedGraph() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(120, 400);
+
+        assertEquals(GraphProperties.radius(graph), GraphProperties.radius(graph, GraphProperties.Strategy.BOUNDED));
+        assertEquals(GraphProperties.diameter(graph), GraphProperties.diameter(graph, GraphProperties.Strategy.BOUNDED));
+    }
+
+    @Test
+    void testApproximateBoundsContainExactValues() {
+        CsrGraph graph = createStronglyConnectedGraph(300, 600, 7);
+        EccentricityResult expected = EccentricityEngine.compute(graph);
+
+        EccentricityBounds bounds = GraphProperties.approximate(graph,
+                ApproximationBudget.unlimited().withMaxSources(2).withTimeLimit(Duration.ofSeconds(10)));
+
+        assertTrue(bounds.sources() <= 2, "Budget should limit the number of sources.");
+        assertTrue(bounds.radiusLower() <= expected.radius() && expected.radius() <= bounds.radiusUpper(), bounds.toString());
+        assertTrue(bounds.diameterLower() <= expected.diameter() && expected.diameter() <= bounds.diameterUpper(), bounds.toString());
+    }
+
+    @Test
+    void testApproximateOnGraphThatIsNotStronglyConnected() {
+        CsrGraph graph = CsrGraph.builder()
+                .addEdge(1, 2, 1).addEdge(1, 5, 10)
+                .addEdge(2, 3, 6)
+                .addEdge(3, 4, 3).addEdge(3, 5, 9)
+                .addEdge(4, 5, 6)
+                .build();
+
+        EccentricityBounds bounds = GraphProperties.approximate(graph, ApproximationBudget.unlimited().withMaxSources(2));
+
+        assertFalse(bounds.isExact(), "Two sources cannot prove the properties of a five node DAG.");
+        assertTrue(bounds.radiusLower() <= 6 && 6 <= bounds.radiusUpper(), bounds.toString());
+        assertTrue(bounds.diameterLower() <= 15 && 15 <= bounds.diameterUpper(), bounds.toString());
+    }
+
+    @Test
+    void testApproximateOnMapMatchesCsrGraph() {
+        Map<Integer, List<Edge>> graph = GraphGenerator.generateGraph(80, 240, 5, 10);
+
+        EccentricityBounds bounds = GraphProperties.approximate(graph, ApproximationBudget.unlimited());
+
+        assertTrue(bounds.isExact(), bounds.toString());
+        assertEquals(GraphProperties.radius(graph), bounds.radiusLower());
+        assertEquals(GraphProperties.diameter(graph), bounds.diameterUpper());
+    }
+}
@@ -0,0 +1,81 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BreadthFirstSearchTest {
+
+    /**
+     * Hop distances from a plain queue-based BFS, -1 for unreachable vertices.
+     */
+    private int[] hops(CsrGraph graph, int sourceIndex) {
+        int[] hops = new int[graph.nodeCount()];
+        Arrays.fill(hops, -1);
+        hops[sourceIndex] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(sourceIndex);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                if (hops[graph.target(e)] < 0) {
+                    hops[graph.target(e)] = hops[u] + 1;
+                    queue.add(graph.target(e));
+                }
+            }
+        }
+        return hops;
+    }
+
+    private void assertLevelsMatch(CsrGraph graph, BreadthFirstSearch search, int[] expected) {
+        int[] levelOf = new int[graph.nodeCount()];
+        Arrays.fill(levelOf, -1);
+        int[] ids = search.ids().toArray();
+        int position = 0;
+        for (int level = 0; level < search.levels(); level++) {
+            for (int i = 0; i < search.levelSize(level); i++) {
+                levelOf[graph.indexOf(ids[position++])] = level;
+            }
+        }
+        assertEquals(ids.length, search.reached());
+        assertArrayEquals(expected, levelOf);
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            assertEquals(expected[v] >= 0, search.visited(graph.id(v)));
+        }
+    }
+
+    @Test
+    void testLevelsMatchQueueBfsInBothDirections() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Sparse graphs stay top down; dense ones switch to bottom-up steps after the first level.
+            for (int[] size : new int[][]{{20000, 30000}, {20000, 400000}, {3000, 3000 * 2999}}) {
+                CsrGraph graph = GraphGenerator.generateCsrGraph(size[0], Math.min(size[1], 2_000_000), size[0]);
+                for (int start : new int[]{1, size[0] / 2}) {
+                    int[] expected = hops(graph, graph.indexOf(start));
+                    assertLevelsMatch(graph, BreadthFirstSearch.run(graph, start), expected);
+                    assertLevelsMatch(graph, BreadthFirstSearch.run(graph, start, pool), expected);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testPartialReachAndMissingStart() {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 1).addEdge(2, 3, 1).addEdge(4, 1, 1).addVertex(70).build();
+        BreadthFirstSearch search = BreadthFirstSearch.run(graph, 1);
+        assertEquals(3, search.reached());
+        assertEquals(3, search.levels());
+        assertArrayEquals(new int[]{1, 2, 3}, search.ids().toArray());
+        assertFalse(search.visited(4));
+        assertFalse(search.visited(99));
+        assertFalse(GraphValidator.isGraphConnected(graph));
+        assertThrows(IllegalArgumentException.class, () -> BreadthFirstSearch.run(graph, 99));
+    }
+}
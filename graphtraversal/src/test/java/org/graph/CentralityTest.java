@@ -0,0 +1,112 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CentralityTest {
+
+    private CsrGraph createDiamond() {
+        return CsrGraph.builder().addEdge(1, 2, 1).addEdge(1, 3, 1).addEdge(2, 4, 1).addEdge(3, 4, 1).addEdge(4, 5, 2).build();
+    }
+
+    /**
+     * Betweenness from the definition: for every pair (s, t), the fraction of shortest paths through v
+     * is sigma(s, v) * sigma(v, t) / sigma(s, t) whenever v lies on a shortest path.
+     */
+    private double[] bruteForceBetweenness(CsrGraph graph) {
+        int n = graph.nodeCount();
+        long[][] distance = new long[n][];
+        double[][] sigma = new double[n][n];
+        for (int s = 0; s < n; s++) {
+            int[] d = Dijkstra.dijkstra(graph, graph.id(s), new int[n]);
+            long[] fromSource = Arrays.stream(d).asLongStream().toArray();
+            distance[s] = fromSource;
+            Integer[] byDistance = new Integer[n];
+            for (int v = 0; v < n; v++) {
+                byDistance[v] = v;
+            }
+            Arrays.sort(byDistance, (a, b) -> Long.compare(fromSource[a], fromSource[b]));
+            sigma[s][s] = 1;
+            for (int v : byDistance) {
+                for (int u = 0; u < n; u++) {
+                    for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                        if (graph.target(e) == v && v != s && d[u] != Integer.MAX_VALUE && d[u] + graph.weight(e) == d[v]) {
+                            sigma[s][v] += sigma[s][u];
+                        }
+                    }
+                }
+            }
+        }
+        double[] result = new double[n];
+        for (int s = 0; s < n; s++) {
+            for (int t = 0; t < n; t++) {
+                for (int v = 0; v < n; v++) {
+                    if (v != s && v != t && s != t && sigma[s][t] > 0 && sigma[s][v] > 0 && sigma[v][t] > 0
+                            && distance[s][v] + distance[v][t] == distance[s][t]) {
+                        result[v] += sigma[s][v] * sigma[v][t] / sigma[s][t];
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void testBetweennessOfDiamond() {
+        CentralityResult result = Centrality.betweenness(createDiamond());
+        assertTrue(result.isExact());
+        assertEquals(0.0, result.score(1), 1e-9);
+        assertEquals(1.0, result.score(2), 1e-9);
+        assertEquals(1.0, result.score(3), 1e-9);
+        assertEquals(3.0, result.score(4), 1e-9);
+        assertEquals(Arrays.asList(4, 2), result.top(2));
+    }
+
+    @Test
+    void testBetweennessMatchesDefinition() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(40, 120, 9);
+        double[] expected = bruteForceBetweenness(graph);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertArrayEquals(expected, Centrality.betweenness(graph, 40, 0, pool).scores(), 1e-6);
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expected, GraphProperties.betweenness(graph).scores(), 1e-6);
+    }
+
+    @Test
+    void testClosenessAndHarmonic() {
+        CsrGraph graph = createDiamond();
+        // Node 1 reaches all 4 others at distances 1, 1, 2 and 4; node 5 reaches nothing.
+        assertEquals(4.0 / 8 * (4.0 / 4), Centrality.closeness(graph).score(1), 1e-9);
+        assertEquals(0.0, Centrality.closeness(graph).score(5), 1e-9);
+        assertEquals((1 + 1 + 0.5 + 0.25) / 4, GraphProperties.harmonicCentrality(graph).score(1), 1e-9);
+        // Node 4 reaches only node 5, at distance 2.
+        assertEquals(1.0 / 2 * (1.0 / 4), GraphProperties.closeness(graph).score(4), 1e-9);
+    }
+
+    @Test
+    void testSampledEstimates() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(2000, 8000, 4);
+        CentralityResult exact = Centrality.harmonic(graph);
+        CentralityResult sampled = Centrality.harmonic(graph, 400, 1);
+        assertFalse(sampled.isExact());
+        assertEquals(400, sampled.sources());
+        double exactMean = Arrays.stream(exact.scores()).average().orElse(0);
+        double sampledMean = Arrays.stream(sampled.scores()).average().orElse(0);
+        assertEquals(exactMean, sampledMean, exactMean * 0.1);
+
+        double[] betweenness = Centrality.betweenness(graph).scores();
+        double[] estimate = Centrality.betweenness(graph, 400, 1).scores();
+        assertEquals(Arrays.stream(betweenness).sum(), Arrays.stream(estimate).sum(), Arrays.stream(betweenness).sum() * 0.1);
+        assertArrayEquals(estimate, Centrality.betweenness(graph, 400, 1).scores(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> Centrality.betweenness(graph, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> Centrality.betweenness(CsrGraph.builder().addEdge(1, 2, 0).build()));
+    }
+}
@@ -0,0 +1,106 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedGraphTest {
+
+    @Test
+    void testRoundTripAndSearchesMatchCsr() {
+        CsrGraph generated = GraphGenerator.generateCsrGraph(2000, 12000, 8);
+        CsrGraph wide = CsrGraph.builder()
+                .addEdge(-5, 7, Integer.MIN_VALUE).addEdge(-5, 1_000_000, Integer.MAX_VALUE)
+                .addEdge(7, -5, 0).addEdge(1_000_000, 7, 3).addVertex(42).build();
+        for (CsrGraph graph : new CsrGraph[]{generated, GraphReordering.reorder(generated).graph(), wide}) {
+            CompressedGraph compressed = CompressedGraph.of(graph);
+            assertEquals(graph.nodeCount(), compressed.nodeCount());
+            assertEquals(graph.edgeCount(), compressed.edgeCount());
+            assertEquals(graph.minWeight(), compressed.minWeight());
+            assertEquals(graph.maxWeight(), compressed.maxWeight());
+            CsrGraph restored = compressed.toCsrGraph();
+            for (int v = 0; v < graph.nodeCount(); v++) {
+                assertEquals(graph.id(v), compressed.id(v));
+                assertEquals(v, compressed.indexOf(graph.id(v)));
+                assertEquals(graph.id(v), restored.id(v));
+                int[] expected = Arrays.copyOfRange(graph.targets, graph.edgeStart(v), graph.edgeEnd(v));
+                assertArrayEquals(expected, Arrays.copyOfRange(restored.targets, restored.edgeStart(v), restored.edgeEnd(v)));
+                assertArrayEquals(Arrays.copyOfRange(graph.weights, graph.edgeStart(v), graph.edgeEnd(v)),
+                        Arrays.copyOfRange(restored.weights, restored.edgeStart(v), restored.edgeEnd(v)));
+            }
+            assertEquals(-1, compressed.indexOf(Integer.MIN_VALUE));
+        }
+
+        CompressedGraph compressed = CompressedGraph.of(generated);
+        int n = generated.nodeCount();
+        for (int source : new int[]{1, 777, 2000}) {
+            int[] expectedPrevious = new int[n];
+            int[] previous = new int[n];
+            assertArrayEquals(Dijkstra.dijkstra(generated, source, expectedPrevious), Dijkstra.dijkstra(compressed, source, previous));
+            BreadthFirstSearch expected = BreadthFirstSearch.run(generated, source);
+            BreadthFirstSearch actual = BreadthFirstSearch.run(compressed, source);
+            assertEquals(expected.reached(), actual.reached());
+            assertEquals(expected.levels(), actual.levels());
+            for (int level = 0; level < expected.levels(); level++) {
+                assertEquals(expected.levelSize(level), actual.levelSize(level));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> BreadthFirstSearch.run(compressed, 0));
+    }
+
+    @Test
+    void testCompressesGraphsWithLocality() {
+        // A ring of 10000 vertices with chords to the vertices 2 and 3 steps ahead.
+        CsrGraph.Builder builder = CsrGraph.builder();
+        int n = 10000;
+        for (int v = 0; v < n; v++) {
+            for (int step = 1; step <= 3; step++) {
+                builder.addEdge(v, (v + step) % n, 1 + (v + step) % 7);
+            }
+        }
+        CsrGraph graph = builder.build();
+        CompressedGraph compressed = CompressedGraph.of(graph);
+        long csrBytes = 8L * graph.nodeCount() + 8L * graph.edgeCount();
+        // Contiguous ids cost nothing and each edge takes a byte, so only the offsets remain.
+        assertTrue(compressed.bytes() * 5 < csrBytes, compressed.bytes() + " bytes");
+    }
+
+    @Test
+    void testFallsBackToIntOffsetsForLongLists() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        // Targets 100 apart with 16-bit weights take 4 bytes each, so every list is about 40 KiB.
+        for (int v = 0; v < 4; v++) {
+            for (int t = 0; t < 10000; t++) {
+                builder.addEdge(v, 4 + t * 100, (t * 37) % 60000);
+            }
+        }
+        CsrGraph graph = builder.build();
+        CompressedGraph compressed = CompressedGraph.of(graph);
+        int[] distances = Dijkstra.dijkstra(compressed, 3, new int[graph.nodeCount()]);
+        assertArrayEquals(Dijkstra.dijkstra(graph, 3, new int[graph.nodeCount()]), distances);
+        assertEquals(graph.edgeCount(), compressed.toCsrGraph().edgeCount());
+    }
+
+    @Test
+    void testCompressesMappedGraphWithoutLoadingIt() throws IOException {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(500, 3000, 4);
+        Path file = Files.createTempFile("compressed", ".bin");
+        try {
+            GraphFile.write(graph, file, false);
+            CompressedGraph mapped = CompressedGraph.of(GraphFile.map(file));
+            CompressedGraph loaded = CompressedGraph.of(graph);
+
+            assertEquals(loaded.bytes(), mapped.bytes());
+            assertEquals(graph.toMap(), mapped.toCsrGraph().toMap());
+            assertEquals(graph.minWeight(), mapped.minWeight());
+            assertEquals(graph.maxWeight(), mapped.maxWeight());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
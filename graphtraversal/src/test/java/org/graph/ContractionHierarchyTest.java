@@ -0,0 +1,62 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContractionHierarchyTest {
+
+    @Test
+    void testShortestPathOnSampleGraph() {
+        CsrGraph graph = CsrGraph.builder()
+                .addEdge(1, 2, 1)
+                .addEdge(2, 3, 9).addEdge(2, 5, 30)
+                .addEdge(3, 4, 4)
+                .addEdge(4, 5, 9)
+                .addEdge(5, 1, 3)
+                .build();
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), hierarchy.shortestPath(1, 5));
+        assertEquals(23, hierarchy.distance(1, 5));
+        assertEquals(Arrays.asList(4, 5, 1, 2), hierarchy.shortestPath(4, 2));
+        assertEquals(List.of(3), hierarchy.shortestPath(3, 3));
+        assertEquals(Collections.emptyList(), hierarchy.shortestPath(1, 9));
+    }
+
+    @Test
+    void testSelfLoopsAreNotCountedAsShortcuts() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int v = 1; v <= 6; v++) {
+            builder.addEdge(v, v % 6 + 1, v);
+        }
+        CsrGraph ring = builder.build();
+        CsrGraph withLoops = builder.addEdge(1, 1, 2).addEdge(4, 4, 7).build();
+
+        int shortcuts = ContractionHierarchy.build(ring).shortcutCount();
+        assertTrue(shortcuts > 0, "Contracting a directed ring needs shortcuts.");
+        assertEquals(shortcuts, ContractionHierarchy.build(withLoops).shortcutCount());
+    }
+
+    @Test
+    void testUnreachableNode() {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 4).addEdge(3, 2, 1).build();
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+
+        assertEquals(Integer.MAX_VALUE, hierarchy.distance(2, 1));
+        assertEquals(Collections.emptyList(), hierarchy.shortestPath(1, 3));
+    }
+
+    @Test
+    void testVerifyAgainstDijkstraOnGeneratedGraphs() {
+        for (int i = 0; i < 5; i++) {
+            CsrGraph graph = GraphGenerator.generateCsrGraph(300, 900);
+            ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+            assertDoesNotThrow(() -> hierarchy.verify(500, 17));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsrGraphTest {
+
+    private Map<Integer, List<Edge>> createSampleGraph() {
+        Map<Integer, List<Edge>> graph = new HashMap<>();
+        graph.put(1, Arrays.asList(new Edge(5, 10), new Edge(2, 1)));
+        graph.put(2, Arrays.asList(new Edge(3, 6)));
+        graph.put(3, Arrays.asList(new Edge(4, 3), new Edge(5, 9)));
+        graph.put(4, Arrays.asList(new Edge(5, 6)));
+        graph.put(5, Collections.emptyList());
+        return graph;
+    }
+
+    @Test
+    void testFromMapKeepsNodesAndEdges() {
+        CsrGraph graph = CsrGraph.fromMap(createSampleGraph());
+
+        assertEquals(5, graph.nodeCount(), "Graph should have 5 nodes.");
+        assertEquals(6, graph.edgeCount(), "Graph should have 6 edges.");
+
+        int node = graph.indexOf(1);
+        assertEquals(1, graph.id(node));
+        assertEquals(2, graph.degree(node));
+        assertEquals(2, graph.id(graph.target(graph.edgeStart(node))), "Edges should be sorted by target.");
+        assertEquals(1, graph.weight(graph.edgeStart(node)));
+        assertEquals(0, graph.degree(graph.indexOf(5)));
+    }
+
+    @Test
+    void testToMapRoundTrip() {
+        Map<Integer, List<Edge>> map = createSampleGraph();
+        Map<Integer, List<Edge>> roundTrip = CsrGraph.fromMap(map).toMap();
+
+        assertEquals(map.keySet(), roundTrip.keySet());
+        assertEquals(Arrays.asList(new Edge(2, 1), new Edge(5, 10)), roundTrip.get(1));
+    }
+
+    @Test
+    void testNonContiguousIds() {
+        CsrGraph graph = CsrGraph.builder()
+                .addEdge(10, 30, 2)
+                .addEdge(30, 20, 4)
+                .addVertex(40)
+                .build();
+
+        assertEquals(4, graph.nodeCount());
+        assertEquals(2, graph.indexOf(30));
+        assertEquals(-1, graph.indexOf(25));
+        assertFalse(graph.containsVertex(0));
+        assertEquals(0, graph.degree(graph.indexOf(40)));
+    }
+
+    @Test
+    void testDuplicateEdgesKeepLightestWeight() {
+        CsrGraph graph = CsrGraph.builder()
+                .addEdge(1, 2, 7)
+                .addEdge(1, 2, 3)
+                .addEdge(1, 2, 5)
+                .build();
+
+        assertEquals(1, graph.edgeCount());
+        assertEquals(3, graph.weight(0));
+    }
+
+    @Test
+    void testAlgorithmsMatchMapRepresentation() {
+        Map<Integer, List<Edge>> map = createSampleGraph();
+        CsrGraph graph = CsrGraph.fromMap(map);
+
+        assertEquals(Dijkstra.shortestPath(map, 1, 5), Dijkstra.shortestPath(graph, 1, 5));
+        assertEquals(GraphProperties.eccentricity(map, 1), GraphProperties.eccentricity(graph, 1));
+        assertEquals(GraphProperties.radius(map), GraphProperties.radius(graph));
+        assertEquals(GraphProperties.diameter(map), GraphProperties.diameter(graph));
+        assertEquals(5, GraphValidator.seqGraphBfs(graph, 1).count());
+        assertTrue(GraphValidator.isGraphConnected(graph));
+    }
+
+    @Test
+    void testGenerateCsrGraph() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(100, 300);
+
+        assertEquals(100, graph.nodeCount(), "Graph should have 100 nodes.");
+        assertEquals(300, graph.edgeCount(), "Graph should have 300 edges.");
+        assertTrue(GraphValidator.isGraphConnected(graph), "Graph should be connected.");
+    }
+}
@@ -0,0 +1,78 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeltaSteppingTest {
+
+    private CsrGraph createRandomGraph(int n, int m, int maxWeight, long seed) {
+        Random rand = new Random(seed);
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 1; i < n; i++) {
+            builder.addEdge(i, i + 1, rand.nextInt(maxWeight + 1));
+        }
+        for (int i = 0; i < m; i++) {
+            builder.addEdge(rand.nextInt(n) + 1, rand.nextInt(n) + 1, rand.nextInt(maxWeight + 1));
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testMatchesDijkstraForSeveralDeltas() {
+        CsrGraph graph = createRandomGraph(2000, 10000, 1000, 1);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int start : new int[]{1, 777, 2000}) {
+                int[] expected = Dijkstra.dijkstra(graph, start, new int[graph.nodeCount()], SsspEngine.HEAP);
+                for (int delta : new int[]{1, 50, DeltaStepping.defaultDelta(graph), 5000}) {
+                    int[] previous = new int[graph.nodeCount()];
+                    int[] distances = DeltaStepping.shortestPaths(graph, start, previous, delta, pool);
+                    assertArrayEquals(expected, distances, "Distances with delta " + delta + " are incorrect.");
+                    assertPredecessorsAreTight(graph, graph.indexOf(start), distances, previous);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testUnreachableAndMissingStart() {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 3).addEdge(3, 1, 4).build();
+        int[] previous = new int[3];
+        int[] distances = DeltaStepping.shortestPaths(graph, 1, previous);
+        assertArrayEquals(new int[]{0, 3, Integer.MAX_VALUE}, distances);
+        assertArrayEquals(new int[]{-1, 0, -1}, previous);
+
+        distances = DeltaStepping.shortestPaths(graph, 9, previous);
+        assertArrayEquals(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE}, distances);
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        CsrGraph negative = CsrGraph.builder().addEdge(1, 2, -1).build();
+        assertThrows(IllegalArgumentException.class, () -> DeltaStepping.shortestPaths(negative, 1, new int[2]));
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 1).build();
+        assertThrows(IllegalArgumentException.class,
+                () -> DeltaStepping.shortestPaths(graph, 1, new int[2], 0, ForkJoinPool.commonPool()));
+    }
+
+    private void assertPredecessorsAreTight(CsrGraph graph, int source, int[] distances, int[] previous) {
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            if (v == source || distances[v] == Integer.MAX_VALUE) {
+                assertEquals(-1, previous[v]);
+                continue;
+            }
+            int u = previous[v];
+            boolean tight = false;
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                tight |= graph.target(e) == v && distances[u] + graph.weight(e) == distances[v];
+            }
+            assertTrue(tight, "Predecessor of " + v + " is not on a shortest path.");
+        }
+    }
+}
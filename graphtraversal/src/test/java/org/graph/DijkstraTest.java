@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 public class DijkstraTest {
 
@@ -52,4 +53,74 @@ public class DijkstraTest {
         System.out.println("Shortest path from " + start + " to " + end + ": " + shortestPath);
         Assertions.assertEquals(23, shortestDistance, "Shortest distance from 1 to 5 is incorrect.");
     }
+
+    @Test
+    void testBidirectionalShortestPath() {
+        CsrGraph graph = CsrGraph.fromMap(createNewGraph());
+        Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5), Dijkstra.bidirectionalShortestPath(graph, 1, 5));
+        Assertions.assertEquals(Arrays.asList(5, 1, 2), Dijkstra.bidirectionalShortestPath(graph, 5, 2));
+        Assertions.assertEquals(List.of(3), Dijkstra.bidirectionalShortestPath(graph, 3, 3));
+        Assertions.assertEquals(Collections.emptyList(), Dijkstra.bidirectionalShortestPath(graph, 1, 42));
+    }
+
+    @Test
+    void testPointToPointSearchesMatchFullSearch() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(300, 900);
+        Random rand = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            int start = rand.nextInt(300) + 1;
+            int end = rand.nextInt(300) + 1;
+            int[] distances = Dijkstra.dijkstra(graph, start, new int[graph.nodeCount()]);
+            int expected = distances[graph.indexOf(end)];
+
+            List<Integer> path = Dijkstra.shortestPath(graph, start, end);
+            List<Integer> bidirectionalPath = Dijkstra.bidirectionalShortestPath(graph, start, end);
+
+            if (expected == Integer.MAX_VALUE) {
+                Assertions.assertTrue(path.isEmpty() && bidirectionalPath.isEmpty(), "Unreachable node should give an empty path.");
+            } else {
+                Assertions.assertEquals(expected, pathLength(graph, path), "Path from " + start + " to " + end + " is not shortest.");
+                Assertions.assertEquals(expected, pathLength(graph, bidirectionalPath), "Bidirectional path from " + start + " to " + end + " is not shortest.");
+            }
+        }
+    }
+
+    @Test
+    void testSearchContextIsReusedAcrossGraphs() {
+        CsrGraph small = CsrGraph.fromMap(createSampleGraph());
+        CsrGraph large = GraphGenerator.generateCsrGraph(200, 600, 9);
+        SearchContext context = new SearchContext(large.nodeCount());
+        Random rand = new Random(5);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), Dijkstra.shortestPath(small, 1, 6, context));
+            int start = rand.nextInt(200) + 1;
+            int end = rand.nextInt(200) + 1;
+            int expected = Dijkstra.dijkstra(large, start, new int[large.nodeCount()])[large.indexOf(end)];
+            List<Integer> path = Dijkstra.shortestPath(large, start, end, context);
+            Assertions.assertEquals(expected == Integer.MAX_VALUE ? 0 : expected, pathLength(large, path));
+            Assertions.assertEquals(expected == Integer.MAX_VALUE, path.isEmpty());
+        }
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Dijkstra.shortestPath(large, 1, 2, new SearchContext(small.nodeCount())));
+        Assertions.assertSame(SearchContext.forCurrentThread(10), SearchContext.forCurrentThread(5));
+        Assertions.assertTrue(SearchContext.forCurrentThread(1000).capacity() >= 1000);
+    }
+
+    private int pathLength(CsrGraph graph, List<Integer> path) {
+        int length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            int from = graph.indexOf(path.get(i - 1));
+            int to = graph.indexOf(path.get(i));
+            int weight = -1;
+            for (int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+                if (graph.target(e) == to) {
+                    weight = graph.weight(e);
+                }
+            }
+            Assertions.assertTrue(weight >= 0, "Path uses a missing edge " + path.get(i - 1) + " -> " + path.get(i));
+            length += weight;
+        }
+        return length;
+    }
 }
@@ -0,0 +1,108 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicGraphTest {
+
+    private CsrGraph createSampleGraph() {
+        return CsrGraph.builder().addEdge(1, 2, 3).addEdge(2, 3, 4).addEdge(1, 3, 10).addEdge(3, 4, 1).build();
+    }
+
+    @Test
+    void testTreeFollowsUpdates() {
+        DynamicGraph graph = DynamicGraph.from(createSampleGraph());
+        DynamicShortestPathTree tree = graph.track(1);
+        assertEquals(Arrays.asList(1, 2, 3, 4), tree.path(4));
+        assertEquals(8, tree.eccentricity());
+
+        graph.insertEdge(1, 4, 2);
+        assertEquals(Arrays.asList(1, 4), tree.path(4));
+        assertEquals(7, tree.eccentricity());
+
+        // Deleting a tree edge reroutes its subtree through the remaining edges.
+        graph.deleteEdge(2, 3);
+        assertEquals(Arrays.asList(1, 3), tree.path(3));
+        assertEquals(10, tree.distance(3));
+        assertEquals(2, tree.distance(4));
+
+        graph.changeWeight(1, 3, 1);
+        assertEquals(1, tree.distance(3));
+        graph.deleteEdge(1, 2);
+        assertEquals(Integer.MAX_VALUE, tree.distance(2));
+        assertTrue(tree.path(2).isEmpty());
+        assertEquals(2, tree.eccentricity());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(4, graph.version());
+    }
+
+    @Test
+    void testRandomUpdatesMatchRecomputation() {
+        CsrGraph initial = GraphGenerator.generateCsrGraph(60, 240, 11);
+        DynamicGraph graph = DynamicGraph.from(initial);
+        DynamicShortestPathTree[] trees = {graph.track(initial.id(0)), graph.track(initial.id(17))};
+        Random random = new Random(5);
+        for (int step = 0; step < 400; step++) {
+            int from = initial.id(random.nextInt(60));
+            int to = initial.id(random.nextInt(60));
+            int weight = graph.weight(from, to);
+            if (from == to) {
+                continue;
+            } else if (weight < 0) {
+                graph.insertEdge(from, to, random.nextInt(20));
+            } else if (random.nextBoolean()) {
+                graph.deleteEdge(from, to);
+            } else {
+                graph.changeWeight(from, to, random.nextInt(20));
+            }
+            CsrGraph snapshot = graph.toCsrGraph();
+            for (DynamicShortestPathTree tree : trees) {
+                int[] expected = Dijkstra.dijkstra(snapshot, tree.source(), new int[60]);
+                for (int v = 0; v < 60; v++) {
+                    assertEquals(expected[v], tree.distance(snapshot.id(v)), "step " + step + ", vertex " + snapshot.id(v));
+                }
+                assertEquals(GraphProperties.eccentricity(snapshot, tree.source()), tree.eccentricity());
+            }
+        }
+    }
+
+    @Test
+    void testInvalidUpdates() {
+        DynamicGraph graph = DynamicGraph.from(createSampleGraph());
+        assertThrows(IllegalArgumentException.class, () -> graph.insertEdge(1, 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.insertEdge(1, 99, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.deleteEdge(4, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.changeWeight(1, 2, -1));
+        assertThrows(IllegalArgumentException.class, () -> graph.track(99));
+        assertEquals(-1, graph.weight(4, 1));
+        assertEquals(0, graph.version());
+    }
+
+    @Test
+    void testCsrCopyKeepsRelabelledIndexes() {
+        CsrGraph reordered = GraphReordering.reorder(GraphGenerator.generateCsrGraph(100, 400, 8)).graph();
+        DynamicGraph graph = DynamicGraph.from(reordered);
+        graph.deleteEdge(reordered.id(0), reordered.id(reordered.target(reordered.edgeStart(0))));
+        int to = reordered.id(reordered.nodeCount() - 1);
+        if (graph.weight(reordered.id(0), to) < 0) {
+            graph.insertEdge(reordered.id(0), to, 5);
+        }
+
+        CsrGraph copy = graph.toCsrGraph();
+        assertEquals(reordered.nodeCount(), copy.nodeCount());
+        for (int v = 0; v < copy.nodeCount(); v++) {
+            assertEquals(reordered.id(v), copy.id(v), "Vertex " + v + " should keep its id.");
+            for (int e = copy.edgeStart(v); e < copy.edgeEnd(v); e++) {
+                assertEquals(graph.weight(copy.id(v), copy.id(copy.target(e))), copy.weight(e));
+                if (e > copy.edgeStart(v)) {
+                    assertTrue(copy.target(e - 1) < copy.target(e), "Rows should be sorted by target.");
+                }
+            }
+        }
+        assertEquals(graph.edgeCount(), copy.edgeCount());
+    }
+}
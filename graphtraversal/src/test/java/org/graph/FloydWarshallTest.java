@@ -0,0 +1,69 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FloydWarshallTest {
+
+    @Test
+    void testDistancesMatchDijkstra() {
+        // 150 nodes are three tiles per side, the last one partial.
+        CsrGraph graph = GraphGenerator.generateCsrGraph(150, 3000, 20);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            DistanceMatrix matrix = FloydWarshall.distances(graph, pool);
+            int n = graph.nodeCount();
+            int[] all = matrix.toArray();
+            for (int u = 0; u < n; u++) {
+                int[] expected = Dijkstra.dijkstra(graph, graph.id(u), new int[n]);
+                assertArrayEquals(expected, matrix.row(graph.id(u)), "Distances from " + graph.id(u));
+                assertEquals(expected[n - 1], matrix.distance(graph.id(u), graph.id(n - 1)));
+                assertEquals(expected[0], all[u * n]);
+            }
+            EccentricityResult expected = EccentricityEngine.compute(graph);
+            EccentricityResult actual = matrix.eccentricities();
+            for (int u = 0; u < n; u++) {
+                assertEquals(expected.eccentricity(graph.id(u)), actual.eccentricity(graph.id(u)));
+            }
+            assertEquals(expected.radius(), actual.radius());
+            assertEquals(expected.diameter(), actual.diameter());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testPropertiesPickFloydWarshallForDenseGraphs() {
+        CsrGraph dense = GraphGenerator.generateCsrGraph(40, 1200, 3);
+        CsrGraph sparse = GraphGenerator.generateCsrGraph(400, 800, 3);
+        assertTrue(FloydWarshall.preferred(dense));
+        assertFalse(FloydWarshall.preferred(sparse));
+        EccentricityResult expected = EccentricityEngine.compute(dense);
+        EccentricityResult actual = GraphProperties.properties(dense);
+        assertEquals(expected.radius(), actual.radius());
+        assertEquals(expected.diameter(), actual.diameter());
+        assertEquals(expected.center(), actual.center());
+        assertEquals(expected.periphery(), actual.periphery());
+    }
+
+    @Test
+    void testUnreachableAndParallelEdges() {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 9).addEdge(1, 2, 4).addEdge(2, 3, 0).addVertex(4).build();
+        DistanceMatrix matrix = FloydWarshall.distances(graph);
+        assertEquals(4, matrix.distance(1, 3));
+        assertEquals(0, matrix.distance(4, 4));
+        assertEquals(Integer.MAX_VALUE, matrix.distance(3, 1));
+        assertEquals(Integer.MAX_VALUE, matrix.distance(1, 4));
+        assertThrows(IllegalArgumentException.class, () -> matrix.distance(1, 5));
+    }
+
+    @Test
+    void testRejectsPathsThatMayOverflow() {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, Integer.MAX_VALUE / 3).addEdge(2, 3, Integer.MAX_VALUE / 3).build();
+        assertFalse(FloydWarshall.fits(graph));
+        assertThrows(IllegalArgumentException.class, () -> FloydWarshall.distances(graph));
+    }
+}
@@ -0,0 +1,74 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphFileTest {
+
+    @Test
+    void testMappedGraphMatchesWrittenGraph() throws IOException {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(500, 2000, 3);
+        Path file = Files.createTempFile("graph", ".bin");
+        try {
+            GraphFile.write(graph, file, true);
+            MappedGraph mapped = GraphFile.map(file);
+
+            assertEquals(graph.nodeCount(), mapped.nodeCount());
+            assertEquals(graph.edgeCount(), mapped.edgeCount());
+            assertEquals(graph.toMap(), mapped.toCsrGraph().toMap(), "The mapped graph should have the same edges.");
+            assertEquals(graph.reverse().toMap(), mapped.reverse().toCsrGraph().toMap(),
+                    "The mapped reverse graph should have the same edges.");
+            assertEquals(42, mapped.indexOf(43));
+            assertEquals(-1, mapped.indexOf(501));
+
+            for (int start : new int[]{1, 250, 500}) {
+                int[] expected = Dijkstra.dijkstra(graph, start, new int[graph.nodeCount()]);
+                int[] actual = Dijkstra.dijkstra(mapped, start, new int[mapped.nodeCount()]);
+                assertArrayEquals(expected, actual, "Distances on the mapped graph should match.");
+            }
+            assertTrue(GraphValidator.isGraphConnected(mapped));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testSparseIdsWithoutReverse() throws IOException {
+        CsrGraph graph = CsrGraph.builder().addEdge(10, 30, 2).addEdge(30, 70, 5).addVertex(90).build();
+        Path file = Files.createTempFile("graph", ".bin");
+        try {
+            GraphFile.write(graph, file, false);
+            MappedGraph mapped = GraphFile.map(file);
+
+            assertFalse(mapped.hasReverse());
+            assertThrows(IllegalStateException.class, mapped::reverse);
+            assertEquals(2, mapped.indexOf(70));
+            assertEquals(-1, mapped.indexOf(50));
+            assertArrayEquals(new int[]{10, 30, 70}, GraphValidator.seqGraphBfs(mapped, 10).toArray());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testRejectsCorruptFiles() throws IOException {
+        Path file = Files.createTempFile("graph", ".bin");
+        try {
+            Files.write(file, new byte[]{1, 2, 3});
+            assertThrows(IOException.class, () -> GraphFile.map(file));
+
+            GraphFile.write(CsrGraph.builder().addEdge(1, 2, 1).build(), file, false);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+            assertThrows(IOException.class, () -> GraphFile.map(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
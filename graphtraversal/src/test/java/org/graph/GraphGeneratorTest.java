@@ -108,4 +108,53 @@ public class GraphGeneratorTest {
 
         Assertions.assertTrue(actualMessage.contains(expectedMessage), "Exception message should contain the correct details.");
     }
+
+    @Test
+    void testSeededCsrGraphIsReproducibleAndSimple() {
+        // Sparse, dense and complete graphs exercise both sampling strategies.
+        int[][] sizes = {{2000, 600_000}, {300, 80_000}, {50, 2450}, {1, 0}};
+        for (int[] size : sizes) {
+            int N = size[0];
+            int S = size[1];
+            CsrGraph graph = GraphGenerator.generateCsrGraph(N, S, 42);
+            CsrGraph again = GraphGenerator.generateCsrGraph(N, S, 42);
+
+            Assertions.assertEquals(N, graph.nodeCount(), "Graph should have " + N + " nodes.");
+            Assertions.assertEquals(S, graph.edgeCount(), "Graph should have " + S + " edges.");
+            Assertions.assertEquals(graph.toMap(), again.toMap(), "The same seed should give the same graph.");
+            Assertions.assertTrue(GraphValidator.isGraphConnected(graph), "Graph should be connected.");
+            for (int v = 0; v < N; v++) {
+                for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                    Assertions.assertNotEquals(v, graph.target(e), "Graph should have no self loops.");
+                    if (e > graph.edgeStart(v)) {
+                        Assertions.assertTrue(graph.target(e - 1) < graph.target(e), "Edges should be sorted and distinct.");
+                    }
+                    Assertions.assertTrue(graph.weight(e) >= 1 && graph.weight(e) <= 10, "Weights should be between 1 and 10.");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSeededCsrGraphRejectsTooManyEdges() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphGenerator.generateCsrGraph(4, 13, 1));
+        Assertions.assertNotEquals(GraphGenerator.generateCsrGraph(100, 500, 1).toMap(),
+                GraphGenerator.generateCsrGraph(100, 500, 2).toMap(), "Different seeds should give different graphs.");
+    }
+
+    @Test
+    void testSeededGraphsUseTheWeightRange() {
+        Map<Integer, List<Edge>> graph = GraphGenerator.generateGraph(200, 1000, 7, 1000);
+        Assertions.assertEquals(graph, GraphGenerator.generateGraph(200, 1000, 7, 1000), "The same seed should give the same graph.");
+        Assertions.assertTrue(graph.values().stream().flatMap(List::stream).allMatch(e -> e.getWeight() >= 1 && e.getWeight() <= 1000),
+                "Weights should be between 1 and 1000.");
+        Assertions.assertTrue(graph.values().stream().flatMap(List::stream).anyMatch(e -> e.getWeight() > 10),
+                "Weights should use the whole range.");
+
+        CsrGraph csr = GraphGenerator.generateCsrGraph(200, 1000, 7, 1);
+        Assertions.assertEquals(1, csr.minWeight());
+        Assertions.assertEquals(1, csr.maxWeight());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphGenerator.generateCsrGraph(200, 1000, 7, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphGenerator.generateGraph(200, 1000, 7, 0));
+    }
 }
@@ -0,0 +1,123 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class GraphMetricsTest {
+
+    @Test
+    void testSnapshotSumsRecordedWork() {
+        GraphMetrics.reset();
+        GraphMetrics.endSearch(GraphMetrics.beginSearch(), "HEAP", 1, 4, 10, 5, 4, 2, 4);
+        GraphMetrics.endSearch(GraphMetrics.beginSearch(), "DIAL", 2, -1, 6, 3, 3, 0, 3);
+        GraphMetrics.recordBfs(3, 7, 4);
+        GraphMetrics.recordBfs(2, 2, 1);
+        GraphMetrics.endPhase(GraphMetrics.beginPhase(GraphMetrics.Phase.PROPERTIES), GraphMetrics.Phase.PROPERTIES, 7);
+
+        MetricsSnapshot metrics = GraphMetrics.snapshot();
+        assertEquals(2, metrics.searches());
+        assertEquals(16, metrics.relaxations());
+        assertEquals(8, metrics.heapPushes());
+        assertEquals(7, metrics.heapPops());
+        assertEquals(2, metrics.decreaseKeys());
+        assertEquals(7, metrics.settled());
+        assertEquals(2, metrics.bfsTraversals());
+        assertEquals(5, metrics.bfsLevels());
+        assertEquals(9, metrics.bfsVisited());
+        assertEquals(4, metrics.bfsMaxFrontier());
+        assertEquals(1, metrics.phaseCount(GraphMetrics.Phase.PROPERTIES));
+        assertEquals(0, metrics.phaseCount(GraphMetrics.Phase.BATCH));
+        assertTrue(metrics.toString().contains("properties: 1 in"));
+
+        GraphMetrics.reset();
+        assertEquals(0, GraphMetrics.snapshot().searches());
+        assertEquals(0, GraphMetrics.snapshot().bfsMaxFrontier());
+    }
+
+    private CsrGraph createSampleGraph() {
+        return CsrGraph.builder().addEdge(1, 2, 3).addEdge(2, 3, 4).addEdge(1, 3, 10).addEdge(3, 4, 1).build();
+    }
+
+    @Test
+    void testHeapSearchesCountTheirWork() {
+        assumeTrue(GraphMetrics.ENABLED, "Runs in the metricsTest task, with -Dgraph.metrics=true.");
+        CsrGraph graph = createSampleGraph();
+        for (SsspEngine engine : new SsspEngine[]{SsspEngine.HEAP, SsspEngine.DIAL}) {
+            GraphMetrics.reset();
+            Dijkstra.dijkstra(graph, 1, new int[graph.nodeCount()], engine);
+            MetricsSnapshot metrics = GraphMetrics.snapshot();
+            assertEquals(1, metrics.searches(), engine.name());
+            assertEquals(4, metrics.relaxations(), engine.name());
+            assertEquals(4, metrics.settled(), engine.name());
+            assertEquals(4, metrics.heapPops(), engine.name());
+            // Node 3 is reached from 1 and then improved from 2.
+            assertEquals(4, metrics.heapPushes(), engine.name());
+            assertEquals(1, metrics.decreaseKeys(), engine.name());
+        }
+
+        GraphMetrics.reset();
+        Dijkstra.dijkstra(graph, 1, new int[graph.nodeCount()], SsspEngine.RADIX_HEAP);
+        MetricsSnapshot radix = GraphMetrics.snapshot();
+        assertEquals(4, radix.settled());
+        assertEquals(5, radix.heapPushes(), "The improved node 3 should be pushed again.");
+        assertEquals(5, radix.heapPops());
+        assertEquals(0, radix.decreaseKeys());
+
+        GraphMetrics.reset();
+        Dijkstra.dijkstra((NeighbourGraph) CompressedGraph.of(graph), 1, new int[graph.nodeCount()]);
+        assertEquals(4, GraphMetrics.snapshot().relaxations());
+        assertEquals(4, GraphMetrics.snapshot().settled());
+
+        GraphMetrics.reset();
+        Dijkstra.shortestPath(graph, 1, 3);
+        assertEquals(3, GraphMetrics.snapshot().settled(), "The search should stop at the target.");
+        assertEquals(3, GraphMetrics.snapshot().relaxations(), "Only the edges of nodes 1 and 2 should be relaxed.");
+    }
+
+    @Test
+    void testEveryEngineCountsItsWork() {
+        assumeTrue(GraphMetrics.ENABLED, "Runs in the metricsTest task, with -Dgraph.metrics=true.");
+        CsrGraph graph = GraphGenerator.generateCsrGraph(300, 1500, 11);
+        int[] previous = new int[graph.nodeCount()];
+
+        GraphMetrics.reset();
+        DeltaStepping.shortestPaths(graph, 1, previous);
+        MetricsSnapshot delta = GraphMetrics.snapshot();
+        assertEquals(1, delta.searches());
+        assertEquals(300, delta.settled(), "Every node is reachable from node 1.");
+        assertTrue(delta.relaxations() >= 1500, "Every edge should be relaxed at least once.");
+        assertTrue(delta.heapPops() >= delta.settled());
+
+        LandmarkIndex landmarks = LandmarkIndex.build(graph, 4, LandmarkIndex.Selection.FARTHEST);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        Object[][] queries = {
+                {"bidirectional", (Runnable) () -> Dijkstra.bidirectionalShortestPath(graph, 1, 250)},
+                {"landmarks", (Runnable) () -> landmarks.shortestPath(graph, 1, 250)},
+                {"contraction hierarchy", (Runnable) () -> hierarchy.distance(1, 250)},
+        };
+        for (Object[] query : queries) {
+            GraphMetrics.reset();
+            ((Runnable) query[1]).run();
+            MetricsSnapshot metrics = GraphMetrics.snapshot();
+            assertEquals(1, metrics.searches(), (String) query[0]);
+            assertTrue(metrics.settled() > 0, (String) query[0]);
+            assertTrue(metrics.relaxations() > 0, (String) query[0]);
+            assertTrue(metrics.heapPushes() >= metrics.settled(), (String) query[0]);
+            assertTrue(metrics.heapPops() >= metrics.settled(), (String) query[0]);
+        }
+    }
+
+    @Test
+    void testDisabledMetricsRecordNothing() {
+        assumeFalse(GraphMetrics.ENABLED, "Runs in the test task, without -Dgraph.metrics=true.");
+        GraphMetrics.reset();
+        CsrGraph graph = GraphGenerator.generateCsrGraph(50, 200, 3);
+        GraphProperties.properties(graph);
+        GraphValidator.isGraphConnected(graph);
+        assertEquals(0, GraphMetrics.snapshot().searches());
+        assertEquals(0, GraphMetrics.snapshot().bfsTraversals());
+    }
+}
@@ -75,4 +75,24 @@ public class GraphPropertiesTest {
         int diameter = GraphProperties.diameter(graph);
         assertEquals(15, diameter, "Diameter of the graph is incorrect.");
     }
+
+    @Test
+    void testPropertiesComputedTogether() {
+        EccentricityResult properties = GraphProperties.properties(createSampleGraph());
+        assertEquals(19, properties.eccentricity(1), "Eccentricity of node 1 is incorrect.");
+        assertEquals(10, properties.radius(), "Radius of the graph is incorrect.");
+        assertEquals(19, properties.diameter(), "Diameter of the graph is incorrect.");
+        assertEquals(List.of(3), properties.center(), "Center of the graph is incorrect.");
+        assertEquals(List.of(1), properties.periphery(), "Periphery of the graph is incorrect.");
+    }
+
+    @Test
+    void testParallelEngineMatchesSingleSourceEccentricity() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(200, 800);
+        EccentricityResult properties = EccentricityEngine.compute(graph);
+        for (int vertex = 1; vertex <= 200; vertex++) {
+            assertEquals(GraphProperties.eccentricity(graph, vertex), properties.eccentricity(vertex),
+                    "Eccentricity of node " + vertex + " is incorrect.");
+        }
+    }
 }
@@ -0,0 +1,105 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphReorderingTest {
+
+    @Test
+    void testEveryOrderKeepsIdsEdgesAndDistances() {
+        CsrGraph generated = GraphGenerator.generateCsrGraph(300, 1200, 5);
+        // Sparse ids exercise the binary search lookup as well as the contiguous one.
+        CsrGraph.Builder builder = CsrGraph.builder().addVertex(5000);
+        for (int v = 0; v < generated.nodeCount(); v++) {
+            for (int e = generated.edgeStart(v); e < generated.edgeEnd(v); e++) {
+                builder.addEdge(generated.id(v) * 3, generated.id(generated.target(e)) * 3, generated.weight(e));
+            }
+        }
+        for (CsrGraph original : new CsrGraph[]{generated, builder.build()}) {
+            for (GraphReordering.Order order : GraphReordering.Order.values()) {
+                GraphReordering reordering = GraphReordering.reorder(original, order);
+                CsrGraph graph = reordering.graph();
+                assertEquals(order, reordering.order());
+                assertEquals(original.toMap(), graph.toMap(), order + " changed the edges.");
+                int n = original.nodeCount();
+                for (int i = 0; i < n; i++) {
+                    assertEquals(i, reordering.newIndex(reordering.originalIndex(i)));
+                    assertEquals(original.id(reordering.originalIndex(i)), graph.id(i));
+                    assertEquals(i, graph.indexOf(graph.id(i)));
+                    assertEquals(reordering.permutation()[i], reordering.originalIndex(i));
+                    assertEquals(reordering.inverse()[i], reordering.newIndex(i));
+                }
+                assertEquals(-1, graph.indexOf(-7));
+                assertFalse(graph.containsVertex(original.id(n - 1) + 1));
+
+                int source = original.id(0);
+                int[] expected = Dijkstra.dijkstra(original, source, new int[n]);
+                int[] actual = Dijkstra.dijkstra(graph, source, new int[n]);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(expected[i], actual[graph.indexOf(original.id(i))]);
+                }
+                assertEquals(GraphProperties.properties(original).center(), GraphProperties.properties(graph).center());
+            }
+        }
+    }
+
+    @Test
+    void testRelabellingIsKeptWithTheGraph() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(300, 1200, 5);
+        CsrGraph reordered = graph.reordered();
+        assertSame(reordered, graph.reordered(), "The relabelled graph should be built once.");
+        assertEquals(GraphReordering.reorder(graph).graph().toMap(), reordered.toMap());
+        assertFalse(reordered.hasAscendingIds());
+    }
+
+    @Test
+    void testRcmNarrowsTheBandOfAShuffledPath() {
+        int n = 500;
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+        }
+        Random random = new Random(3);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i + 1 < n; i++) {
+            builder.addEdge(ids[i], ids[i + 1], 1).addEdge(ids[i + 1], ids[i], 1);
+        }
+        CsrGraph path = builder.build();
+        assertTrue(bandwidth(path) > 10);
+        assertEquals(1, bandwidth(GraphReordering.reorder(path, GraphReordering.Order.RCM).graph()));
+        // Breadth-first order starts in the middle of the path and alternates between its two halves.
+        assertEquals(2, bandwidth(GraphReordering.reorder(path, GraphReordering.Order.BFS).graph()));
+    }
+
+    @Test
+    void testGraphFilesRejectReorderedGraphs() throws Exception {
+        CsrGraph graph = GraphReordering.reorder(GraphGenerator.generateCsrGraph(50, 100, 1), GraphReordering.Order.DEGREE).graph();
+        Path file = Files.createTempFile("reordered", ".graph");
+        try {
+            assertThrows(IllegalArgumentException.class, () -> GraphFile.write(graph, file, false));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static int bandwidth(CsrGraph graph) {
+        int band = 0;
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                band = Math.max(band, Math.abs(graph.target(e) - v));
+            }
+        }
+        return band;
+    }
+}
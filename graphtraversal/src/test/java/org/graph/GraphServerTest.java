@@ -0,0 +1,205 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> send(GraphServer server, String method, String pathAndQuery)
+            throws IOException, InterruptedException {
+        String host = server.address().getAddress().getHostAddress();
+        host = host.contains(":") ? "[" + host + "]" : host;
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + host + ":" + server.port() + pathAndQuery))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Requests the properties until they have been computed.
+     */
+    private HttpResponse<String> awaitProperties(GraphServer server) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(server, "GET", "/properties");
+        for (int attempt = 0; attempt < 500 && response.statusCode() == 202; attempt++) {
+            Thread.sleep(10);
+            response = send(server, "GET", "/properties");
+        }
+        return response;
+    }
+
+    @Test
+    void testAnswersQueriesAgainstResidentGraph() throws Exception {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 3).addEdge(2, 3, 4).addEdge(3, 1, 1).addEdge(1, 3, 10).build();
+        GraphServer server = new GraphServer(graph, 0, 2, 8);
+        server.start();
+        try {
+            HttpResponse<String> path = send(server, "GET", "/path?from=1&to=3");
+            assertEquals(200, path.statusCode());
+            assertEquals("{\"from\":1,\"to\":3,\"distance\":7,\"path\":[1,2,3]}", path.body());
+
+            assertEquals("{\"from\":1,\"to\":9,\"distance\":-1,\"path\":[]}", send(server, "GET", "/path?from=1&to=9").body());
+            assertEquals("{\"node\":2,\"eccentricity\":5}", send(server, "GET", "/eccentricity?node=2").body());
+            assertEquals("{\"radius\":4,\"diameter\":7,\"center\":[3],\"periphery\":[1]}",
+                    awaitProperties(server).body());
+            assertEquals("{\"version\":1,\"nodes\":3,\"edges\":4}", send(server, "GET", "/graph").body());
+            send(server, "GET", "/path?from=1&to=2");
+            assertEquals(2, server.cache().size(), "Sources 1 and 2 should have cached trees.");
+            assertTrue(send(server, "GET", "/cache").body().contains("\"hits\":2,"));
+
+            assertEquals(400, send(server, "GET", "/path?from=1").statusCode());
+            assertEquals(400, send(server, "GET", "/eccentricity?node=x").statusCode());
+            assertEquals(400, send(server, "GET", "/eccentricity?node=42").statusCode());
+            assertEquals(405, send(server, "POST", "/path?from=1&to=3").statusCode());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testHotSwapReplacesGraph() throws Exception {
+        GraphServer server = new GraphServer(CsrGraph.builder().addEdge(1, 2, 1).build(), 0, 1, 0);
+        server.start();
+        try {
+            HttpResponse<String> swapped = send(server, "POST", "/graph?nodes=50&edges=200&seed=3");
+            assertEquals(200, swapped.statusCode());
+            assertEquals("{\"version\":2,\"nodes\":50,\"edges\":200}", swapped.body());
+            assertEquals(GraphGenerator.generateCsrGraph(50, 200, 3).toMap(), server.graph().toMap());
+
+            send(server, "GET", "/path?from=1&to=2");
+            assertEquals(3, server.swap(CsrGraph.builder().addEdge(7, 8, 2).build()));
+            assertEquals(0, server.cache().size(), "A swap should invalidate the cached trees.");
+            assertEquals("{\"from\":7,\"to\":8,\"distance\":2,\"path\":[7,8]}", send(server, "GET", "/path?from=7&to=8").body());
+            assertEquals(400, send(server, "POST", "/graph?file=/does/not/exist.bin").statusCode(),
+                    "Without a data directory no file should be loaded.");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testLoadsOnlyFromDataDirectory() throws Exception {
+        Path root = Files.createTempDirectory("graph-server");
+        Path data = Files.createDirectory(root.resolve("data"));
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 5).addEdge(2, 3, 1).build();
+        GraphText.write(graph, data.resolve("graph.tsv"), GraphText.Format.TSV);
+        GraphText.write(graph, root.resolve("secret.tsv"), GraphText.Format.TSV);
+        GraphServer server = GraphServer.builder(CsrGraph.builder().addEdge(1, 2, 1).build())
+                .dataDirectory(data)
+                .maxGeneratedEdges(1000)
+                .build();
+        server.start();
+        try {
+            assertTrue(server.address().getAddress().isLoopbackAddress());
+            assertEquals(200, send(server, "POST", "/graph?file=graph.tsv&format=tsv").statusCode());
+            assertEquals(graph.toMap(), server.graph().toMap());
+
+            assertEquals(400, send(server, "POST", "/graph?file=../secret.tsv&format=tsv").statusCode());
+            assertEquals(400, send(server, "POST", "/graph?file=" + root.resolve("secret.tsv") + "&format=tsv").statusCode());
+            assertEquals(500, send(server, "POST", "/graph?file=missing.bin").statusCode());
+
+            assertEquals(400, send(server, "POST", "/graph?nodes=1001&edges=1001").statusCode());
+            assertEquals(400, send(server, "POST", "/graph?nodes=10&edges=2000").statusCode());
+            assertEquals(200, send(server, "POST", "/graph?nodes=100&edges=1000&seed=1").statusCode());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testRejectsRequestsWhenOverloaded() throws Exception {
+        GraphServer server = GraphServer.builder(CsrGraph.builder().addEdge(1, 2, 1).build())
+                .threads(1)
+                .queueCapacity(0)
+                .build();
+        server.start();
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            server.executor().execute(() -> {
+                busy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            busy.await();
+
+            HttpResponse<String> rejected = send(server, "GET", "/graph");
+            assertEquals(503, rejected.statusCode());
+            assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(null));
+
+            release.countDown();
+            HttpResponse<String> answered = null;
+            for (int attempt = 0; attempt < 100 && (answered == null || answered.statusCode() == 503); attempt++) {
+                Thread.sleep(10);
+                answered = send(server, "GET", "/graph");
+            }
+            assertEquals(200, answered.statusCode());
+        } finally {
+            release.countDown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testComputesPropertiesOffTheRequestThreads() throws Exception {
+        GraphServer server = GraphServer.builder(CsrGraph.builder().addEdge(1, 2, 3).addEdge(2, 1, 4).build())
+                .threads(1)
+                .build();
+        server.start();
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            server.propertiesExecutor().execute(() -> {
+                busy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            busy.await();
+
+            HttpResponse<String> pending = send(server, "GET", "/properties");
+            assertEquals(202, pending.statusCode());
+            assertEquals("1", pending.headers().firstValue("Retry-After").orElse(null));
+            assertEquals(200, send(server, "GET", "/graph").statusCode(), "Other requests should not wait for the properties.");
+
+            // A swap drops the computation for the previous graph if it has not started.
+            server.swap(CsrGraph.builder().addEdge(1, 2, 5).addEdge(2, 1, 5).build());
+            assertEquals(0, server.propertiesExecutor().getQueue().size());
+            assertEquals(202, send(server, "GET", "/properties").statusCode());
+
+            // With the queue full of other work, the computation cannot even wait.
+            server.swap(CsrGraph.builder().addEdge(1, 2, 6).addEdge(2, 1, 6).build());
+            server.propertiesExecutor().execute(() -> { });
+            HttpResponse<String> rejected = send(server, "GET", "/properties");
+            assertEquals(503, rejected.statusCode());
+            assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(null));
+
+            release.countDown();
+            HttpResponse<String> answered = null;
+            for (int attempt = 0; attempt < 100 && (answered == null || answered.statusCode() != 200); attempt++) {
+                Thread.sleep(10);
+                answered = send(server, "GET", "/properties");
+            }
+            assertEquals("{\"radius\":6,\"diameter\":6,\"center\":[1,2],\"periphery\":[1,2]}", answered.body());
+        } finally {
+            release.countDown();
+            server.stop(0);
+        }
+    }
+}
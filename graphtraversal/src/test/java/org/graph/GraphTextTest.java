@@ -0,0 +1,91 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphTextTest {
+
+    @Test
+    void testRoundTripInEveryFormat() throws IOException {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(300, 1500, 5);
+        Path file = Files.createTempFile("graph", ".txt");
+        try {
+            for (GraphText.Format format : GraphText.Format.values()) {
+                GraphText.write(graph, file, format);
+                // Small chunks make the reader split the file at many line breaks.
+                CsrGraph read = GraphText.read(file, format, 100);
+                assertEquals(graph.toMap(), read.toMap(), format + " round trip should keep the graph.");
+                assertEquals(graph.toMap(), GraphText.read(file, format).toMap());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testRoundTripKeepsIsolatedNodes() throws IOException {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        Random rand = new Random(9);
+        for (int i = 0; i < 1000; i++) {
+            builder.addEdge(rand.nextInt(340) + 1, rand.nextInt(340) + 1, rand.nextInt(10) + 1);
+        }
+        // Isolated nodes before, between and after the others, and a sink that is only a target.
+        CsrGraph graph = builder.addVertex(-5).addVertex(345).addVertex(350).addEdge(1, 400, 2).build();
+        Path file = Files.createTempFile("graph", ".txt");
+        try {
+            for (GraphText.Format format : GraphText.Format.values()) {
+                GraphText.write(graph, file, format);
+                CsrGraph read = GraphText.read(file, format, 100);
+                assertEquals(graph.nodeCount(), read.nodeCount(), format + " should keep every node.");
+                assertEquals(graph.toMap(), read.toMap(), format + " round trip should keep the graph.");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testAdjacencyFormatMatchesPrintedMap() throws IOException {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 7).addEdge(1, 3, 4).addEdge(2, 3, 1).addVertex(4).build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GraphText.write(graph, Channels.newChannel(out), GraphText.Format.ADJACENCY);
+
+        Map<Integer, List<Edge>> map = graph.toMap();
+        String expected = "{\n" + map.entrySet().stream()
+                .map(entry -> "  :" + entry.getKey() + " [" + entry.getValue().stream()
+                        .map(Edge::toString).collect(Collectors.joining(", ")) + "]")
+                .collect(Collectors.joining(",\n")) + "\n}\n";
+        assertEquals(expected, out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testSkipsHeadersAndCommentsAndRejectsMalformedLines() throws IOException {
+        Path file = Files.createTempFile("graph", ".csv");
+        try {
+            Files.writeString(file, "from,to,weight\n# a comment 1,2,3\n1,2,5\r\n2,-3,-1\n\n");
+            CsrGraph graph = GraphText.read(file, GraphText.Format.CSV);
+            assertEquals(3, graph.nodeCount());
+            assertEquals(2, graph.edgeCount());
+            assertEquals(-1, graph.weight(graph.edgeStart(graph.indexOf(2))));
+
+            Files.writeString(file, "1,2,5\n1,2\n");
+            assertThrows(IOException.class, () -> GraphText.read(file, GraphText.Format.CSV));
+            Files.writeString(file, "1\t2\t99999999999\n");
+            assertThrows(IOException.class, () -> GraphText.read(file, GraphText.Format.TSV));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
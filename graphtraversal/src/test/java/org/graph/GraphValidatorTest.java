@@ -36,6 +36,43 @@ public class GraphValidatorTest {
         assertTrue(nodes.containsAll(expectedNodes));
     }
 
+    @Test
+    void testSeqGraphBfsVisitsLevelByLevel() {
+        Map<Integer, List<Edge>> graph = createSampleGraph();
+        List<Integer> nodes = GraphValidator.seqGraphBfs(graph, 1, Edge::getTo).collect(Collectors.toList());
+        assertEquals(1, (int) nodes.get(0));
+        assertEquals(new HashSet<>(Arrays.asList(2, 5)), new HashSet<>(nodes.subList(1, 3)));
+        assertEquals(Arrays.asList(3, 4), nodes.subList(3, 5));
+
+        // Nodes that are only edge targets, or not in the map at all, are still visited.
+        graph.put(4, Arrays.asList(new Edge(9, 1)));
+        assertEquals(6, GraphValidator.seqGraphBfs(graph, 1, Edge::getTo).count());
+        assertEquals(Arrays.asList(42), GraphValidator.seqGraphBfs(graph, 42, Edge::getTo).collect(Collectors.toList()));
+        assertFalse(GraphValidator.isGraphConnected(graph), "Node 9 is not a key of the map.");
+    }
+
+    @Test
+    void testSeqGraphFollowsTheQueueLazily() {
+        Map<Integer, List<Edge>> graph = new HashMap<>();
+        graph.put(1, Arrays.asList(new Edge(2, 1), new Edge(3, 1)));
+        graph.put(2, Arrays.asList(new Edge(4, 1)));
+        graph.put(3, Arrays.asList(new Edge(5, 1)));
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5),
+                GraphValidator.seqGraph(new ArrayDeque<>(), graph, 1, Edge::getTo).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(1, 3, 5, 2, 4),
+                GraphValidator.seqGraph(Collections.asLifoQueue(new ArrayDeque<>()), graph, 1, Edge::getTo)
+                        .collect(Collectors.toList()));
+
+        List<Integer> mapped = new ArrayList<>();
+        Optional<Integer> first = GraphValidator.seqGraph(new ArrayDeque<>(), graph, 1, edge -> {
+            mapped.add(edge.getTo());
+            return edge.getTo();
+        }).findFirst();
+        assertEquals(Optional.of(1), first);
+        assertEquals(Arrays.asList(2, 3), mapped, "Only the start node should have been expanded.");
+    }
+
     @Test
     void testIsGraphConnected_connected() {
         Map<Integer, List<Edge>> graph = createSampleGraph();
@@ -0,0 +1,71 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedMinHeapTest {
+
+    @Test
+    void testPollReturnsVerticesInKeyOrder() {
+        Random rand = new Random(42);
+        int[] keys = new int[200];
+        IndexedMinHeap heap = new IndexedMinHeap(keys.length);
+        for (int v = 0; v < keys.length; v++) {
+            keys[v] = rand.nextInt(1000);
+            heap.insert(v, keys[v]);
+        }
+
+        int[] polled = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            polled[i] = keys[heap.poll()];
+        }
+        int[] expected = keys.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, polled, "Vertices should be polled in ascending key order.");
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void testDecreaseKeyMovesVertexToFront() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insert(0, 10);
+        heap.insert(1, 20);
+        heap.insert(2, 30);
+
+        heap.decreaseKey(2, 5);
+
+        assertEquals(5, heap.minKey());
+        assertEquals(2, heap.poll());
+        assertFalse(heap.contains(2));
+        assertTrue(heap.contains(1));
+    }
+
+    @Test
+    void testInsertOrDecreaseAndClear() {
+        IndexedMinHeap heap = new IndexedMinHeap(3);
+        heap.insertOrDecrease(1, 8);
+        heap.insertOrDecrease(1, 3);
+        heap.insertOrDecrease(2, 4);
+
+        assertEquals(2, heap.size());
+        assertEquals(3, heap.key(1));
+
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(1));
+        assertThrows(NoSuchElementException.class, heap::poll);
+    }
+
+    @Test
+    void testInvalidOperations() {
+        IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.insert(0, 5);
+        assertThrows(IllegalArgumentException.class, () -> heap.insert(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(0, 6));
+    }
+}
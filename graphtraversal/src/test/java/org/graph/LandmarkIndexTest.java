@@ -0,0 +1,136 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LandmarkIndexTest {
+
+    private void assertMatchesDijkstra(CsrGraph graph, LandmarkIndex index) {
+        Random rand = new Random(11);
+        for (int i = 0; i < 300; i++) {
+            int start = rand.nextInt(graph.nodeCount()) + 1;
+            int end = rand.nextInt(graph.nodeCount()) + 1;
+            int[] distances = Dijkstra.dijkstra(graph, start, new int[graph.nodeCount()]);
+            int expected = distances[graph.indexOf(end)];
+
+            List<Integer> path = index.shortestPath(graph, start, end);
+
+            if (expected == Integer.MAX_VALUE) {
+                assertEquals(Collections.emptyList(), path, "Unreachable node should give an empty path.");
+            } else {
+                assertEquals(start, path.get(0).intValue());
+                assertEquals(end, path.get(path.size() - 1).intValue());
+                assertEquals(expected, pathLength(graph, path), "Path from " + start + " to " + end + " is not shortest.");
+            }
+        }
+    }
+
+    private int pathLength(CsrGraph graph, List<Integer> path) {
+        int length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            int from = graph.indexOf(path.get(i - 1));
+            int to = graph.indexOf(path.get(i));
+            int weight = Integer.MAX_VALUE;
+            for (int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++) {
+                if (graph.target(e) == to) {
+                    weight = graph.weight(e);
+                }
+            }
+            assertNotEquals(Integer.MAX_VALUE, weight, "Path uses a missing edge.");
+            length += weight;
+        }
+        return length;
+    }
+
+    @Test
+    void testFarthestLandmarksGiveShortestPaths() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(400, 1200);
+        LandmarkIndex index = LandmarkIndex.build(graph, 8, LandmarkIndex.Selection.FARTHEST);
+
+        assertEquals(8, index.landmarks(graph).size());
+        assertMatchesDijkstra(graph, index);
+    }
+
+    @Test
+    void testAvoidLandmarksGiveShortestPaths() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(400, 1200);
+        LandmarkIndex index = LandmarkIndex.build(graph, 8, LandmarkIndex.Selection.AVOID);
+
+        assertEquals(8, index.landmarks(graph).stream().distinct().count(), "Landmarks should be distinct.");
+        assertMatchesDijkstra(graph, index);
+    }
+
+    @Test
+    void testLowerBoundsNeverExceedDistances() {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(150, 450);
+        LandmarkIndex index = LandmarkIndex.build(graph, 4, LandmarkIndex.Selection.FARTHEST);
+        for (int from = 0; from < graph.nodeCount(); from++) {
+            int[] distances = Dijkstra.dijkstra(graph, graph.id(from), new int[graph.nodeCount()]);
+            for (int to = 0; to < graph.nodeCount(); to++) {
+                assertTrue(index.lowerBound(from, to) <= distances[to], "Bound must not overestimate.");
+            }
+        }
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(200, 600);
+        LandmarkIndex index = LandmarkIndex.build(graph, 4, LandmarkIndex.Selection.FARTHEST);
+        Path file = Files.createTempFile("landmarks", ".bin");
+        try {
+            index.save(file);
+            LandmarkIndex loaded = LandmarkIndex.load(file, graph);
+
+            assertEquals(index.landmarks(graph), loaded.landmarks(graph));
+            assertEquals(index.shortestPath(graph, 1, 200), loaded.shortestPath(graph, 1, 200));
+
+            CsrGraph other = GraphGenerator.generateCsrGraph(200, 600);
+            assertThrows(IllegalArgumentException.class, () -> LandmarkIndex.load(file, other));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testLoadRejectsCorruptFiles() throws IOException {
+        CsrGraph graph = GraphGenerator.generateCsrGraph(50, 150, 9);
+        LandmarkIndex index = LandmarkIndex.build(graph, 3, LandmarkIndex.Selection.AVOID);
+        Path file = Files.createTempFile("landmarks", ".bin");
+        try {
+            index.save(file);
+            byte[] bytes = Files.readAllBytes(file);
+
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+            assertThrows(IOException.class, () -> LandmarkIndex.load(file, graph), "A truncated file should be rejected.");
+
+            Files.write(file, Arrays.copyOf(bytes, bytes.length + 4));
+            assertThrows(IOException.class, () -> LandmarkIndex.load(file, graph), "Trailing data should be rejected.");
+
+            byte[] landmarkCount = bytes.clone();
+            landmarkCount[12] = 0x7F;
+            Files.write(file, landmarkCount);
+            assertThrows(IOException.class, () -> LandmarkIndex.load(file, graph), "More landmarks than nodes should be rejected.");
+
+            byte[] landmark = bytes.clone();
+            landmark[24] = 0x7F;
+            Files.write(file, landmark);
+            assertThrows(IOException.class, () -> LandmarkIndex.load(file, graph), "A landmark outside the graph should be rejected.");
+
+            byte[] magic = bytes.clone();
+            magic[0] = 0;
+            Files.write(file, magic);
+            assertThrows(IOException.class, () -> LandmarkIndex.load(file, graph));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiSourceBfsTest {
+
+    @Test
+    void testEccentricitiesMatchSingleSourceBfs() {
+        // 150 sources make two full batches and a partial one.
+        CsrGraph graph = GraphGenerator.generateCsrGraph(150, 400, 6);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            EccentricityResult result = MultiSourceBfs.eccentricities(graph, pool);
+            int radius = Integer.MAX_VALUE;
+            int diameter = 0;
+            for (int v = 0; v < graph.nodeCount(); v++) {
+                int expected = BreadthFirstSearch.run(graph, graph.id(v)).levels() - 1;
+                assertEquals(expected, result.eccentricity(graph.id(v)), "Hop eccentricity of " + graph.id(v));
+                assertEquals(expected, GraphProperties.hopEccentricity(graph, graph.id(v)));
+                // Like the weighted radius, vertices that reach nothing are ignored.
+                radius = expected == 0 ? radius : Math.min(radius, expected);
+                diameter = Math.max(diameter, expected);
+            }
+            assertEquals(radius, GraphProperties.hopRadius(graph));
+            assertEquals(diameter, GraphProperties.hopDiameter(graph));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testHopMatrix() {
+        CsrGraph graph = CsrGraph.builder().addEdge(1, 2, 9).addEdge(2, 3, 9).addEdge(1, 3, 50).addEdge(3, 4, 1).addVertex(5).build();
+        int[][] matrix = MultiSourceBfs.hopMatrix(graph);
+        int unreachable = Integer.MAX_VALUE;
+        assertArrayEquals(new int[]{0, 1, 1, 2, unreachable}, matrix[0]);
+        assertArrayEquals(new int[]{unreachable, 0, 1, 2, unreachable}, matrix[1]);
+        assertArrayEquals(new int[]{unreachable, unreachable, unreachable, unreachable, 0}, matrix[4]);
+
+        CsrGraph larger = GraphGenerator.generateCsrGraph(100, 300, 2);
+        int[][] all = MultiSourceBfs.hopMatrix(larger);
+        int[] sources = {7, 100, 7, 1};
+        int[] seen = {0};
+        MultiSourceBfs.hopRows(larger, sources, (source, hops) -> {
+            assertEquals(sources[seen[0]++], source);
+            assertArrayEquals(all[larger.indexOf(source)], hops);
+        });
+        assertEquals(4, seen[0]);
+        assertThrows(IllegalArgumentException.class, () -> MultiSourceBfs.hopRows(larger, new int[]{101}, (s, h) -> { }));
+    }
+}
@@ -0,0 +1,94 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortestPathTreeCacheTest {
+
+    private CsrGraph createSampleGraph() {
+        return CsrGraph.builder().addEdge(1, 2, 3).addEdge(2, 3, 4).addEdge(1, 3, 10).addEdge(3, 4, 1).build();
+    }
+
+    @Test
+    void testTreeAnswersEveryTarget() {
+        ShortestPathTree tree = ShortestPathTree.compute(createSampleGraph(), 1);
+        assertEquals(Arrays.asList(1, 2, 3, 4), tree.path(4));
+        assertEquals(8, tree.distance(4));
+        assertEquals(0, tree.distance(1));
+        assertEquals(8, tree.eccentricity());
+        assertTrue(ShortestPathTree.compute(createSampleGraph(), 4).path(1).isEmpty());
+        assertEquals(Integer.MAX_VALUE, tree.distance(99));
+        assertThrows(IllegalArgumentException.class, () -> ShortestPathTree.compute(createSampleGraph(), 99));
+    }
+
+    @Test
+    void testHitsMissesAndVersionInvalidation() {
+        CsrGraph graph = createSampleGraph();
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(1 << 20);
+
+        ShortestPathTree first = cache.tree(graph, 1, 1);
+        assertSame(first, cache.tree(graph, 1, 1));
+        cache.tree(graph, 1, 2);
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.size());
+
+        // A newer version drops all trees, and an older one is no longer cached.
+        CsrGraph changed = CsrGraph.builder().addEdge(1, 2, 1).build();
+        assertEquals(1, cache.tree(changed, 2, 1).distance(2));
+        assertEquals(1, cache.size());
+        assertNotSame(cache.tree(graph, 1, 1), cache.tree(graph, 1, 1));
+        assertEquals(1, cache.size());
+
+        cache.invalidate();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.sizeInBytes());
+    }
+
+    @Test
+    void testInvalidateDuringComputationKeepsStaleTreeOut() {
+        CsrGraph graph = createSampleGraph();
+        ShortestPathTreeCache[] cache = new ShortestPathTreeCache[1];
+        boolean[] invalidated = new boolean[1];
+        cache[0] = new ShortestPathTreeCache(1 << 20, (g, source) -> {
+            ShortestPathTree tree = ShortestPathTree.compute(g, source);
+            if (!invalidated[0]) {
+                // The graph changes in place while the first tree is being computed.
+                invalidated[0] = true;
+                cache[0].invalidate();
+            }
+            return tree;
+        });
+
+        ShortestPathTree stale = cache[0].tree(graph, 1, 1);
+        assertEquals(0, cache[0].size(), "A tree computed before invalidate() should not be cached.");
+        ShortestPathTree fresh = cache[0].tree(graph, 1, 1);
+        assertNotSame(stale, fresh);
+        assertSame(fresh, cache[0].tree(graph, 1, 1));
+        assertEquals(1, cache[0].size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedTreesOverBudget() {
+        CsrGraph graph = createSampleGraph();
+        long treeBytes = ShortestPathTree.compute(graph, 1).sizeInBytes();
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(2 * treeBytes);
+
+        ShortestPathTree one = cache.tree(graph, 1, 1);
+        cache.tree(graph, 1, 2);
+        cache.tree(graph, 1, 1);
+        cache.tree(graph, 1, 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertTrue(cache.sizeInBytes() <= 2 * treeBytes);
+        assertSame(one, cache.tree(graph, 1, 1), "The recently used tree should have been kept.");
+
+        ShortestPathTreeCache tiny = new ShortestPathTreeCache(treeBytes - 1);
+        tiny.tree(graph, 1, 1);
+        assertEquals(0, tiny.size(), "A tree larger than the budget should not be cached.");
+    }
+}
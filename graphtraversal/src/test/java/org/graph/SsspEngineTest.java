@@ -0,0 +1,79 @@
+package org.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SsspEngineTest {
+
+    private CsrGraph createRandomGraph(int n, int m, int minWeight, int maxWeight, long seed) {
+        Random rand = new Random(seed);
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 1; i < n; i++) {
+            builder.addEdge(i, i + 1, minWeight + rand.nextInt(maxWeight - minWeight + 1));
+        }
+        for (int i = 0; i < m; i++) {
+            builder.addEdge(rand.nextInt(n) + 1, rand.nextInt(n) + 1, minWeight + rand.nextInt(maxWeight - minWeight + 1));
+        }
+        return builder.build();
+    }
+
+    private void assertEnginesAgree(CsrGraph graph) {
+        for (int start = 1; start <= graph.nodeCount(); start += 17) {
+            int[] expected = Dijkstra.dijkstra(graph, start, new int[graph.nodeCount()], SsspEngine.HEAP);
+            for (SsspEngine engine : SsspEngine.values()) {
+                int[] previous = new int[graph.nodeCount()];
+                int[] distances = Dijkstra.dijkstra(graph, start, previous, engine);
+                assertArrayEquals(expected, distances, engine + " distances from " + start + " are incorrect.");
+                assertValidPredecessors(graph, graph.indexOf(start), distances, previous);
+            }
+        }
+    }
+
+    private void assertValidPredecessors(CsrGraph graph, int source, int[] distances, int[] previous) {
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            if (v == source || distances[v] == Integer.MAX_VALUE) {
+                assertEquals(-1, previous[v]);
+                continue;
+            }
+            int u = previous[v];
+            boolean tight = false;
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                tight |= graph.target(e) == v && distances[u] + graph.weight(e) == distances[v];
+            }
+            assertTrue(tight, "Predecessor of " + v + " is not on a shortest path.");
+        }
+    }
+
+    @Test
+    void testEnginesAgreeOnSmallWeights() {
+        assertEnginesAgree(createRandomGraph(300, 1200, 1, 10, 1));
+    }
+
+    @Test
+    void testEnginesAgreeWithZeroWeights() {
+        assertEnginesAgree(createRandomGraph(300, 1200, 0, 3, 2));
+    }
+
+    @Test
+    void testEnginesAgreeOnLargeWeights() {
+        assertEnginesAgree(createRandomGraph(300, 1200, 1, 1_000_000, 3));
+    }
+
+    @Test
+    void testEnginesAgreeOnZeroOneWeights() {
+        assertEnginesAgree(createRandomGraph(300, 1200, 0, 1, 8));
+    }
+
+    @Test
+    void testAutoSelection() {
+        assertEquals(SsspEngine.DIAL, SsspEngine.AUTO.resolve(createRandomGraph(10, 20, 1, 10, 4)));
+        assertEquals(SsspEngine.RADIX_HEAP, SsspEngine.AUTO.resolve(createRandomGraph(10, 20, 1, 100_000, 5)));
+        assertEquals(SsspEngine.HEAP, SsspEngine.AUTO.resolve(createRandomGraph(10, 20, -1, 5, 6)));
+        assertEquals(SsspEngine.DIAL, SsspEngine.DIAL.resolve(createRandomGraph(10, 20, 1, 100_000, 7)));
+        assertEquals(SsspEngine.ZERO_ONE_BFS, SsspEngine.AUTO.resolve(createRandomGraph(10, 20, 0, 1, 9)));
+        assertEquals(SsspEngine.DIAL, SsspEngine.ZERO_ONE_BFS.resolve(createRandomGraph(10, 20, 0, 2, 10)));
+    }
+}